@@ -0,0 +1,133 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * The AllocationProbe measures how many bytes of heap the simulator allocates per
+ * instruction it retires, using the allocated-bytes counter HotSpot keeps for each
+ * thread. It can measure one instruction handler, by running a loop made of that
+ * instruction alone, or a whole program on one of the execution engines.
+ *
+ * Every measurement runs the code once to let the JIT compile it and then measures
+ * a second run, so what is reported is the steady state.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public final class AllocationProbe {
+
+    private final static com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // The handler loop: AND R7 <- 0, to set the CC, then HANDLER_COPIES of the
+    // instruction, then a BRnzp back to the first copy.
+    private final static int HANDLER_COPIES = 32;
+    private final static String LOOP_START = "0101111111100000";
+    private final static String LOOP_BACK = "0000111111011111";
+    private final static int HANDLER_DATA = 0x0041; // the word LD loads, ASCII A
+
+    private final static int CHUNK = 4_096; // instructions between clearing the output
+    private final static int HANDLER_INSTRUCTIONS = 256 * CHUNK;
+    private final static long WARM_UP_INSTRUCTIONS = HANDLER_INSTRUCTIONS;
+
+    private AllocationProbe() {
+    }
+
+    /**
+     * @return the bytes allocated by the current thread since it started
+     */
+    public static long allocatedBytes() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Measures the instruction handler for theWord. Relative fields of a BR or LD
+     * are filled in: a BR targets the next instruction and an LD a data word.
+     * Output goes to a buffer and input reads 0s.
+     * @param theWord the instruction, whose opcode picks the handler
+     * @return the bytes allocated per instruction retired
+     */
+    public static double handlerBytesPerInstruction(final int theWord) {
+        final Computer computer = new Computer();
+        computer.loadMachineCode(handlerLoop(theWord));
+        final StringBuilder output = new StringBuilder(1 << 18);
+        computer.setOutput(output);
+        computer.setInput("");
+        runHandlerLoop(computer, output);
+        final long start = allocatedBytes();
+        final int retired = runHandlerLoop(computer, output);
+        return (double) (allocatedBytes() - start) / retired;
+    }
+
+    // the instruction repeated between LOOP_START and LOOP_BACK, followed by the data word
+    private static String[] handlerLoop(final int theWord) {
+        final String[] program = new String[HANDLER_COPIES + 3];
+        program[0] = LOOP_START;
+        final int data = HANDLER_COPIES + 2;
+        for (int i = 1; i <= HANDLER_COPIES; i++) {
+            int word = theWord;
+            if ((word >>> 12) == 0) {
+                word &= ~0x1FF; // BR to the next instruction
+            } else if ((word >>> 12) == 2) {
+                word = (word & ~0x1FF) | (data - (i + 1)); // LD the data word
+            }
+            program[i] = toBits(word);
+        }
+        program[HANDLER_COPIES + 1] = LOOP_BACK;
+        program[data] = toBits(HANDLER_DATA);
+        return program;
+    }
+
+    // runs HANDLER_INSTRUCTIONS instructions in chunks, clearing theOutput after each
+    private static int runHandlerLoop(final Computer theComputer, final StringBuilder theOutput) {
+        for (int done = 0; done < HANDLER_INSTRUCTIONS; done += CHUNK) {
+            for (int i = 0; i < CHUNK; i++) {
+                theComputer.executeNext();
+            }
+            theOutput.setLength(0);
+        }
+        return HANDLER_INSTRUCTIONS;
+    }
+
+    /**
+     * Measures a whole program, from the start of execution to its HALT. Creating
+     * the computer and loading the program are not counted; anything the engine
+     * sets up, such as the tiered executor's graph, is.
+     * @param theProgram the machine code program, as Strings
+     * @param theEngine the engine to run it on
+     * @param theRuns the number of runs measured
+     * @return the bytes allocated per instruction retired
+     */
+    public static double programBytesPerInstruction(final String[] theProgram,
+                                                    final MacroBenchmark.Engine theEngine, final int theRuns) {
+        if (theRuns <= 0) {
+            throw new IllegalArgumentException("Invalid runs");
+        }
+        final StringBuilder output = new StringBuilder();
+        long bytes = 0;
+        long retired = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            bytes = 0;
+            retired = 0;
+            // the warm up runs until the JIT has seen enough of every handler
+            for (int run = 0; run < theRuns || (pass == 0 && retired < WARM_UP_INSTRUCTIONS); run++) {
+                final Computer computer = new Computer();
+                computer.loadMachineCode(theProgram);
+                output.setLength(0); // reused, so its growth is not counted
+                computer.setOutput(output);
+                final long start = allocatedBytes();
+                theEngine.execute(computer);
+                bytes += allocatedBytes() - start;
+                retired += computer.getInstructionCount();
+            }
+        }
+        return (double) bytes / retired;
+    }
+
+    // the 16 character String of 0s and 1s for a word
+    private static String toBits(final int theWord) {
+        final char[] bits = new char[16];
+        for (int i = 0; i < 16; i++) {
+            bits[i] = (theWord & (0x8000 >>> i)) != 0 ? '1' : '0';
+        }
+        return new String(bits);
+    }
+}
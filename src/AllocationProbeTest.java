@@ -0,0 +1,96 @@
+/*
+ * Allocation budget tests for the instruction handlers and execution engines.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class AllocationProbeTest {
+
+    // Once compiled, a handler must not allocate at all; the budget only absorbs
+    // the probe's own bookkeeping.
+    private static final double HANDLER_BUDGET = 0.01;
+
+    // The tiered executor allocates its graph once per run, and a run allocates its
+    // JFR event while recording; short programs pay for that over fewer instructions.
+    private static final double INTERPRETER_BUDGET = 0.1;
+    private static final double TIERED_BUDGET = 2.0;
+
+    private static final int[] HANDLERS = {
+            0x1262,  // ADD R1 <- R1 + 2
+            0x1240,  // ADD R1 <- R1 + R0
+            0x5262,  // AND R1 <- R1 AND 2
+            0x5240,  // AND R1 <- R1 AND R0
+            0x927F,  // NOT R1 <- R1
+            0x2200,  // LD into R1
+            0x0E00,  // BRnzp
+            0x0000,  // BR testing nothing
+            0xF020,  // TRAP - vector x20 - GETC
+            0xF021,  // TRAP - vector x21 - OUT
+            0xF022,  // TRAP - vector x22 - PUTS
+            0xF023,  // TRAP - vector x23 - IN
+            0xF024,  // TRAP - vector x24 - PUTSP
+    };
+
+    /**
+     * Test method for {@link AllocationProbe#handlerBytesPerInstruction(int)}.
+     */
+    @Test
+    void testHandlersAllocateNothing() {
+        for (int handler : HANDLERS) {
+            double bytes = AllocationProbe.handlerBytesPerInstruction(handler);
+            assertTrue(bytes <= HANDLER_BUDGET, String.format(
+                    "handler x%04X allocates %.4f bytes per instruction", handler, bytes));
+        }
+    }
+
+    /**
+     * Test method for {@link AllocationProbe#programBytesPerInstruction(String[], MacroBenchmark.Engine, int)}.
+     */
+    @Test
+    void testProgramsStayWithinBudget() {
+        for (MacroBenchmark.Workload workload : MacroBenchmark.Workload.values()) {
+            for (MacroBenchmark.Engine engine : MacroBenchmark.Engine.values()) {
+                double budget = engine == MacroBenchmark.Engine.INTERPRETER ? INTERPRETER_BUDGET : TIERED_BUDGET;
+                if (workload == MacroBenchmark.Workload.NESTED_LOOPS) {
+                    budget = HANDLER_BUDGET; // long enough that set up costs vanish
+                }
+                double bytes = AllocationProbe.programBytesPerInstruction(workload.getProgram(), engine, 1);
+                assertTrue(bytes <= budget, String.format(
+                        "%s on %s allocates %.4f bytes per instruction", workload, engine, bytes));
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link AllocationProbe#allocatedBytes()}.
+     */
+    @Test
+    void testInterruptsAllocateNothing() {
+        Computer computer = new Computer(65536);
+        computer.memory().set(0, 0x5FE0); // AND R7 <- 0
+        computer.memory().set(1, 0x0FFF); // BRnzp - to itself, forever
+        computer.memory().set(0x0180, 0x0200); // the timer handler, at x0200
+        computer.memory().set(0x0200, 0x14A1); // ADD R2 <- R2 + 1
+        computer.memory().set(0x0201, 0x8000); // RTI
+        EventScheduler events = new EventScheduler();
+        computer.setEventScheduler(events);
+        events.schedulePeriodic(7, 7, 0x80, 4);
+
+        for (int i = 0; i < 1_000_000; i++) { // warm up
+            computer.executeNext();
+        }
+        long delivered = events.getDelivered();
+        long start = AllocationProbe.allocatedBytes();
+        for (int i = 0; i < 1_000_000; i++) {
+            computer.executeNext();
+        }
+        double bytes = (double) (AllocationProbe.allocatedBytes() - start) / (events.getDelivered() - delivered);
+        assertTrue(bytes <= HANDLER_BUDGET, String.format("an interrupt allocates %.4f bytes", bytes));
+    }
+}
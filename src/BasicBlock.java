@@ -0,0 +1,373 @@
+/**
+ * A BasicBlock is a straight run of instructions that is only entered at its first
+ * word and only leaves at its last one: a BR, a TRAP or an instruction the decoded
+ * tier does not handle. It counts how often it runs so hot blocks can be promoted
+ * from the interpreter to the decoded tier, and keeps direct links to the blocks it
+ * branches or falls through to so execution can chain from block to block.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class BasicBlock {
+
+    // The longest block, so no decoded form grows without bound.
+    final static int MAX_LENGTH = 64;
+
+    // Returned by the run methods when the block ended in a HALT.
+    final static int HALTED = -1;
+
+    private final static int MAX_ADDRESS = 65535;
+
+    // Operations of the decoded tier.
+    private final static int OP_ADD_REG = 0;
+    private final static int OP_ADD_IMM = 1;
+    private final static int OP_AND_REG = 2;
+    private final static int OP_AND_IMM = 3;
+    private final static int OP_NOT = 4;
+    private final static int OP_LD = 5;
+    private final static int OP_BR = 6;
+    private final static int OP_TRAP = 7;
+    private final static int OP_OTHER = 8;
+
+    private final int mStart;
+    private final int mLength;
+    private final int mTakenTarget; // address a final BR jumps to, or -1
+    private final int mFallThrough; // address after the block if control can get there, or -1
+    private TieredExecutor.Tier mTier = TieredExecutor.Tier.INTERPRETER;
+    private long mExecutions;
+    private boolean mValid = true;
+
+    // successors, linked the first time they are taken
+    private BasicBlock mTaken;
+    private BasicBlock mNext;
+
+    // decoded form, filled in on promotion: one operation and three operands per instruction
+    private int[] mOps;
+    private int[] mOperands;
+    private byte[] mOpcodes; // the opcode of each instruction, for the metrics
+    private CountedLoop mLoop; // the block as a loop whose iterations can be skipped, or null
+
+    /**
+     * Creates the block that starts at theStart, ending at the first terminator or
+     * just before theLimit, whichever comes first. A BR that tests no condition
+     * codes never branches, so it does not end a block.
+     * @param theComputer the computer whose memory holds the block
+     * @param theStart the address of the first instruction
+     * @param theLimit the address the block must stop before
+     */
+    BasicBlock(final Computer theComputer, final int theStart, final int theLimit) {
+        mStart = theStart;
+        final int limit = Math.min(Math.min(theStart + MAX_LENGTH, theComputer.memorySize()), theLimit);
+        int end = theStart;
+        int last = 0;
+        while (end < limit) {
+            last = theComputer.wordAt(end);
+            end++;
+            if (isTerminator(last)) {
+                break;
+            }
+        }
+        mLength = end - theStart;
+
+        final int opCode = last >>> 12;
+        if (opCode == 0 && isTerminator(last)) {
+            mTakenTarget = end + signExtend(last, 9);
+            mFallThrough = ((last >>> 9) & 7) == 7 ? -1 : end; // BRnzp always branches
+        } else if (opCode == 15) {
+            mTakenTarget = -1;
+            mFallThrough = (last & 0xFF) == 37 ? -1 : end; // nothing follows a HALT
+        } else {
+            mTakenTarget = -1;
+            mFallThrough = isTerminator(last) ? -1 : end;
+        }
+    }
+
+    /**
+     * @return true if theWord ends a basic block
+     */
+    static boolean isTerminator(final int theWord) {
+        final int opCode = theWord >>> 12;
+        if (opCode == 0) {
+            return (theWord & 0x0E00) != 0;
+        }
+        return opCode != 1 && opCode != 2 && opCode != 5 && opCode != 9;
+    }
+
+    /**
+     * @return the address of the first instruction
+     */
+    int getStart() {
+        return mStart;
+    }
+
+    /**
+     * @return the number of instructions in the block
+     */
+    int getLength() {
+        return mLength;
+    }
+
+    /**
+     * @return the address just after the last instruction
+     */
+    int getEnd() {
+        return mStart + mLength;
+    }
+
+    /**
+     * @return the address the final BR jumps to, or -1 if the block does not end in one
+     */
+    int getTakenTarget() {
+        return mTakenTarget;
+    }
+
+    /**
+     * @return the address control falls through to, or -1 if it cannot
+     */
+    int getFallThrough() {
+        return mFallThrough;
+    }
+
+    /**
+     * @return false once the block's words have been written or the block split
+     */
+    boolean isValid() {
+        return mValid;
+    }
+
+    /**
+     * Marks the block as stale; blocks linked to it look their successor up again.
+     */
+    void invalidate() {
+        mValid = false;
+        mTaken = null;
+        mNext = null;
+    }
+
+    /**
+     * Follows the link to the block at theAddress, where execution continues after
+     * this one, resolving it through theGraph only when the link is missing or stale.
+     * @param theAddress the address execution continues at
+     * @param theGraph the graph the block belongs to
+     * @return the block starting at theAddress
+     */
+    BasicBlock successor(final int theAddress, final ControlFlowGraph theGraph) {
+        if (theAddress == mTakenTarget) {
+            if (mTaken == null || !mTaken.mValid) {
+                mTaken = theGraph.blockAt(theAddress);
+            }
+            return mTaken;
+        }
+        if (theAddress == mStart + mLength) {
+            if (mNext == null || !mNext.mValid) {
+                mNext = theGraph.blockAt(theAddress);
+            }
+            return mNext;
+        }
+        return theGraph.blockAt(theAddress);
+    }
+
+    /**
+     * @return the tier the block runs in
+     */
+    TieredExecutor.Tier getTier() {
+        return mTier;
+    }
+
+    /**
+     * Counts one more execution of the block.
+     * @return the number of times the block has been entered
+     */
+    long countExecution() {
+        return ++mExecutions;
+    }
+
+    /**
+     * Decodes every instruction of the block once so it can run in the decoded tier.
+     * @param theComputer the computer whose memory holds the block
+     */
+    void promote(final Computer theComputer) {
+        mOps = new int[mLength];
+        mOperands = new int[mLength * 3];
+        mOpcodes = new byte[mLength];
+        for (int i = 0; i < mLength; i++) {
+            final int address = mStart + i;
+            final int word = theComputer.wordAt(address);
+            final int dest = (word >>> 9) & 7;
+            final int source = (word >>> 6) & 7;
+            final boolean immediate = (word & 0x20) != 0;
+            final int j = i * 3;
+            mOperands[j] = dest;
+            mOperands[j + 1] = source;
+            mOpcodes[i] = (byte) (word >>> 12);
+            switch (word >>> 12) {
+                case 0: // BR: nzp and the target address
+                    mOps[i] = OP_BR;
+                    mOperands[j + 2] = address + 1 + signExtend(word, 9);
+                    if (dest != 0 && (mOperands[j + 2] < 0 || mOperands[j + 2] > MAX_ADDRESS)) {
+                        mOps[i] = OP_OTHER; // let the interpreter report the bad target
+                    }
+                    break;
+                case 1: // ADD
+                    mOps[i] = immediate ? OP_ADD_IMM : OP_ADD_REG;
+                    mOperands[j + 2] = immediate ? signExtend(word, 5) : word & 7;
+                    break;
+                case 2: // LD: the address is fixed once the block's position is
+                    mOps[i] = OP_LD;
+                    mOperands[j + 2] = address + 1 + signExtend(word, 9);
+                    if (mOperands[j + 2] < 0 || mOperands[j + 2] >= theComputer.memorySize()) {
+                        mOps[i] = OP_OTHER;
+                    }
+                    break;
+                case 5: // AND
+                    mOps[i] = immediate ? OP_AND_IMM : OP_AND_REG;
+                    mOperands[j + 2] = immediate ? signExtend(word, 5) : word & 7;
+                    break;
+                case 9: // NOT
+                    mOps[i] = OP_NOT;
+                    break;
+                case 15: // TRAP
+                    mOps[i] = OP_TRAP;
+                    mOperands[j + 2] = word & 0xFF;
+                    break;
+                default: // left to the interpreter
+                    mOps[i] = OP_OTHER;
+                    break;
+            }
+        }
+        if (mTakenTarget == mStart) {
+            mLoop = CountedLoop.analyze(theComputer, mStart, mLength, mOpcodes);
+        }
+        mTier = TieredExecutor.Tier.DECODED;
+    }
+
+    /**
+     * Skips the iterations of a decoded block that loops back to itself that can be
+     * worked out without running them; see CountedLoop.
+     * @param theComputer the computer to run on, with its PC at the block
+     * @return the number of instructions skipped
+     */
+    long skipIterations(final Computer theComputer) {
+        return mLoop == null ? 0 : mLoop.skip(theComputer) * mLength;
+    }
+
+    /**
+     * Runs the block through the interpreter, one fetch and decode per instruction.
+     * @param theComputer the computer to run on
+     * @return the address execution continues at, or HALTED
+     */
+    int interpret(final Computer theComputer) {
+        for (int i = 0; i < mLength; i++) {
+            if (theComputer.executeNext()) {
+                return HALTED;
+            }
+        }
+        return theComputer.programCounter();
+    }
+
+    /**
+     * Runs the decoded instructions of the block. The PC and IR are only brought up
+     * to date when the block is left, or when an instruction throws.
+     * @param theComputer the computer to run on
+     * @return the address execution continues at, or HALTED
+     */
+    int runDecoded(final Computer theComputer) {
+        final int[] ops = mOps;
+        final int[] operands = mOperands;
+        final Coverage coverage = theComputer.coverage();
+        final CacheModel cache = theComputer.cache();
+        int next = mStart + mLength;
+        boolean halt = false;
+        int i = 0;
+        try {
+            decoded:
+            for (; i < ops.length; i++) {
+                final int j = i * 3;
+                if (cache != null && ops[i] != OP_OTHER) {
+                    cache.fetch(mStart + i); // the interpreter fetches OP_OTHER itself
+                }
+                switch (ops[i]) {
+                    case OP_ADD_REG:
+                        theComputer.add(operands[j], theComputer.registerValue(operands[j + 1]),
+                                theComputer.registerValue(operands[j + 2]));
+                        break;
+                    case OP_ADD_IMM:
+                        theComputer.add(operands[j], theComputer.registerValue(operands[j + 1]),
+                                operands[j + 2]);
+                        break;
+                    case OP_AND_REG:
+                        theComputer.and(operands[j], theComputer.registerValue(operands[j + 1]),
+                                theComputer.registerValue(operands[j + 2]));
+                        break;
+                    case OP_AND_IMM:
+                        theComputer.and(operands[j], theComputer.registerValue(operands[j + 1]),
+                                operands[j + 2]);
+                        break;
+                    case OP_NOT:
+                        theComputer.not(operands[j], operands[j + 1]);
+                        break;
+                    case OP_LD:
+                        theComputer.load(operands[j], operands[j + 2]);
+                        break;
+                    case OP_BR:
+                        final boolean taken = theComputer.isConditionMet(operands[j]);
+                        if (taken) {
+                            next = operands[j + 2];
+                        }
+                        if (coverage != null) {
+                            coverage.branch(mStart + i, taken);
+                        }
+                        break;
+                    case OP_TRAP:
+                        halt = theComputer.trap(operands[j + 2]);
+                        break;
+                    default:
+                        break decoded;
+                }
+            }
+        } catch (RuntimeException e) {
+            // leave the PC, IR, count and coverage where the interpreter would have
+            theComputer.retire(mOpcodes, i);
+            if (coverage != null) {
+                coverage.executed(mStart, mStart + i);
+            }
+            theComputer.fetch(mStart + i);
+            theComputer.jump(mStart + i + 1);
+            throw e;
+        }
+        if (i < ops.length) {
+            // an instruction only the interpreter handles
+            theComputer.retire(mOpcodes, i);
+            if (coverage != null) {
+                coverage.executed(mStart, mStart + i);
+            }
+            theComputer.jump(mStart + i);
+            return theComputer.executeNext() ? HALTED : theComputer.programCounter();
+        }
+        theComputer.retire(mOpcodes, mLength);
+        if (coverage != null) {
+            coverage.executed(mStart, mStart + mLength);
+        }
+        theComputer.fetch(mStart + mLength - 1);
+        theComputer.jump(next);
+        return halt ? HALTED : next;
+    }
+
+    /**
+     * Drops the decoded form and the execution count, returning the block to the interpreter.
+     */
+    void demote() {
+        mOps = null;
+        mOperands = null;
+        mOpcodes = null;
+        mLoop = null;
+        mExecutions = 0;
+        mTier = TieredExecutor.Tier.INTERPRETER;
+    }
+
+    // sign-extends the low theBits bits of theWord
+    private static int signExtend(final int theWord, final int theBits) {
+        final int shift = 32 - theBits;
+        return (theWord << shift) >> shift;
+    }
+}
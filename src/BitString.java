@@ -116,15 +116,23 @@ public class BitString {
      * @param groupsOfFour
      */
     public void display(boolean groupsOfFour) {
+        StringBuilder buffer = new StringBuilder(MAX_BITS + MAX_BITS / 4);
+        appendTo(buffer, groupsOfFour);
+        System.out.print(buffer);
+    }
+
+    /**
+     * Appends the bits of the BitString to the buffer in groups of four
+     * or in one group of 16, the same way display does.
+     * @param theBuffer the buffer to append to
+     * @param groupsOfFour true to separate each group of four bits by a space
+     */
+    public void appendTo(StringBuilder theBuffer, boolean groupsOfFour) {
         for (int i = 0; i < myLength; i++) {
             if (groupsOfFour && (i % 4 == 0) && i != 0) {
-                System.out.print(" ");
-            }
-            if (myBits[i] == '0') {
-                System.out.print("0");
-            } else {
-                System.out.print("1");
+                theBuffer.append(' ');
             }
+            theBuffer.append(myBits[i] == '0' ? '0' : '1');
         }
     }
 
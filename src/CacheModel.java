@@ -0,0 +1,315 @@
+import java.util.Arrays;
+
+/**
+ * The CacheModel class models a set-associative cache in front of memory, for
+ * what-if studies of the memory hierarchy. A Computer given a CacheModel tells it
+ * about every instruction fetch, every word read by LD and every word stored, and
+ * the model keeps hit and miss counts and an estimate of the cycles spent.
+ *
+ * Sizes are in 16 bit words. A miss brings in the whole line and, once the set is
+ * full, evicts a line chosen by the replacement policy. Stores allocate a line like
+ * reads do. The estimate charges every access the hit latency and every miss the
+ * miss penalty on top. Trap routines run outside the modeled machine, so the words
+ * they read are not counted.
+ *
+ * The tags and their ages are kept in primitive arrays indexed by set and way, so
+ * an access is a few array reads and never allocates. Like a Coverage, a CacheModel
+ * being recorded into belongs to one thread.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class CacheModel {
+
+    /**
+     * Which line of a full set a miss evicts.
+     */
+    public enum Policy {
+        /** the line used least recently */
+        LRU,
+        /** the line brought in longest ago */
+        FIFO,
+        /** any line, picked by a seeded generator so runs repeat */
+        RANDOM
+    }
+
+    private final static int DEFAULT_HIT_CYCLES = 1;
+    private final static int DEFAULT_MISS_PENALTY = 10;
+    private final static int EMPTY = -1; // the tag of a line holding nothing
+    private final static int RANDOM_SEED = 0x2545F491;
+
+    private final int mSize;
+    private final int mAssociativity;
+    private final int mLineSize;
+    private final Policy mPolicy;
+    private final int mHitCycles;
+    private final int mMissPenalty;
+
+    private final int mLineShift; // log2 of the line size
+    private final int mSetMask; // the sets less one
+    private final int[] mTags; // the line address in each way of each set, or EMPTY
+    private final long[] mAges; // when each way was last used (LRU) or filled (FIFO)
+    private long mClock; // ticks once per access
+    private int mRandom; // the state of the xorshift generator
+
+    private long mFetches;
+    private long mFetchMisses;
+    private long mReads;
+    private long mReadMisses;
+    private long mWrites;
+    private long mWriteMisses;
+
+    /**
+     * Creates an empty cache that charges 1 cycle a hit and 10 more a miss.
+     * @param theSize the capacity in words, a power of 2
+     * @param theAssociativity the ways in a set
+     * @param theLineSize the words in a line, a power of 2
+     * @param thePolicy which line a miss evicts
+     */
+    public CacheModel(final int theSize, final int theAssociativity, final int theLineSize,
+                      final Policy thePolicy) {
+        this(theSize, theAssociativity, theLineSize, thePolicy, DEFAULT_HIT_CYCLES, DEFAULT_MISS_PENALTY);
+    }
+
+    /**
+     * Creates an empty cache.
+     * @param theSize the capacity in words, a power of 2
+     * @param theAssociativity the ways in a set; the lines must divide into sets evenly
+     * @param theLineSize the words in a line, a power of 2
+     * @param thePolicy which line a miss evicts
+     * @param theHitCycles the cycles every access costs
+     * @param theMissPenalty the cycles a miss costs on top
+     */
+    public CacheModel(final int theSize, final int theAssociativity, final int theLineSize,
+                      final Policy thePolicy, final int theHitCycles, final int theMissPenalty) {
+        if (theLineSize <= 0 || Integer.bitCount(theLineSize) != 1) {
+            throw new IllegalArgumentException("Invalid line size");
+        }
+        if (theSize < theLineSize || Integer.bitCount(theSize) != 1) {
+            throw new IllegalArgumentException("Invalid size");
+        }
+        final int lines = theSize / theLineSize;
+        if (theAssociativity <= 0 || theAssociativity > lines || Integer.bitCount(lines / theAssociativity) != 1
+                || lines % theAssociativity != 0) {
+            throw new IllegalArgumentException("Invalid associativity");
+        }
+        if (thePolicy == null) {
+            throw new IllegalArgumentException("Invalid policy");
+        }
+        if (theHitCycles < 0 || theMissPenalty < 0) {
+            throw new IllegalArgumentException("Invalid latency");
+        }
+        mSize = theSize;
+        mAssociativity = theAssociativity;
+        mLineSize = theLineSize;
+        mPolicy = thePolicy;
+        mHitCycles = theHitCycles;
+        mMissPenalty = theMissPenalty;
+        mLineShift = Integer.numberOfTrailingZeros(theLineSize);
+        mSetMask = lines / theAssociativity - 1;
+        mTags = new int[lines];
+        mAges = new long[lines];
+        reset();
+    }
+
+    // notes the fetch of the instruction at theAddress
+    void fetch(final int theAddress) {
+        mFetches++;
+        if (!access(theAddress)) {
+            mFetchMisses++;
+        }
+    }
+
+    // notes a read of the word at theAddress
+    void read(final int theAddress) {
+        mReads++;
+        if (!access(theAddress)) {
+            mReadMisses++;
+        }
+    }
+
+    // notes a write of the word at theAddress
+    void write(final int theAddress) {
+        mWrites++;
+        if (!access(theAddress)) {
+            mWriteMisses++;
+        }
+    }
+
+    // looks theAddress up, filling its line on a miss; returns true on a hit
+    private boolean access(final int theAddress) {
+        final int line = theAddress >>> mLineShift;
+        final int first = (line & mSetMask) * mAssociativity;
+        final int end = first + mAssociativity;
+        final long now = ++mClock;
+        int victim = first;
+        for (int way = first; way < end; way++) {
+            final int tag = mTags[way];
+            if (tag == line) {
+                if (mPolicy == Policy.LRU) {
+                    mAges[way] = now;
+                }
+                return true;
+            }
+            if (tag == EMPTY) {
+                // ways fill in order, so the rest of the set is empty too
+                victim = way;
+                mTags[victim] = line;
+                mAges[victim] = now;
+                return false;
+            }
+            if (mAges[way] < mAges[victim]) {
+                victim = way;
+            }
+        }
+        if (mPolicy == Policy.RANDOM) {
+            victim = first + nextRandom(mAssociativity);
+        }
+        mTags[victim] = line;
+        mAges[victim] = now;
+        return false;
+    }
+
+    // the next xorshift value, reduced to 0 up to, but not including, theBound
+    private int nextRandom(final int theBound) {
+        int x = mRandom;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        mRandom = x;
+        return (x >>> 1) % theBound;
+    }
+
+    /**
+     * Empties the cache and clears the counts.
+     */
+    public void reset() {
+        Arrays.fill(mTags, EMPTY);
+        Arrays.fill(mAges, 0);
+        mClock = 0;
+        mRandom = RANDOM_SEED;
+        mFetches = 0;
+        mFetchMisses = 0;
+        mReads = 0;
+        mReadMisses = 0;
+        mWrites = 0;
+        mWriteMisses = 0;
+    }
+
+    /**
+     * @return the capacity in words
+     */
+    public int getSize() {
+        return mSize;
+    }
+
+    /**
+     * @return the ways in a set
+     */
+    public int getAssociativity() {
+        return mAssociativity;
+    }
+
+    /**
+     * @return the words in a line
+     */
+    public int getLineSize() {
+        return mLineSize;
+    }
+
+    /**
+     * @return which line a miss evicts
+     */
+    public Policy getPolicy() {
+        return mPolicy;
+    }
+
+    /**
+     * @return the instruction fetches
+     */
+    public long getFetches() {
+        return mFetches;
+    }
+
+    /**
+     * @return the instruction fetches that missed
+     */
+    public long getFetchMisses() {
+        return mFetchMisses;
+    }
+
+    /**
+     * @return the words read
+     */
+    public long getReads() {
+        return mReads;
+    }
+
+    /**
+     * @return the words read that missed
+     */
+    public long getReadMisses() {
+        return mReadMisses;
+    }
+
+    /**
+     * @return the words written
+     */
+    public long getWrites() {
+        return mWrites;
+    }
+
+    /**
+     * @return the words written that missed
+     */
+    public long getWriteMisses() {
+        return mWriteMisses;
+    }
+
+    /**
+     * @return every access: fetches, reads and writes
+     */
+    public long getAccesses() {
+        return mFetches + mReads + mWrites;
+    }
+
+    /**
+     * @return the accesses that missed
+     */
+    public long getMisses() {
+        return mFetchMisses + mReadMisses + mWriteMisses;
+    }
+
+    /**
+     * @return the accesses that hit
+     */
+    public long getHits() {
+        return getAccesses() - getMisses();
+    }
+
+    /**
+     * @return the share of accesses that hit, or 0 before the first access
+     */
+    public double getHitRate() {
+        final long accesses = getAccesses();
+        return accesses == 0 ? 0 : (double) getHits() / accesses;
+    }
+
+    /**
+     * @return the estimated cycles spent on memory accesses
+     */
+    public long getCycles() {
+        return getAccesses() * mHitCycles + getMisses() * mMissPenalty;
+    }
+
+    /**
+     * @return the configuration and counts, on one line
+     */
+    @Override
+    public String toString() {
+        return String.format("%d words, %d-way, %d-word lines, %s: %d accesses, %d hits, %d misses"
+                        + " (fetch %d, read %d, write %d), %.1f%% hit rate, %d cycles",
+                mSize, mAssociativity, mLineSize, mPolicy, getAccesses(), getHits(), getMisses(),
+                mFetchMisses, mReadMisses, mWriteMisses, getHitRate() * 100, getCycles());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Unit tests for the CacheModel class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class CacheModelTest {
+
+    /**
+     * Test method for {@link CacheModel#getMisses()}.
+     */
+    @Test
+    void testDirectMappedConflicts() {
+        CacheModel cache = new CacheModel(8, 1, 2, CacheModel.Policy.LRU);
+        cache.read(0);  // miss
+        cache.read(1);  // hit, the same line
+        cache.read(8);  // miss, evicting the line of 0
+        cache.read(0);  // miss
+        cache.write(1); // hit
+
+        assertEquals(5, cache.getAccesses());
+        assertEquals(3, cache.getReadMisses());
+        assertEquals(0, cache.getWriteMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(5 * 1 + 3 * 10, cache.getCycles());
+
+        cache.reset();
+        assertEquals(0, cache.getAccesses());
+        assertEquals(0.0, cache.getHitRate());
+    }
+
+    /**
+     * Test method for {@link CacheModel.Policy}.
+     */
+    @Test
+    void testReplacementPolicies() {
+        int[] addresses = {0, 2, 0, 4, 0}; // all in set 0 of a 2-way cache with 2 sets
+        CacheModel lru = new CacheModel(4, 2, 1, CacheModel.Policy.LRU);
+        CacheModel fifo = new CacheModel(4, 2, 1, CacheModel.Policy.FIFO);
+        CacheModel random = new CacheModel(4, 2, 1, CacheModel.Policy.RANDOM);
+        CacheModel again = new CacheModel(4, 2, 1, CacheModel.Policy.RANDOM);
+        for (int address : addresses) {
+            lru.read(address);
+            fifo.read(address);
+            random.read(address);
+            again.read(address);
+        }
+
+        assertEquals(3, lru.getMisses());  // 4 evicts 2, used before 0
+        assertEquals(4, fifo.getMisses()); // 4 evicts 0, brought in before 2
+        assertEquals(random.toString(), again.toString());
+
+        // cycling through 3 lines of a 2-way set, LRU and FIFO always evict the line
+        // needed next; a random victim is sometimes the other one, and hits follow
+        String thrash = "m".repeat(30);
+        assertEquals(thrash, hitsAndMisses(new CacheModel(4, 2, 1, CacheModel.Policy.LRU)));
+        assertEquals(thrash, hitsAndMisses(new CacheModel(4, 2, 1, CacheModel.Policy.FIFO)));
+        random = new CacheModel(4, 2, 1, CacheModel.Policy.RANDOM);
+        String sequence = hitsAndMisses(random);
+        assertTrue(sequence.startsWith("mmm"), sequence); // the cold misses, then the first eviction
+        assertTrue(sequence.contains("h"), sequence);
+        assertTrue(sequence.substring(3).contains("m"), sequence);
+        random.reset();
+        assertEquals(sequence, hitsAndMisses(random)); // the seed starts over
+    }
+
+    // reads 0, 2, 4 over and over, all in set 0, giving h or m for each read
+    private static String hitsAndMisses(final CacheModel theCache) {
+        StringBuilder sequence = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            long misses = theCache.getMisses();
+            theCache.read(2 * (i % 3));
+            sequence.append(theCache.getMisses() == misses ? 'h' : 'm');
+        }
+        return sequence.toString();
+    }
+
+    /**
+     * Test method for {@link CacheModel#CacheModel(int, int, int, CacheModel.Policy)}.
+     */
+    @Test
+    void testInvalidConfigurations() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheModel(12, 1, 2, CacheModel.Policy.LRU));
+        assertThrows(IllegalArgumentException.class, () -> new CacheModel(16, 1, 3, CacheModel.Policy.LRU));
+        assertThrows(IllegalArgumentException.class, () -> new CacheModel(4, 1, 8, CacheModel.Policy.LRU));
+        assertThrows(IllegalArgumentException.class, () -> new CacheModel(16, 3, 2, CacheModel.Policy.LRU));
+        assertThrows(IllegalArgumentException.class, () -> new CacheModel(16, 0, 2, CacheModel.Policy.LRU));
+        assertThrows(IllegalArgumentException.class, () -> new CacheModel(16, 1, 2, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CacheModel(16, 1, 2, CacheModel.Policy.LRU, 1, -1));
+    }
+
+    /**
+     * Test method for {@link Computer#setCache(CacheModel)}.
+     */
+    @Test
+    void testEnginesAgreeOnCounts() {
+        Computer interpreted = new Computer();
+        interpreted.loadMachineCode(TestPrograms.countLoop());
+        interpreted.setCache(new CacheModel(16, 2, 4, CacheModel.Policy.LRU));
+        interpreted.execute();
+
+        Computer tiered = new Computer();
+        tiered.loadMachineCode(TestPrograms.countLoop());
+        tiered.setCache(new CacheModel(16, 2, 4, CacheModel.Policy.LRU));
+        new TieredExecutor(tiered, 1).execute();
+
+        CacheModel cache = interpreted.cache();
+        assertEquals(1 + 3 * 40 + 1, cache.getFetches());
+        assertEquals(1, cache.getFetchMisses()); // the loop fits in the first line
+        assertEquals(1, cache.getReads());
+        assertEquals(1, cache.getReadMisses());
+        assertEquals(0, cache.getWrites());
+        assertEquals(123 + 2 * 10, cache.getCycles());
+        assertEquals(cache.toString(), tiered.cache().toString());
+    }
+}
@@ -1,4 +1,13 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import jdk.jfr.EventType;
 
 /**
  * The Computer class is composed of registers, memory, PC, IR, and CC.
@@ -12,36 +21,124 @@ public class Computer {
 
     private final static int MAX_MEMORY = 50;
     private final static int MAX_REGISTERS = 8;
+    private final static int HEX_WORDS_PER_LINE = 8;
+    private final static char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
 
-    private BitString mRegisters[]; //7 registers
-    private BitString mMemory[]; //instructions in memory
-    private BitString mPC; // program counter
-    private BitString mIR; // instruction register
-    private BitString mCC; // condition code
+    private final static int WORD_MASK = 0xFFFF;
+    private final static int CC_UNSET = 0; // no instruction has set the CC yet
+    private final static int CANCEL_CHECK_INTERVAL = 4096; // instructions between checks
+    private final static int METRICS_INTERVAL = 65536; // instructions between publishing metrics
+    private final static String IN_PROMPT = "\nInput a character> ";
+    private final static int INTERRUPT_TABLE = 0x0100; // handler addresses, by interrupt vector
+    private final static int SUPERVISOR_STACK = 0x3000; // where the supervisor stack starts, growing down
+    private final static int PSR_USER = 0x8000; // PSR[15], set in user mode
+    private final static int STACK_POINTER = 6; // R6
+    // The event types are checked before an event is created, here and in the
+    // TieredExecutor, so no event is allocated while recording is off, whether or
+    // not the JIT could have removed the allocation.
+    private final static EventType TRAP_IO = EventType.getEventType(TrapIoEvent.class);
+    private final static EventType EXECUTION = EventType.getEventType(ExecutionEvent.class);
+    private final static EventType PROGRAM_LOAD = EventType.getEventType(ProgramLoadEvent.class);
+    private final static int INITIAL_FRAMES = 8; // interrupts nest this deep before the frames grow
+
+    // The PC and instruction count are read by a SamplingProfiler on another thread.
+    // Both are written opaquely, which costs no more than a plain store but keeps
+    // every write visible. A frame is written in place and published by a release
+    // store of the depth, so taking an interrupt allocates nothing.
+    private final static VarHandle PC;
+    private final static VarHandle INSTRUCTION_COUNT;
+    private final static VarHandle FRAME_DEPTH;
+    static {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PC = lookup.findVarHandle(Computer.class, "mPC", int.class);
+            INSTRUCTION_COUNT = lookup.findVarHandle(Computer.class, "mInstructionCount", long.class);
+            FRAME_DEPTH = lookup.findVarHandle(Computer.class, "mFrameDepth", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int[] mRegisters; // 8 registers, as unsigned 16 bit values
+    private final Memory mMemory; //instructions in memory, possibly shared with other cores
+    private int mPC; // program counter
+    private int mIR; // instruction register
+    private int mCC; // condition code: 4 (n), 2 (z), 1 (p), or CC_UNSET
+    private boolean mSupervisor; // PSR[15] clear: running an interrupt handler
+    private int mPriority; // PSR[10:8], the priority the processor runs at
+    private int mSavedStackPointer = SUPERVISOR_STACK; // R6 of the mode not running
+    private int[] mFrames = new int[INITIAL_FRAMES]; // the PC each interrupt not yet returned from was taken at
+    private int mFrameDepth; // the frames in use
+
+    private final StringBuilder mDumpBuffer = new StringBuilder(); // reused by every dump
+    private MemoryListener mMemoryListener; // told about every write to memory
+    private long mInstructionCount; // instructions retired since construction
+    private long mPublishedCount; // the instruction count last published to the metrics
+    private final long[] mOpcodeCounts = new long[16]; // instructions by opcode, not yet published
+    private int mRegistersWritten; // a bit per register written since the last step began
+    private StepSummary mStepSummary; // the summary of the step under way, or null
+    private Coverage mCoverage; // records the instructions run, or null
+    private CacheModel mCache; // models a cache over memory, or null
+    private EventScheduler mEvents; // raises interrupts as the count passes them, or null
+    private long mNextEvent = Long.MAX_VALUE; // the instruction count mEvents next needs a look at
+    private StringBuilder mOutput; // where the output traps write to, or null for System.out
+    private final StringBuilder mTrapBuffer = new StringBuilder(); // a string on its way to System.out
+    private CharSequence mInput; // what GETC and IN read, or null for System.in
+    private int mInputPosition; // the next character of mInput to read
 
     /**
      * Initialize all memory addresses to 0, registers to 0 to 7
      * PC, IR to 16 bit 0s and CC to 000.
      */
     public Computer() {
-        mPC = new BitString();
-        mPC.setUnsignedValue(0);
-        mIR = new BitString();
-        mIR.setUnsignedValue(0);
-        mCC = new BitString();
-        mCC.setBits(new char[] { '0', '0', '0' });
-
-        mRegisters = new BitString[MAX_REGISTERS];
+        this(new Memory(MAX_MEMORY));
+    }
+
+    /**
+     * Initialize all memory addresses to 0, registers to 0 to 7
+     * PC, IR to 16 bit 0s and CC to 000, with theMemorySize words of memory.
+     * Interrupts need at least x3000 words, for the interrupt table at x0100
+     * and the supervisor stack below x3000; the default machine is too small.
+     * @param theMemorySize the number of words, up to 65536
+     */
+    public Computer(final int theMemorySize) {
+        this(new Memory(theMemorySize));
+    }
+
+    /**
+     * Initialize registers to 0 to 7, PC, IR to 16 bit 0s and CC to 000,
+     * using theMemory as memory. Several computers built on the same memory
+     * act as the cores of one machine.
+     * @param theMemory the memory to execute from
+     */
+    Computer(final Memory theMemory) {
+        mCC = CC_UNSET;
+        mRegisters = new int[MAX_REGISTERS];
         for (int i = 0; i < MAX_REGISTERS; i++) {
-            mRegisters[i] = new BitString();
-            mRegisters[i].setUnsignedValue(i);
+            mRegisters[i] = i;
         }
 
-        mMemory = new BitString[MAX_MEMORY];
-        for (int i = 0; i < MAX_MEMORY; i++) {
-            mMemory[i] = new BitString();
-            mMemory[i].setUnsignedValue(0);
-        }
+        mMemory = theMemory;
+    }
+
+    /**
+     * Creates a fork of theOriginal: a copy of its registers, PC, IR, CC and
+     * instruction count over a copy-on-write snapshot of its memory.
+     * @param theOriginal the computer to fork
+     */
+    private Computer(final Computer theOriginal) {
+        mPC = theOriginal.mPC;
+        mIR = theOriginal.mIR;
+        mCC = theOriginal.mCC;
+        mSupervisor = theOriginal.mSupervisor;
+        mPriority = theOriginal.mPriority;
+        mSavedStackPointer = theOriginal.mSavedStackPointer;
+        mFrames = theOriginal.mFrames.clone();
+        mFrameDepth = theOriginal.mFrameDepth;
+        mRegisters = theOriginal.mRegisters.clone();
+        mMemory = theOriginal.mMemory.fork();
+        mInstructionCount = theOriginal.mInstructionCount;
+        mPublishedCount = mInstructionCount;
     }
 
     // The public accessor methods shown below are useful for unit testing.
@@ -51,46 +148,73 @@ public class Computer {
      * @return the registers
      */
     public BitString[] getRegisters() {
-        return copyBitStringArray(mRegisters);
+        BitString[] bitStrings = new BitString[MAX_REGISTERS];
+        for (int i = 0; i < bitStrings.length; i++) {
+            bitStrings[i] = toBitString(mRegisters[i]);
+        }
+        return bitStrings;
     }
 
     /**
      * @return the memory
      */
     public BitString[] getMemory() {
-        return copyBitStringArray(mMemory);
+        BitString[] bitStrings = new BitString[mMemory.size()];
+        for (int i = 0; i < bitStrings.length; i++) {
+            bitStrings[i] = toBitString(mMemory.get(i));
+        }
+        return bitStrings;
     }
 
     /**
      * @return the PC
      */
     public BitString getPC() {
-        return mPC.copy();
+        return toBitString(mPC);
     }
 
     /**
      * @return the IR
      */
     public BitString getIR() {
-        return mIR.copy();
+        return toBitString(mIR);
     }
 
     /**
-     * @return the CC
+     * @return the CC, which is 3 bits of 0s until an instruction first sets it
      */
     public BitString getCC() {
-        return mCC.copy();
+        if (mCC == CC_UNSET) {
+            BitString cc = new BitString();
+            cc.setBits(new char[] { '0', '0', '0' });
+            return cc;
+        }
+        return toBitString(mCC);
     }
 
     /**
-     * Safely copies a BitString array.
-     * @param theArray the array to copy.
-     * @return a copy of theArray.
+     * @return the PSR: the mode in bit [15], the priority in bits [10:8] and the CC in bits [2:0]
      */
-    private BitString[] copyBitStringArray(final BitString[] theArray) {
-        BitString[] bitStrings = new BitString[theArray.length];
-        Arrays.setAll(bitStrings, n -> bitStrings[n] = theArray[n].copy());
-        return bitStrings;
+    public BitString getPSR() {
+        return toBitString(processorStatus());
+    }
+
+    /**
+     * @return the number of instructions retired since the computer was created
+     */
+    public long getInstructionCount() {
+        return mInstructionCount;
+    }
+
+    /**
+     * Builds the BitString the accessors hand out for a 16 bit value.
+     * @param theValue the unsigned 16 bit value
+     * @return a new 16 bit BitString holding theValue
+     */
+    private static BitString toBitString(final int theValue) {
+        BitString bitString = new BitString();
+        bitString.setUnsignedValue(theValue);
+        return bitString;
     }
 
     /**
@@ -99,10 +223,10 @@ public class Computer {
      * @param word data or instruction or address to be loaded into memory
      */
     public void loadWord(int address, BitString word) {
-        if (address < 0 || address >= MAX_MEMORY) {
+        if (address < 0 || address >= mMemory.size()) {
             throw new IllegalArgumentException("Invalid address");
         }
-        mMemory[address] = word;
+        store(address, word.getUnsignedValue());
     }
 
     /**
@@ -110,14 +234,27 @@ public class Computer {
      * @param theWords the Strings that contain the instructions or data.
      */
     public void loadMachineCode(final String ... theWords) {
-        if (theWords.length == 0 || theWords.length >= MAX_MEMORY) {
+        if (theWords.length == 0 || theWords.length >= mMemory.size()) {
             throw new IllegalArgumentException("Invalid words");
         }
+        final ProgramLoadEvent event = PROGRAM_LOAD.isEnabled() ? new ProgramLoadEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         for (int i = 0; i < theWords.length; i++) {
             final BitString instruction = new BitString();
             instruction.setBits(theWords[i].toCharArray());
             loadWord(i, instruction);
         }
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.words = theWords.length;
+            event.memorySize = mMemory.size();
+            event.commit();
+        }
     }
 
     // The next 6 methods are used to execute the required instructions:
@@ -134,22 +271,14 @@ public class Computer {
      * adding the sign-extended PCoffset9 field to the incremented PC.
      */
     public void executeBranch() {
-        int pcOffset = mIR.substring(7,9).get2sCompValue();
-        char[] cc = mCC.getBits();
-        boolean neg = false;
-        boolean zero = false;
-        boolean pos = false;
-        if (mIR.getBits()[4] == '1') { // if branch calls for negative check
-            neg = (cc[13] == '1');
-        }
-        if (mIR.getBits()[5] == '1') { // if branch calls for zero check
-            zero = (cc[14] == '1');
+        int pcOffset = signExtend(mIR, 9);
+        int nzp = (mIR >> 9) & 7;
+        final boolean taken = isConditionMet(nzp);
+        if (mCoverage != null) {
+            mCoverage.branch((mPC - 1) & WORD_MASK, taken);
         }
-        if (mIR.getBits()[6] == '1') { // if branch calls for positive check
-            pos = (cc[15] == '1');
-        }
-        if (neg || zero || pos) {
-            mPC.setUnsignedValue(pcOffset + mPC.getUnsignedValue());
+        if (taken) {
+            jump(pcOffset + mPC);
         }
     }
 
@@ -160,20 +289,9 @@ public class Computer {
      * then sets CC.
      */
     public void executeLoad() {
-        BitString pcOffSet9 = mIR.substring(7,9);
-        BitString destBS = mIR.substring(4,3);
-        int twosOffset = pcOffSet9.get2sCompValue();
-        int programCounter_Value = mPC.getUnsignedValue(); // not two's comp
-        int offset_Value = twosOffset + programCounter_Value;
-        //retrieve the value from memory contained at the offset index (program counter and the indicated
-        //offset at the instruction register)
-        if (mMemory[offset_Value].get2sCompValue() > 65535 || mMemory[offset_Value].get2sCompValue() < 0) {
-            mRegisters[destBS.getUnsignedValue()].setUnsignedValue(0);
-        }
-        else mRegisters[destBS.getUnsignedValue()].setUnsignedValue(mMemory[offset_Value].get2sCompValue());
-        // set condition code
-        int conditionValue = mRegisters[destBS.getUnsignedValue()].get2sCompValue();
-        setConditionCode(conditionValue);
+        int twosOffset = signExtend(mIR, 9);
+        int offset_Value = twosOffset + mPC; // the PC is not two's comp
+        load((mIR >> 9) & 7, offset_Value);
     }
 
     /**
@@ -192,33 +310,7 @@ public class Computer {
      * negative, zero, or positive.
      */
     public void executeAdd() {
-        //retrieves imm5 from instruction register
-        BitString imm5 = mIR.substring(10, 1);
-        int imm5_int = imm5.getUnsignedValue();
-
-        //retrieve DR and SR1 from instruction register
-        BitString destBS = mIR.substring(4,3);
-        BitString sourceBS_1 = mIR.substring(7,3);
-
-        int sourceBS_1_value = mRegisters[sourceBS_1.getUnsignedValue()].get2sCompValue();
-
-        // CONTROL SIGNAL
-        if (imm5_int == 0) { // if bit[5] is 0, add with SR2 value
-            BitString sourceBS_2 = mIR.substring(13,3);
-            int sourceBS_2_value = mRegisters[sourceBS_2.getUnsignedValue()].get2sCompValue();
-            mRegisters[destBS.getUnsignedValue()].set2sCompValue(sourceBS_1_value+sourceBS_2_value);
-        } else { // if bit[5] is 1, add with the provided imm5 value from instruction register
-            BitString sourceBS_3 = mIR.substring(11,5);
-            int sourceBS_3_value = sourceBS_3.get2sCompValue();
-            mRegisters[destBS.getUnsignedValue()].set2sCompValue(sourceBS_1_value+sourceBS_3_value);
-        }
-        int conditionValue = mRegisters[destBS.getUnsignedValue()].get2sCompValue();
-        char c = (char)conditionValue;
-        int a = Character.getNumericValue(c);
-        setConditionCode(a);
-        if (a != 0) {
-            setConditionCode(conditionValue);
-        }
+        add((mIR >> 9) & 7, registerValue((mIR >> 6) & 7), secondOperand());
     }
 
     /**
@@ -238,27 +330,7 @@ public class Computer {
      * is negative, zero, or positive.
      */
     public void executeAnd() {
-        BitString imm5 = mIR.substring(10, 1);
-        int imm5_int = imm5.getUnsignedValue();
-
-        //retrieve DR and SR1 from instruction register
-        BitString destBS = mIR.substring(4,3);
-        BitString sourceBS_1 = mIR.substring(7,3);
-
-        int sourceBS_1_value = mRegisters[sourceBS_1.getUnsignedValue()].get2sCompValue();
-
-        if (imm5_int == 0) { // operate Bitwise AND on SR1 and SR2 value
-            BitString sourceBS_2 = mIR.substring(13,3);
-            int sourceBS_2_value = mRegisters[sourceBS_2.getUnsignedValue()].get2sCompValue();
-            mRegisters[destBS.getUnsignedValue()].set2sCompValue(sourceBS_1_value&sourceBS_2_value);
-        } else {	// operate Bitwise AND on SR1 value and imm5 value
-            BitString sourceBS_3 = mIR.substring(11,5);
-            int sourceBS_3_value = sourceBS_3.get2sCompValue();
-            mRegisters[destBS.getUnsignedValue()].set2sCompValue(sourceBS_1_value&sourceBS_3_value);
-        }
-        //set condition code
-        int conditionValue = mRegisters[destBS.getUnsignedValue()].get2sCompValue();
-        setConditionCode(conditionValue);
+        and((mIR >> 9) & 7, registerValue((mIR >> 6) & 7), secondOperand());
     }
 
     /**
@@ -267,49 +339,654 @@ public class Computer {
      * Then sets CC.
      */
     public void executeNot() {
-        //retrieve SR and DR from instruction register
-        BitString destBS = mIR.substring(4, 3);
-        BitString sourceBS = mIR.substring(7, 3);
-        mRegisters[destBS.getUnsignedValue()] = mRegisters[sourceBS.getUnsignedValue()].copy();
-        mRegisters[destBS.getUnsignedValue()].invert();
+        not((mIR >> 9) & 7, (mIR >> 6) & 7);
+    }
 
-        // set condition code
-        int conditionValue = mRegisters[destBS.getUnsignedValue()].get2sCompValue();
-        setConditionCode(conditionValue);
+    // the second source operand of ADD and AND: SR2 if bit [5] is 0, else the sign-extended imm5
+    private int secondOperand() {
+        if ((mIR & 0x20) == 0) {
+            return registerValue(mIR & 7);
+        }
+        return signExtend(mIR, 5);
+    }
+
+    // the 2's complement value of the low theBits bits of theWord
+    private static int signExtend(final int theWord, final int theBits) {
+        return (theWord << (32 - theBits)) >> (32 - theBits);
     }
 
     // helper method to set condition code after desired operation
     private void setConditionCode(int conditionValue) {
         if (conditionValue > 0) {
-            mCC.setUnsignedValue(1); //001
+            mCC = 1; //001
         } else if (conditionValue < 0) {
-            mCC.setUnsignedValue(4); //100
-        } else if (conditionValue == 0) { //010
-            mCC.setUnsignedValue(2);
+            mCC = 4; //100
+        } else { //010
+            mCC = 2;
         }
     }
 
     /**
      * Executes the trap operation by checking the vector (bits [7:0]
      *
+     * vector x20 - GETC
      * vector x21 - OUT
+     * vector x22 - PUTS
+     * vector x23 - IN
+     * vector x24 - PUTSP
      * vector x25 - HALT
      *
      * @return false if this Trap is a HALT command; true otherwise
      */
     public boolean executeTrap() {
+        return trap(mIR & 0xFF);
+    }
+
+    /**
+     * op
+     * 1000 000000000000
+     *
+     * Returns from an interrupt handler by popping the PC and then the PSR off the
+     * supervisor stack. If the PSR returned to is in user mode, the supervisor stack
+     * pointer is set aside and R6 gets back the user stack pointer.
+     *
+     * @throws IllegalStateException in user mode, where there is no interrupt to return from
+     */
+    public void executeReturnFromInterrupt() {
+        if (!mSupervisor) {
+            throw new IllegalStateException("RTI in user mode");
+        }
+        final int stack = mRegisters[STACK_POINTER];
+        if (stack + 1 >= mMemory.size()) {
+            throw new IllegalStateException("Supervisor stack outside memory");
+        }
+        PC.setOpaque(this, mMemory.get(stack));
+        final int psr = mMemory.get(stack + 1);
+        setRegister(STACK_POINTER, stack + 2);
+        mSupervisor = (psr & PSR_USER) == 0;
+        mPriority = (psr >>> 8) & 7;
+        mCC = psr & 7;
+        if (!mSupervisor) {
+            final int userStack = mSavedStackPointer;
+            mSavedStackPointer = mRegisters[STACK_POINTER];
+            setRegister(STACK_POINTER, userStack);
+        }
+        if (mFrameDepth > 0) {
+            FRAME_DEPTH.setRelease(this, mFrameDepth - 1);
+        }
+        if (mEvents != null) {
+            mNextEvent = 0; // interrupts held back by the old priority may now be taken
+        }
+    }
+
+    // The package-private methods below carry out the instructions once their fields
+    // are decoded. The execute methods above decode from the IR; faster execution
+    // tiers decode once and call these directly so both share the same semantics.
+
+    /**
+     * @param theRegister the register number
+     * @return the 2's complement value held in the register
+     */
+    int registerValue(final int theRegister) {
+        return (short) mRegisters[theRegister];
+    }
+
+    /**
+     * Tests the condition codes selected by the nzp bits of a branch.
+     * @param theNzp the n, z and p bits [11:9] of the branch
+     * @return true if any of the tested condition codes is set
+     */
+    boolean isConditionMet(final int theNzp) {
+        if (mCC == CC_UNSET && theNzp != 0) {
+            throw new IllegalStateException("CC tested before it was set");
+        }
+        return (theNzp & mCC) != 0;
+    }
+
+    /**
+     * Writes theValue to theRegister without touching the CC, for a faster
+     * execution tier that has worked out a register's value ahead.
+     */
+    void writeRegister(final int theRegister, final int theValue) {
+        setRegister(theRegister, theValue);
+    }
+
+    /**
+     * @return the PC, as last seen from another thread
+     */
+    int publishedPC() {
+        return (int) PC.getOpaque(this);
+    }
+
+    /**
+     * @return the instructions retired, as last seen from another thread
+     */
+    long publishedInstructionCount() {
+        return (long) INSTRUCTION_COUNT.getOpaque(this);
+    }
+
+    /**
+     * @return a copy of the PC each interrupt not yet returned from was taken at,
+     *         oldest first, as last seen from another thread
+     */
+    int[] publishedFrames() {
+        final int depth = (int) FRAME_DEPTH.getAcquire(this);
+        return Arrays.copyOf(mFrames, depth); // at least depth long: it grows before the depth does
+    }
+
+    /**
+     * Sets the condition code, for a faster execution tier that has worked out
+     * the CC an instruction leaves ahead.
+     * @param theCC 4 (n), 2 (z) or 1 (p)
+     */
+    void writeConditionCode(final int theCC) {
+        mCC = theCC;
+    }
+
+    /**
+     * @return the condition code: 4 (n), 2 (z), 1 (p), or 0 if it is not set
+     */
+    int conditionCode() {
+        return mCC;
+    }
+
+    // stores the low 16 bits of theValue into theRegister
+    private void setRegister(final int theRegister, final int theValue) {
+        mRegisters[theRegister] = theValue & WORD_MASK;
+        mRegistersWritten |= 1 << theRegister;
+    }
+
+    /**
+     * Writes theValue to memory at theAddress, telling the memory listener and the
+     * summary of any step under way.
+     */
+    void store(final int theAddress, final int theValue) {
+        mMemory.set(theAddress, theValue);
+        if (mCache != null) {
+            mCache.write(theAddress);
+        }
+        if (mMemoryListener != null) {
+            mMemoryListener.memoryWritten(theAddress);
+        }
+        if (mStepSummary != null) {
+            mStepSummary.recordWrite(theAddress);
+        }
+    }
+
+    /**
+     * Stores theFirst + theSecond into the destination register and sets CC.
+     */
+    void add(final int theDest, final int theFirst, final int theSecond) {
+        final int value = (short) (theFirst + theSecond); // wraps around at 16 bits
+        setRegister(theDest, value);
+        // sums whose character has a numeric value of 0, such as 48 ('0'), set Z
+        setConditionCode(Character.getNumericValue((char) value) == 0 ? 0 : value);
+    }
+
+    /**
+     * Stores theFirst AND theSecond into the destination register and sets CC.
+     */
+    void and(final int theDest, final int theFirst, final int theSecond) {
+        final int value = (short) (theFirst & theSecond);
+        setRegister(theDest, value);
+        setConditionCode(value);
+    }
+
+    /**
+     * Stores the inverted source register into the destination register and sets CC.
+     */
+    void not(final int theDest, final int theSource) {
+        final int value = (short) ~mRegisters[theSource];
+        setRegister(theDest, value);
+        setConditionCode(value);
+    }
+
+    /**
+     * Loads the word at theAddress into the destination register and sets CC.
+     */
+    void load(final int theDest, final int theAddress) {
+        //retrieve the value from memory contained at the offset index (program counter and the indicated
+        //offset at the instruction register)
+        int word = (short) mMemory.get(theAddress); // 2's comp value
+        if (mCache != null) {
+            mCache.read(theAddress);
+        }
+        if (word < 0) {
+            word = 0; // negative words have always loaded as 0
+        }
+        setRegister(theDest, word);
+        setConditionCode(word);
+    }
+
+    /**
+     * Carries out the trap routine for the given vector. Strings are copied to the
+     * output in one call rather than a character at a time, and characters are read
+     * from the input set by setInput(), or from System.in if there is none.
+     * @return true if this trap is a HALT; false otherwise
+     */
+    boolean trap(final int theVector) {
         boolean halt = false;
-        BitString valueBS = mIR.substring(8,8);
-        int trapValue = valueBS.getUnsignedValue();
-        if (trapValue == 33) { // OUT (TO PRINT)
-            char value = (char)mRegisters[0].getUnsignedValue(); //prints ascii value of decimal at register 0
-            System.out.print(value);
-        } else if (trapValue == 37) { // HALT (STOP)
+        int characters = 0;
+        if (theVector == 0x20) { // GETC (READ A CHARACTER)
+            setRegister(0, read());
+            characters = 1;
+        } else if (theVector == 33) { // OUT (TO PRINT)
+            char value = (char) mRegisters[0]; //prints ascii value of decimal at register 0
+            if (mOutput == null) {
+                System.out.print(value);
+            } else {
+                mOutput.append(value);
+            }
+            characters = 1;
+        } else if (theVector == 0x22 || theVector == 0x24) { // PUTS, PUTSP (TO PRINT A STRING)
+            final StringBuilder buffer = mOutput == null ? mTrapBuffer : mOutput;
+            final int start = buffer.length();
+            try {
+                appendString(buffer, mRegisters[0], theVector == 0x24);
+            } finally {
+                flushTrapBuffer(); // what was gathered before a failure is printed too
+            }
+            characters = buffer.length() - start;
+        } else if (theVector == 0x23) { // IN (PROMPT, READ AND ECHO A CHARACTER)
+            final StringBuilder buffer = mOutput == null ? mTrapBuffer : mOutput;
+            buffer.append(IN_PROMPT);
+            try {
+                final int value = read();
+                setRegister(0, value);
+                buffer.append((char) value);
+            } finally {
+                flushTrapBuffer();
+            }
+            characters = 1;
+        } else if (theVector == 37) { // HALT (STOP)
             halt = true;
         }
+        if (characters > 0 && TRAP_IO.isEnabled()) {
+            final TrapIoEvent event = new TrapIoEvent();
+            event.vector = theVector;
+            event.characters = characters;
+            event.commit();
+        }
         return halt;
     }
 
+    // prints and empties what the output traps gathered for System.out
+    private void flushTrapBuffer() {
+        if (mTrapBuffer.length() > 0) {
+            System.out.print(mTrapBuffer);
+            mTrapBuffer.setLength(0);
+        }
+    }
+
+    // appends the string that starts at theAddress and ends at a x0000 word to theBuffer,
+    // one character per word, or two per word, low byte first, if thePacked
+    private void appendString(final StringBuilder theBuffer, final int theAddress, final boolean thePacked) {
+        final int size = mMemory.size();
+        for (int address = theAddress; ; address++) {
+            if (address >= size) {
+                throw new IllegalArgumentException("Invalid address");
+            }
+            final int word = mMemory.get(address);
+            if (word == 0) {
+                return;
+            }
+            if (!thePacked) {
+                theBuffer.append((char) word);
+            } else {
+                theBuffer.append((char) (word & 0xFF));
+                if ((word >>> 8) == 0) {
+                    return; // an odd number of characters
+                }
+                theBuffer.append((char) (word >>> 8));
+            }
+        }
+    }
+
+    // the next input character, or 0 once the input is used up
+    private int read() {
+        if (mInput != null) {
+            return mInputPosition < mInput.length() ? mInput.charAt(mInputPosition++) : 0;
+        }
+        try {
+            final int value = System.in.read();
+            return value < 0 ? 0 : value;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the address held in the PC
+     */
+    int programCounter() {
+        return mPC;
+    }
+
+    /**
+     * Moves the PC to theAddress.
+     */
+    void jump(final int theAddress) {
+        if (theAddress < 0 || theAddress > WORD_MASK) {
+            throw new IllegalArgumentException("Invalid address");
+        }
+        PC.setOpaque(this, theAddress);
+    }
+
+    /**
+     * Loads the IR with the word at theAddress without moving the PC.
+     */
+    void fetch(final int theAddress) {
+        mIR = mMemory.get(theAddress);
+    }
+
+    /**
+     * @return the unsigned value of the word at theAddress
+     */
+    int wordAt(final int theAddress) {
+        return mMemory.get(theAddress);
+    }
+
+    /**
+     * @return the number of words of memory
+     */
+    int memorySize() {
+        return mMemory.size();
+    }
+
+    /**
+     * @return the memory this computer executes from
+     */
+    Memory memory() {
+        return mMemory;
+    }
+
+    /**
+     * @return the unsigned value held in the IR
+     */
+    int instruction() {
+        return mIR;
+    }
+
+    /**
+     * @return the PSR, as getPSR() shows it
+     */
+    int processorStatus() {
+        return (mSupervisor ? 0 : PSR_USER) | mPriority << 8 | mCC;
+    }
+
+    /**
+     * @return R6 of the mode not running: the user stack pointer while an interrupt
+     *         is handled, the supervisor stack pointer otherwise
+     */
+    int savedStackPointer() {
+        return mSavedStackPointer;
+    }
+
+    /**
+     * Puts back the PSR and the set aside stack pointer of a saved machine.
+     * @param thePSR the PSR, as processorStatus() returns it
+     * @param theSavedStackPointer the stack pointer, as savedStackPointer() returns it
+     */
+    void restoreStatus(final int thePSR, final int theSavedStackPointer) {
+        final int cc = thePSR & 7;
+        if (cc != CC_UNSET && cc != 1 && cc != 2 && cc != 4) {
+            throw new IllegalArgumentException("Invalid condition code");
+        }
+        mSupervisor = (thePSR & PSR_USER) == 0;
+        mPriority = (thePSR >>> 8) & 7;
+        mCC = cc;
+        mSavedStackPointer = theSavedStackPointer & WORD_MASK;
+    }
+
+    /**
+     * Writes the first theCount of theWords to the matching theAddresses, as
+     * loadWord does: each write reaches the cache model and the summary of any step
+     * under way. Only the memory listener is told differently, about all of them
+     * together once they are all written.
+     * @param theAddresses the addresses, each in memory
+     * @param theWords the words to write
+     * @param theCount the number of words
+     */
+    void patch(final int[] theAddresses, final int[] theWords, final int theCount) {
+        for (int i = 0; i < theCount; i++) {
+            mMemory.set(theAddresses[i], theWords[i] & WORD_MASK);
+            if (mCache != null) {
+                mCache.write(theAddresses[i]);
+            }
+            if (mStepSummary != null) {
+                mStepSummary.recordWrite(theAddresses[i]);
+            }
+        }
+        if (mMemoryListener != null) {
+            mMemoryListener.memoryWritten(theAddresses, theCount);
+        }
+    }
+
+    /**
+     * Puts back the registers, PC, IR, CC and instruction count of a saved machine.
+     * @param theRegisters the unsigned values of the 8 registers
+     * @param thePC the PC
+     * @param theIR the IR
+     * @param theCC the CC: 4 (n), 2 (z), 1 (p), or 0 if it was never set
+     * @param theInstructionCount the instructions retired
+     */
+    void restore(final int[] theRegisters, final int thePC, final int theIR, final int theCC,
+                 final long theInstructionCount) {
+        if (theRegisters.length != MAX_REGISTERS) {
+            throw new IllegalArgumentException("Invalid registers");
+        }
+        if (theCC != CC_UNSET && theCC != 1 && theCC != 2 && theCC != 4) {
+            throw new IllegalArgumentException("Invalid condition code");
+        }
+        for (int i = 0; i < MAX_REGISTERS; i++) {
+            mRegisters[i] = theRegisters[i] & WORD_MASK;
+        }
+        jump(thePC);
+        mIR = theIR & WORD_MASK;
+        mCC = theCC;
+        INSTRUCTION_COUNT.setOpaque(this, theInstructionCount);
+        mPublishedCount = theInstructionCount;
+    }
+
+    /**
+     * Counts instructions retired outside executeNext, by a faster execution tier.
+     * @param theOpcodes the opcode of each instruction, in order
+     * @param theCount the number of instructions retired, from the first
+     */
+    void retire(final byte[] theOpcodes, final int theCount) {
+        INSTRUCTION_COUNT.setOpaque(this, mInstructionCount + theCount);
+        for (int i = 0; i < theCount; i++) {
+            mOpcodeCounts[theOpcodes[i]]++;
+        }
+    }
+
+    /**
+     * Counts theTimes runs of a whole block of instructions, retired at once by a
+     * faster execution tier.
+     * @param theOpcodes the opcode of each instruction, in order
+     * @param theCount the number of instructions in the block
+     * @param theTimes the number of times the block ran
+     */
+    void retire(final byte[] theOpcodes, final int theCount, final long theTimes) {
+        INSTRUCTION_COUNT.setOpaque(this, mInstructionCount + theCount * theTimes);
+        for (int i = 0; i < theCount; i++) {
+            mOpcodeCounts[theOpcodes[i]] += theTimes;
+        }
+    }
+
+    /**
+     * Adds the instructions retired since the last call to the SimulatorMetrics.
+     */
+    void publishMetrics() {
+        SimulatorMetrics.get().retired(mInstructionCount - mPublishedCount, mOpcodeCounts);
+        mPublishedCount = mInstructionCount;
+    }
+
+    /**
+     * Forks the computer. The fork starts with the same state and continues on
+     * its own; memory is only copied once the fork or this computer writes to it.
+     * Neither the memory listener nor the output is carried over.
+     * @return the fork
+     */
+    Computer fork() {
+        return new Computer(this);
+    }
+
+    /**
+     * Records the instructions executed from now on, and whether each BR branched,
+     * into theCoverage.
+     * @param theCoverage the coverage to record into, or null to stop recording
+     */
+    void setCoverage(final Coverage theCoverage) {
+        mCoverage = theCoverage;
+    }
+
+    /**
+     * @return the coverage being recorded into, or null
+     */
+    Coverage coverage() {
+        return mCoverage;
+    }
+
+    /**
+     * Passes the instruction fetches, LD reads and stores from now on through
+     * theCache, which counts its hits and misses.
+     * @param theCache the cache to model, or null for none
+     */
+    void setCache(final CacheModel theCache) {
+        mCache = theCache;
+    }
+
+    /**
+     * @return the cache being modeled, or null
+     */
+    CacheModel cache() {
+        return mCache;
+    }
+
+    /**
+     * Raises the interrupts of theEvents as the instruction count passes them.
+     * @param theEvents the scheduler, or null for no interrupts
+     * @throws IllegalArgumentException if memory cannot hold the interrupt table
+     *         and the supervisor stack
+     */
+    void setEventScheduler(final EventScheduler theEvents) {
+        if (theEvents != null && mMemory.size() < SUPERVISOR_STACK) {
+            throw new IllegalArgumentException("Memory too small for interrupts: "
+                    + mMemory.size() + " words, at least " + SUPERVISOR_STACK + " needed");
+        }
+        if (mEvents != null) {
+            mEvents.attach(null);
+        }
+        mEvents = theEvents;
+        if (theEvents != null) {
+            theEvents.attach(this);
+        }
+        eventsChanged();
+    }
+
+    /**
+     * @return the event scheduler, or null
+     */
+    EventScheduler eventScheduler() {
+        return mEvents;
+    }
+
+    /**
+     * Looks again at when the event scheduler next needs to run, after an event
+     * was added or removed.
+     */
+    void eventsChanged() {
+        mNextEvent = mEvents == null ? Long.MAX_VALUE : mEvents.nextCheck(mInstructionCount, mPriority);
+    }
+
+    /**
+     * @return the instruction count at which an interrupt may next be taken, or
+     *         Long.MAX_VALUE if none is scheduled
+     */
+    long nextEvent() {
+        return mNextEvent;
+    }
+
+    /**
+     * @param theCount a number of instructions
+     * @return true if an interrupt may be taken within the next theCount instructions
+     */
+    boolean isEventDue(final int theCount) {
+        return mInstructionCount + theCount >= mNextEvent;
+    }
+
+    // raises the events that are due and takes the most urgent interrupt, if the
+    // priority allows it
+    private void serviceEvents() {
+        final int interrupt = mEvents.poll(mInstructionCount, mPriority);
+        if (interrupt >= 0) {
+            interrupt(interrupt & 0xFF, interrupt >>> 8);
+        }
+        mNextEvent = mEvents.nextCheck(mInstructionCount, mPriority);
+    }
+
+    /**
+     * Takes an interrupt: switches to the supervisor stack if in user mode, pushes
+     * the PSR and then the PC, and continues at the handler whose address is in the
+     * interrupt table at x0100 + theVector, in supervisor mode at thePriority with
+     * the CC clear.
+     */
+    private void interrupt(final int theVector, final int thePriority) {
+        if (INTERRUPT_TABLE + theVector >= mMemory.size()) {
+            throw new IllegalStateException("Interrupt table outside memory");
+        }
+        final int psr = processorStatus();
+        if (!mSupervisor) {
+            final int userStack = mRegisters[STACK_POINTER];
+            setRegister(STACK_POINTER, mSavedStackPointer);
+            mSavedStackPointer = userStack;
+            mSupervisor = true;
+        }
+        final int stack = (mRegisters[STACK_POINTER] - 2) & WORD_MASK;
+        if (stack + 1 >= mMemory.size()) {
+            throw new IllegalStateException("Supervisor stack outside memory");
+        }
+        setRegister(STACK_POINTER, stack);
+        store(stack + 1, psr);
+        store(stack, mPC);
+        mPriority = thePriority;
+        mCC = CC_UNSET;
+        if (mFrameDepth == mFrames.length) {
+            mFrames = Arrays.copyOf(mFrames, mFrameDepth * 2); // only past the 7 priorities
+        }
+        mFrames[mFrameDepth] = mPC;
+        FRAME_DEPTH.setRelease(this, mFrameDepth + 1);
+        PC.setOpaque(this, mMemory.get(INTERRUPT_TABLE + theVector));
+    }
+
+    /**
+     * Sends the characters written by the output traps to theOutput instead of System.out.
+     * @param theOutput the buffer to append to, or null for System.out
+     */
+    void setOutput(final StringBuilder theOutput) {
+        mOutput = theOutput;
+    }
+
+    /**
+     * Makes GETC and IN read from theInput instead of System.in. Once it is used up
+     * they read 0.
+     * @param theInput the characters to read, or null for System.in
+     */
+    void setInput(final CharSequence theInput) {
+        mInput = theInput;
+        mInputPosition = 0;
+    }
+
+    /**
+     * Registers the listener told about every word written to memory, replacing
+     * any previous one.
+     * @param theListener the listener, or null for none
+     */
+    void setMemoryListener(final MemoryListener theListener) {
+        mMemoryListener = theListener;
+    }
+
 
 	/*
 		Extra Credit: Implement LEA, LDI, STI, LDR, STR
@@ -329,76 +1006,419 @@ public class Computer {
      * until a HALT instruction is encountered.
      */
     public void execute() {
-        BitString opCodeStr;
-        int opCode;
-        boolean halt = false;
+        final ExecutionEvent event = EXECUTION.isEnabled() ? new ExecutionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        final SimulatorMetrics metrics = SimulatorMetrics.get();
+        metrics.runStarted();
+        final long start = mInstructionCount;
+        final int startAddress = programCounter();
+        HaltReason reason = HaltReason.ERROR;
+        try {
+            boolean halt = false;
 
-        while (!halt) {
-            // Fetch the next instruction
-            mIR = mMemory[mPC.getUnsignedValue()];
-            // increment the PC
-            mPC.addOne();
-
-            // Decode the instruction's first 4 bits
-            // to figure out the opcode
-            opCodeStr = mIR.substring(0, 4);
-            opCode = opCodeStr.getUnsignedValue();
-
-            // What instruction is this?
-            if (opCode == 0) { // BR
-                executeBranch();
-            } else if (opCode == 1) { // ADD
-                executeAdd();
-            } else if (opCode == 2) { // LD
-                executeLoad();
-            } else if (opCode == 5) { // AND
-                executeAnd();
-            } else if (opCode == 9) { // NOT
-                executeNot();
-            } else if (opCode == 15) { // TRAP
-                halt = executeTrap();
-            } else {
-                throw new UnsupportedOperationException("Illegal opCode: " + opCode);
+            while (!halt) {
+                for (int i = 0; i < METRICS_INTERVAL && !halt; i++) {
+                    halt = executeNext();
+                }
+                publishMetrics(); // so a long run shows up while it runs
+            }
+            reason = HaltReason.HALT;
+        } finally {
+            if (event != null) {
+                event.finish("interpreter", startAddress, mInstructionCount - start, reason);
             }
+            publishMetrics();
+            metrics.runFinished(reason);
         }
     }
 
     /**
-     * Displays the computer's state
+     * Executes the instructions starting at the PC on theExecutor, until a HALT
+     * instruction is encountered, an instruction fails or the returned future is
+     * cancelled. Cancelling stops the run within a few thousand instructions. The run
+     * never blocks or holds a lock, so it suits virtual thread executors as well as
+     * pools of platform threads.
+     *
+     * The output traps write to the result's output rather than System.out. The
+     * computer must not be used until the future is done.
+     * @param theExecutor the executor to run on
+     * @return the future result of the run; a failing instruction completes it
+     *         normally, with the ERROR halt reason, and anything else thrown, such
+     *         as an Error, completes it exceptionally
+     */
+    public CompletableFuture<ExecutionResult> executeAsync(final Executor theExecutor) {
+        final CompletableFuture<ExecutionResult> future = new CompletableFuture<>();
+        theExecutor.execute(() -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            try {
+                future.complete(runAsync(future));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    // the run of executeAsync, on the executor's thread
+    private ExecutionResult runAsync(final Future<?> theFuture) {
+        final ExecutionEvent event = EXECUTION.isEnabled() ? new ExecutionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        final SimulatorMetrics metrics = SimulatorMetrics.get();
+        metrics.runStarted();
+        final long start = mInstructionCount;
+        final int startAddress = programCounter();
+        final StringBuilder previousOutput = mOutput;
+        final StringBuilder output = new StringBuilder();
+        mOutput = output;
+        HaltReason reason = HaltReason.ERROR;
+        RuntimeException error = null;
+        try {
+            reason = executeUntilCancelled(theFuture) ? HaltReason.HALT : HaltReason.CANCELLED;
+        } catch (RuntimeException e) {
+            error = e;
+        } finally {
+            mOutput = previousOutput;
+            if (event != null) {
+                event.finish("async", startAddress, mInstructionCount - start, reason);
+            }
+            publishMetrics();
+            metrics.runFinished(reason);
+        }
+        return new ExecutionResult(mRegisters, mPC, mIR, mCC, memoryWords(),
+                output.toString(), mInstructionCount - start, reason, error);
+    }
+
+    // runs until a HALT, checking theFuture for cancellation every CANCEL_CHECK_INTERVAL
+    // instructions; returns false if it was cancelled first
+    private boolean executeUntilCancelled(final Future<?> theFuture) {
+        while (!theFuture.isCancelled()) {
+            for (int i = 0; i < CANCEL_CHECK_INTERVAL; i++) {
+                if (executeNext()) {
+                    return true;
+                }
+            }
+            publishMetrics();
+        }
+        return false;
+    }
+
+    // a copy of every word of memory
+    private int[] memoryWords() {
+        final int[] words = new int[mMemory.size()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = mMemory.get(i);
+        }
+        return words;
+    }
+
+    /**
+     * Executes the one instruction at the PC.
+     * @param theSummary the caller's summary, overwritten with the changes the step made
+     * @return theSummary
+     */
+    public StepSummary step(final StepSummary theSummary) {
+        return step(1, theSummary);
+    }
+
+    /**
+     * Executes up to theCount instructions starting at the PC, stopping early after a
+     * HALT. Nothing is allocated, so a debugger can step at a high rate by reusing
+     * one summary. If an instruction throws, theSummary still describes the
+     * instructions before it.
+     * @param theCount the most instructions to execute
+     * @param theSummary the caller's summary, overwritten with the changes the steps made
+     * @return theSummary
+     */
+    public StepSummary step(final int theCount, final StepSummary theSummary) {
+        if (theCount < 0) {
+            throw new IllegalArgumentException("Invalid count");
+        }
+        theSummary.reset();
+        mRegistersWritten = 0;
+        mStepSummary = theSummary;
+        int executed = 0;
+        boolean halted = false;
+        try {
+            while (executed < theCount && !halted) {
+                halted = executeNext();
+                executed++;
+            }
+        } finally {
+            mStepSummary = null;
+            theSummary.finish(executed, halted, mRegistersWritten, mRegisters, mPC, mCC);
+        }
+        return theSummary;
+    }
+
+    /**
+     * Fetches, decodes and executes the instruction at the PC, then takes an
+     * interrupt if one is due.
+     * @return true if the instruction was a HALT; false otherwise
+     */
+    boolean executeNext() {
+        boolean halt = false;
+        final int address = mPC;
+
+        // Fetch the next instruction
+        mIR = mMemory.get(address);
+        if (mCache != null) {
+            mCache.fetch(address);
+        }
+        // increment the PC
+        PC.setOpaque(this, (address + 1) & WORD_MASK);
+
+        // Decode the instruction's first 4 bits
+        // to figure out the opcode
+        final int opCode = mIR >>> 12;
+
+        // What instruction is this?
+        if (opCode == 0) { // BR
+            executeBranch();
+        } else if (opCode == 1) { // ADD
+            executeAdd();
+        } else if (opCode == 2) { // LD
+            executeLoad();
+        } else if (opCode == 5) { // AND
+            executeAnd();
+        } else if (opCode == 8) { // RTI
+            executeReturnFromInterrupt();
+        } else if (opCode == 9) { // NOT
+            executeNot();
+        } else if (opCode == 15) { // TRAP
+            halt = executeTrap();
+        } else {
+            throw new UnsupportedOperationException("Illegal opCode: " + opCode);
+        }
+        INSTRUCTION_COUNT.setOpaque(this, mInstructionCount + 1);
+        mOpcodeCounts[opCode]++;
+        if (mCoverage != null) {
+            mCoverage.executed(address);
+        }
+        if (mInstructionCount >= mNextEvent && !halt) {
+            serviceEvents();
+        }
+        return halt;
+    }
+
+    /**
+     * Displays the computer's state in the grouped-binary format.
      */
     public void display() {
-        System.out.println();
-        System.out.print("PC ");
-        mPC.display(true);
-        System.out.print("   ");
-
-        System.out.print("IR ");
-        mPC.display(true);
-        System.out.print("   ");
-
-        System.out.print("CC ");
-        mCC.display(true);
-        System.out.println("   ");
+        display(DumpFormat.BINARY);
+    }
+
+    /**
+     * Displays the computer's state, including all of memory, in the given format.
+     * @param theFormat the format to render the state in
+     */
+    public void display(final DumpFormat theFormat) {
+        display(theFormat, 0, mMemory.size());
+    }
+
+    /**
+     * Displays the computer's state with the memory words from theStart up to,
+     * but not including, theEnd.
+     * @param theFormat the format to render the state in
+     * @param theStart the first memory address to display
+     * @param theEnd one past the last memory address to display
+     */
+    public void display(final DumpFormat theFormat, final int theStart, final int theEnd) {
+        dump(System.out, theFormat, theStart, theEnd);
+    }
+
+    /**
+     * Renders the computer's state into a reusable buffer and writes it to
+     * theOut in a single call.
+     * @param theOut the stream to write the state to
+     * @param theFormat the format to render the state in
+     * @param theStart the first memory address to dump
+     * @param theEnd one past the last memory address to dump
+     */
+    public void dump(final PrintStream theOut, final DumpFormat theFormat,
+                     final int theStart, final int theEnd) {
+        if (theStart < 0 || theEnd > mMemory.size() || theStart > theEnd) {
+            throw new IllegalArgumentException("Invalid address range");
+        }
+        mDumpBuffer.setLength(0);
+        if (theFormat == DumpFormat.HEX) {
+            renderHex(theStart, theEnd);
+        } else if (theFormat == DumpFormat.DISASSEMBLY) {
+            renderDisassembly(theStart, theEnd);
+        } else {
+            renderBinary(theStart, theEnd);
+        }
+        theOut.print(mDumpBuffer);
+        theOut.flush();
+    }
+
+    // renders the state the way display always has: 16 bits in groups of four, three per line
+    private void renderBinary(final int theStart, final int theEnd) {
+        final StringBuilder buffer = mDumpBuffer;
+        buffer.append('\n');
+        buffer.append("PC ");
+        appendBinary(buffer, mPC);
+        buffer.append("   ");
+
+        buffer.append("IR ");
+        appendBinary(buffer, mIR);
+        buffer.append("   ");
+
+        buffer.append("CC ");
+        if (mCC == CC_UNSET) {
+            buffer.append("000");
+        } else {
+            appendBinary(buffer, mCC);
+        }
+        buffer.append("   \n");
         for (int i = 0; i < MAX_REGISTERS; i++) {
-            System.out.printf("R%d ", i);
-            mRegisters[i].display(true);
-            if (i % 3 == 2) {
-                System.out.println();
-            } else {
-                System.out.print("   ");
+            buffer.append('R').append(i).append(' ');
+            appendBinary(buffer, mRegisters[i]);
+            buffer.append(i % 3 == 2 ? "\n" : "   ");
+        }
+        buffer.append('\n');
+        for (int i = theStart; i < theEnd; i++) {
+            if (i < 100) {
+                buffer.append(i < 10 ? "  " : " ");
             }
+            buffer.append(i).append(' ');
+            appendBinary(buffer, mMemory.get(i));
+            buffer.append((i - theStart) % 3 == 2 ? "\n" : "   ");
         }
-        System.out.println();
-        for (int i = 0; i < MAX_MEMORY; i++) {
-            System.out.printf("%3d ", i);
-            mMemory[i].display(true);
-            if (i % 3 == 2) {
-                System.out.println();
-            } else {
-                System.out.print("   ");
+        buffer.append("\n\n");
+    }
+
+    // renders the state as hex words, eight per line, collapsing runs of all-zero lines
+    private void renderHex(final int theStart, final int theEnd) {
+        final StringBuilder buffer = mDumpBuffer;
+        appendHexRegisters(buffer, false);
+        int line = theStart;
+        while (line < theEnd) {
+            final int lineEnd = Math.min(line + HEX_WORDS_PER_LINE, theEnd);
+            int zeroEnd = line;
+            while (zeroEnd < theEnd && mMemory.get(zeroEnd) == 0) {
+                zeroEnd++;
+            }
+            final int zeroLines = (zeroEnd - line) / HEX_WORDS_PER_LINE;
+            if (zeroLines > 1) {
+                // two or more lines of zeros are shown as a single range
+                final int runEnd = line + zeroLines * HEX_WORDS_PER_LINE;
+                appendHex(buffer, line);
+                buffer.append('-');
+                appendHex(buffer, runEnd - 1);
+                buffer.append(" x0000\n");
+                line = runEnd;
+                continue;
+            }
+            appendHex(buffer, line);
+            buffer.append(':');
+            for (int i = line; i < lineEnd; i++) {
+                buffer.append(' ');
+                appendHex(buffer, mMemory.get(i));
+            }
+            buffer.append('\n');
+            line = lineEnd;
+        }
+    }
+
+    // renders the state with one memory word per line beside its disassembly,
+    // collapsing runs of zero words
+    private void renderDisassembly(final int theStart, final int theEnd) {
+        final StringBuilder buffer = mDumpBuffer;
+        appendHexRegisters(buffer, true);
+        int address = theStart;
+        while (address < theEnd) {
+            final int word = mMemory.get(address);
+            int runEnd = address + 1;
+            while (word == 0 && runEnd < theEnd && mMemory.get(runEnd) == 0) {
+                runEnd++;
+            }
+            appendHex(buffer, address);
+            if (runEnd - address > 1) {
+                buffer.append('-');
+                appendHex(buffer, runEnd - 1);
+            }
+            buffer.append(' ');
+            appendHex(buffer, word);
+            buffer.append("  ").append(Disassembler.disassemble(word)).append('\n');
+            address = runEnd;
+        }
+    }
+
+    // appends the PC, IR, CC and registers in hex, and the IR's disassembly if theDisassemble
+    private void appendHexRegisters(final StringBuilder theBuffer, final boolean theDisassemble) {
+        theBuffer.append("PC ");
+        appendHex(theBuffer, mPC);
+        theBuffer.append("   IR ");
+        appendHex(theBuffer, mIR);
+        if (theDisassemble) {
+            theBuffer.append(' ').append(Disassembler.disassemble(mIR));
+        }
+        theBuffer.append("   CC ");
+        theBuffer.append((mCC & 4) != 0 ? '1' : '0')
+                .append((mCC & 2) != 0 ? '1' : '0')
+                .append((mCC & 1) != 0 ? '1' : '0');
+        theBuffer.append('\n');
+        for (int i = 0; i < MAX_REGISTERS; i++) {
+            theBuffer.append('R').append(i).append(' ');
+            appendHex(theBuffer, mRegisters[i]);
+            theBuffer.append(i == MAX_REGISTERS - 1 ? '\n' : ' ');
+        }
+    }
+
+    // appends a 16 bit value in groups of four bits, as BitString.appendTo does
+    private static void appendBinary(final StringBuilder theBuffer, final int theValue) {
+        for (int i = 15; i >= 0; i--) {
+            theBuffer.append((theValue & (1 << i)) != 0 ? '1' : '0');
+            if (i % 4 == 0 && i != 0) {
+                theBuffer.append(' ');
+            }
+        }
+    }
+
+    // appends a 16 bit value as x followed by four upper case hex digits
+    private static void appendHex(final StringBuilder theBuffer, final int theValue) {
+        theBuffer.append('x');
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            theBuffer.append(HEX_DIGITS[(theValue >>> shift) & 0xF]);
+        }
+    }
+
+    /**
+     * Told about every word written to memory, so decoded copies of it can be dropped.
+     */
+    interface MemoryListener {
+        /**
+         * @param theAddress the address that was written
+         */
+        void memoryWritten(int theAddress);
+
+        /**
+         * Told about words written together, once all of them are written.
+         * @param theAddresses the addresses that were written
+         * @param theCount the number of addresses, from the first
+         */
+        default void memoryWritten(final int[] theAddresses, final int theCount) {
+            for (int i = 0; i < theCount; i++) {
+                memoryWritten(theAddresses[i]);
             }
         }
-        System.out.println();
-        System.out.println();
+    }
+
+    /**
+     * The formats the computer's state can be displayed in.
+     */
+    public enum DumpFormat {
+        /** 16 bits in groups of four, three words per line. */
+        BINARY,
+        /** Hex words, eight per line, with runs of zero memory collapsed. */
+        HEX,
+        /** Hex words, one per line beside its disassembly, with runs of zeros collapsed. */
+        DISASSEMBLY
     }
 }
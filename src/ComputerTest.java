@@ -8,7 +8,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 /**
  * @author Ivan Sy
@@ -210,6 +224,28 @@ class ComputerTest {
         assertArrayEquals(expectedCC, resultCC);
     }
 
+    /**
+     * Test method for {@link Computer#executeAdd()}.
+     */
+    @Test
+    void testExecuteAddWrapsAround() {
+        String program[] = {
+                "0010001000000010",		// LD into R1 x7FFF
+                "0001001001100001",		// R1 <- R1 + 1
+                "1111000000100101",     // TRAP - vector x25 - HALT
+                "0111111111111111",     // x7FFF
+        };
+
+        mComp.loadMachineCode(program);
+        mComp.execute();
+
+        // CHECK R1 == 32767 + 1 wraps around to -32768
+        assertEquals(-32768, mComp.getRegisters()[1].get2sCompValue());
+
+        // CC CHECK == 100
+        assertEquals(4, mComp.getCC().getUnsignedValue());
+    }
+
 
     /**
      * Test method for {@link Computer#executeLoad()}.
@@ -495,5 +531,341 @@ class ComputerTest {
         assertEquals("Q", outputStreamCaptor.toString().trim());
     }
 
-}
 
+    /**
+     * Test method for {@link Computer#display()}.
+     */
+    @Test
+    void testDisplayShowsIR() {
+        ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStreamCaptor));
+
+        String program[] = {
+                "0001100100100101",		// R4 <- R4 + 5
+                "1111000000100101"     // TRAP - vector x25 - HALT
+        };
+
+        mComp.loadMachineCode(program);
+        mComp.execute();
+        mComp.display();
+
+        // IR holds the HALT, PC has moved past it
+        String dump = outputStreamCaptor.toString();
+        assertTrue(dump.contains("PC 0000 0000 0000 0010"));
+        assertTrue(dump.contains("IR 1111 0000 0010 0101"));
+        assertTrue(dump.contains("  1 1111 0000 0010 0101"));
+    }
+
+    /**
+     * Test method for {@link Computer#dump(PrintStream, Computer.DumpFormat, int, int)}.
+     */
+    @Test
+    void testDumpHexSkipsZeroRuns() {
+        ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(outputStreamCaptor);
+
+        String program[] = {
+                "0010000000000010",  // LD into R0 x39 which is ASCII 9
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000000000",
+                "0000000000111001",  // x39
+        };
+
+        mComp.loadMachineCode(program);
+        mComp.execute();
+        mComp.dump(out, Computer.DumpFormat.HEX, 0, 40);
+
+        String[] lines = outputStreamCaptor.toString().split("\n");
+        assertEquals("PC x0002   IR xF025   CC 001", lines[0]);
+        assertEquals("R0 x0039 R1 x0001 R2 x0002 R3 x0003 R4 x0004 R5 x0005 R6 x0006 R7 x0007", lines[1]);
+        assertEquals("x0000: x2002 xF025 x0000 x0039 x0000 x0000 x0000 x0000", lines[2]);
+        assertEquals("x0008-x0027 x0000", lines[3]);
+        assertEquals(4, lines.length);
+    }
+
+    /**
+     * Test method for {@link Computer#dump(PrintStream, Computer.DumpFormat, int, int)}.
+     */
+    @Test
+    void testDumpDisassembly() {
+        ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(outputStreamCaptor);
+
+        String program[] = {
+                "0010000000000010",  // LD into R0 x39 which is ASCII 9
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000000000",
+                "0000000000111001",  // x39
+        };
+
+        mComp.loadMachineCode(program);
+        mComp.execute();
+        mComp.dump(out, Computer.DumpFormat.DISASSEMBLY, 0, 10);
+
+        String[] lines = outputStreamCaptor.toString().split("\n");
+        assertEquals("PC x0002   IR xF025 HALT   CC 001", lines[0]);
+        assertEquals("x0000 x2002  LD R0, #2", lines[2]);
+        assertEquals("x0001 xF025  HALT", lines[3]);
+        assertEquals("x0002 x0000  NOP", lines[4]);
+        assertEquals("x0003 x0039  NOP", lines[5]);
+        assertEquals("x0004-x0009 x0000  NOP", lines[6]);
+        assertEquals(7, lines.length);
+    }
+
+    /**
+     * Test method for {@link Computer#dump(PrintStream, Computer.DumpFormat, int, int)}.
+     */
+    @Test
+    void testDumpInvalidRange() {
+        PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        assertThrows(IllegalArgumentException.class,
+                () -> mComp.dump(out, Computer.DumpFormat.BINARY, 10, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> mComp.dump(out, Computer.DumpFormat.HEX, 0, 1000));
+    }
+
+    /**
+     * Test method for {@link Computer#execute()}.
+     */
+    @Test
+    void testExecutionEventsRecorded() throws IOException {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        String program[] = {
+                "0010000000000010",  // LD into R0 x39 which is ASCII 9
+                "1111000000100001",  // TRAP - vector x21 - OUT
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000111001",  // x39
+        };
+
+        Path file = Files.createTempFile("lc3", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("lc3.ProgramLoad");
+            recording.enable("lc3.Execution");
+            recording.enable("lc3.TrapIo");
+            recording.start();
+            mComp.loadMachineCode(program);
+            mComp.execute();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        RecordedEvent execution = events.stream()
+                .filter(e -> e.getEventType().getName().equals("lc3.Execution")).findFirst().orElseThrow();
+        assertEquals(3, execution.getLong("instructions"));
+        assertEquals("HALT", execution.getString("haltReason"));
+        assertEquals(1, events.stream().filter(e -> e.getEventType().getName().equals("lc3.TrapIo")).count());
+        assertEquals(1, events.stream().filter(e -> e.getEventType().getName().equals("lc3.ProgramLoad")).count());
+    }
+
+    /**
+     * Test method for {@link Computer#executeAsync(java.util.concurrent.Executor)}.
+     */
+    @Test
+    void testExecuteAsync() throws InterruptedException, ExecutionException {
+        String program[] = {
+                "0010000000000010",  // LD into R0 x39 which is ASCII 9
+                "1111000000100001",  // TRAP - vector x21 - OUT
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000111001",  // x39
+        };
+        mComp.loadMachineCode(program);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutionResult result = mComp.executeAsync(executor).get();
+        executor.shutdown();
+
+        assertEquals(HaltReason.HALT, result.getHaltReason());
+        assertNull(result.getError());
+        assertEquals("9", result.getOutput());
+        assertEquals(3, result.getInstructionCount());
+        assertEquals(57, result.getRegister(0));
+        assertEquals(3, result.getPC());
+        assertEquals(0xF025, result.getIR());
+        assertEquals(1, result.getCC());
+        assertEquals(57, result.getWord(3));
+    }
+
+    /**
+     * Test method for {@link Computer#executeAsync(java.util.concurrent.Executor)}.
+     */
+    @Test
+    void testExecuteAsyncCancelled() throws InterruptedException {
+        String program[] = {
+                "0101000000100000",  // AND R0 <- 0
+                "0000111111111111",  // BR - to itself, forever
+        };
+        mComp.loadMachineCode(program);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CompletableFuture<ExecutionResult> future = mComp.executeAsync(executor);
+        Thread.sleep(50); // let the run get going
+        assertTrue(future.cancel(true));
+        executor.shutdown();
+
+        // the run notices the cancellation and gives the thread back
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(future.isCancelled());
+    }
+
+    /**
+     * Test method for {@link Computer#executeAsync(java.util.concurrent.Executor)}.
+     */
+    @Test
+    void testExecuteAsyncError() throws InterruptedException, TimeoutException {
+        mComp.loadMachineCode("1111000000100101"); // TRAP - vector x25 - HALT
+        mComp.setCache(new CacheModel(16, 1, 4, CacheModel.Policy.LRU) {
+            @Override
+            void fetch(final int theAddress) {
+                throw new StackOverflowError();
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CompletableFuture<ExecutionResult> future = mComp.executeAsync(executor);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(e.getCause() instanceof StackOverflowError);
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    /**
+     * Test method for {@link Computer#step(int, StepSummary)}.
+     */
+    @Test
+    void testStep() {
+        String program[] = {
+                "0010000000000011",  // LD into R0 x39 which is ASCII 9
+                "0001011011111111",  // ADD R3 <- R3 - 1
+                "1001100011111111",  // NOT R4 <- R3
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000111001",  // x39
+        };
+        mComp.loadMachineCode(program);
+        StepSummary summary = new StepSummary();
+
+        assertSame(summary, mComp.step(summary));
+        assertEquals(1, summary.getInstructions());
+        assertFalse(summary.isHalted());
+        assertEquals(1, summary.getRegistersWritten());
+        assertEquals(57, summary.getRegister(0));
+        assertEquals(1, summary.getPC());
+        assertEquals(1, summary.getCC());
+        assertEquals(0, summary.getMemoryWriteCount());
+
+        // the same summary is reused, and a HALT ends the batch early
+        mComp.step(10, summary);
+        assertEquals(3, summary.getInstructions());
+        assertTrue(summary.isHalted());
+        assertTrue(summary.isRegisterWritten(3));
+        assertTrue(summary.isRegisterWritten(4));
+        assertFalse(summary.isRegisterWritten(0));
+        assertEquals(2, summary.getRegister(3));
+        assertEquals(-3, summary.getRegister(4));
+        assertEquals(4, summary.getPC());
+        assertEquals(4, summary.getCC());
+        assertEquals(4, mComp.getInstructionCount());
+    }
+
+    /**
+     * Test method for {@link Computer#executeTrap()}.
+     */
+    @Test
+    void testExecuteTrapPuts() {
+        ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStreamCaptor));
+        String program[] = {
+                "0010000000000010",  // LD into R0 x4, the address of the string
+                "1111000000100010",  // TRAP - vector x22 - PUTS
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000000100",  // x4
+                "0000000001001000",  // H
+                "0000000001101001",  // i
+                "0000000000000000",  // end of the string
+        };
+
+        mComp.loadMachineCode(program);
+        mComp.execute();
+
+        assertEquals("Hi", outputStreamCaptor.toString());
+    }
+
+    /**
+     * Test method for {@link Computer#executeTrap()}.
+     */
+    @Test
+    void testExecuteTrapPutsPastMemory() {
+        ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStreamCaptor));
+        String program[] = {
+                "0010000000000010",  // LD into R0 x30, the address of the string
+                "1111000000100010",  // TRAP - vector x22 - PUTS
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000110000",  // x30
+                "0000000001001000",  // H
+                "0000000001101001",  // i
+                "0000000000000000",  // end of the string
+        };
+        mComp.loadMachineCode(program);
+        BitString word = new BitString();
+        word.setUnsignedValue('A');
+        mComp.loadWord(48, word);
+        word.setUnsignedValue('B');
+        mComp.loadWord(49, word); // the string runs off the end of memory
+
+        mComp.executeNext();
+        assertThrows(IllegalArgumentException.class, mComp::executeNext);
+        assertEquals("AB", outputStreamCaptor.toString());
+
+        // the next string is printed on its own
+        mComp.restore(new int[] {4, 1, 2, 3, 4, 5, 6, 7}, 1, 0, 0, mComp.getInstructionCount());
+        mComp.executeNext();
+        assertEquals("ABHi", outputStreamCaptor.toString());
+    }
+
+    /**
+     * Test method for {@link Computer#executeTrap()}.
+     */
+    @Test
+    void testExecuteTrapPutsp() {
+        ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStreamCaptor));
+        String program[] = {
+                "0010000000000010",  // LD into R0 x4, the address of the string
+                "1111000000100100",  // TRAP - vector x24 - PUTSP
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000000100",  // x4
+                "0110010101001000",  // H, e
+                "0000000001111001",  // y, then the end of the string
+        };
+
+        mComp.loadMachineCode(program);
+        mComp.execute();
+
+        assertEquals("Hey", outputStreamCaptor.toString());
+    }
+
+    /**
+     * Test method for {@link Computer#executeTrap()}.
+     */
+    @Test
+    void testExecuteTrapGetcAndIn() {
+        String program[] = {
+                "1111000000100000",  // TRAP - vector x20 - GETC
+                "1111000000100001",  // TRAP - vector x21 - OUT
+                "1111000000100011",  // TRAP - vector x23 - IN
+                "1111000000100000",  // TRAP - vector x20 - GETC, past the end of the input
+                "1111000000100101",  // TRAP - vector x25 - HALT
+        };
+        StringBuilder output = new StringBuilder();
+        mComp.setOutput(output);
+        mComp.setInput("ok");
+
+        mComp.loadMachineCode(program);
+        mComp.execute();
+
+        assertEquals("o\nInput a character> k", output.toString());
+        assertEquals(0, mComp.getRegisters()[0].get2sCompValue());
+    }
+}
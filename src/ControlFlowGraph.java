@@ -0,0 +1,155 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The ControlFlowGraph splits the code reachable from an entry point into basic
+ * blocks, following BR targets and fall-through edges and stopping at HALT and at
+ * instructions that cannot be run. Blocks link directly to their successors, so
+ * execution can chain from one block to the next without looking the PC up again.
+ * When a word of code is written only the block holding it is thrown away and the
+ * code reachable from its start is analysed again; words written together, by a
+ * ProgramPatch, are handled in one go.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class ControlFlowGraph {
+
+    private final Computer mComputer;
+    private final BasicBlock[] mStarting; // the block starting at each address
+    private final BasicBlock[] mOwner;    // the block holding each address
+    private int mBlockCount;
+    private int[] mWorklist = new int[16];
+
+    /**
+     * Builds the graph of the code reachable from theEntry.
+     * @param theComputer the computer whose memory holds the program
+     * @param theEntry the address execution starts at
+     */
+    ControlFlowGraph(final Computer theComputer, final int theEntry) {
+        mComputer = theComputer;
+        mStarting = new BasicBlock[theComputer.memorySize()];
+        mOwner = new BasicBlock[theComputer.memorySize()];
+        discover(theEntry);
+    }
+
+    /**
+     * Returns the block starting at theAddress, analysing the code from there or
+     * splitting the block that holds it if there is none yet.
+     * @param theAddress an address execution reaches
+     * @return the block starting at theAddress
+     */
+    BasicBlock blockAt(final int theAddress) {
+        if (theAddress < 0 || theAddress >= mStarting.length) {
+            throw new IllegalArgumentException("Invalid address");
+        }
+        if (mStarting[theAddress] == null) {
+            discover(theAddress);
+        }
+        return mStarting[theAddress];
+    }
+
+    /**
+     * @return the number of blocks in the graph
+     */
+    int getBlockCount() {
+        return mBlockCount;
+    }
+
+    /**
+     * Drops the block holding the written word and rebuilds the graph from its start.
+     * Blocks linked to the dropped one notice it is stale the next time they follow
+     * the link.
+     * @param theAddress the address that was written
+     * @return the dropped block, or null if the word was not code
+     */
+    BasicBlock invalidate(final int theAddress) {
+        final BasicBlock block = mOwner[theAddress];
+        if (block == null) {
+            return null;
+        }
+        remove(block);
+        discover(block.getStart());
+        return block;
+    }
+
+    /**
+     * Drops every block holding one of the written words, then rebuilds the graph
+     * from each of their starts, so a block is analysed again once however many of
+     * its words were written.
+     * @param theAddresses the addresses that were written
+     * @param theCount the number of addresses, from the first
+     * @return the dropped blocks
+     */
+    List<BasicBlock> invalidate(final int[] theAddresses, final int theCount) {
+        final List<BasicBlock> dropped = new ArrayList<>();
+        for (int i = 0; i < theCount; i++) {
+            final BasicBlock block = mOwner[theAddresses[i]];
+            if (block != null) {
+                remove(block);
+                dropped.add(block);
+            }
+        }
+        for (BasicBlock block : dropped) {
+            discover(block.getStart());
+        }
+        return dropped;
+    }
+
+    // finds the blocks reachable from theEntry that are not in the graph yet
+    private void discover(final int theEntry) {
+        int size = 0;
+        mWorklist[size++] = theEntry;
+        while (size > 0) {
+            final int address = mWorklist[--size];
+            if (address < 0 || address >= mStarting.length || mStarting[address] != null) {
+                continue;
+            }
+            if (mOwner[address] != null) {
+                // a new leader in the middle of a block
+                split(mOwner[address], address);
+                continue;
+            }
+            int limit = address;
+            while (limit < mOwner.length && limit - address < BasicBlock.MAX_LENGTH && mOwner[limit] == null) {
+                limit++;
+            }
+            final BasicBlock block = new BasicBlock(mComputer, address, limit);
+            add(block);
+            if (size + 2 > mWorklist.length) {
+                mWorklist = Arrays.copyOf(mWorklist, mWorklist.length * 2);
+            }
+            if (block.getFallThrough() >= 0) {
+                mWorklist[size++] = block.getFallThrough();
+            }
+            if (block.getTakenTarget() >= 0) {
+                mWorklist[size++] = block.getTakenTarget();
+            }
+        }
+    }
+
+    // replaces theBlock by the blocks before and from theAddress
+    private void split(final BasicBlock theBlock, final int theAddress) {
+        remove(theBlock);
+        add(new BasicBlock(mComputer, theBlock.getStart(), theAddress));
+        add(new BasicBlock(mComputer, theAddress, theBlock.getEnd()));
+    }
+
+    private void add(final BasicBlock theBlock) {
+        mStarting[theBlock.getStart()] = theBlock;
+        for (int i = theBlock.getStart(); i < theBlock.getEnd(); i++) {
+            mOwner[i] = theBlock;
+        }
+        mBlockCount++;
+    }
+
+    private void remove(final BasicBlock theBlock) {
+        mStarting[theBlock.getStart()] = null;
+        for (int i = theBlock.getStart(); i < theBlock.getEnd(); i++) {
+            mOwner[i] = null;
+        }
+        theBlock.invalidate();
+        mBlockCount--;
+    }
+}
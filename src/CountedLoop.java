@@ -0,0 +1,354 @@
+import java.util.Arrays;
+
+/**
+ * A CountedLoop is a basic block that branches back to its own start and only does
+ * register arithmetic on the way: ADD, AND and NOT, ending in a BR. The iterations
+ * of such a loop can be skipped in closed form. The number of times the branch will
+ * be taken is worked out from the registers, and the registers are moved on by that
+ * many iterations at once.
+ *
+ * Every register the loop writes must be written by one instruction only, which is
+ * one of:
+ *   an induction, ADD R, R, #imm or ADD R, R, S with S not written in the loop,
+ *     which moves R on by the same step every iteration;
+ *   an invariant, an ADD, AND or NOT none of whose sources is written in the loop,
+ *     which writes the same value every iteration;
+ *   an idempotent AND, AND R, R, #imm or AND R, R, S with S not written in the loop,
+ *     which writes the same value from the first iteration on.
+ *
+ * The branch tests the CC set by the last ADD, AND or NOT of the loop. For an
+ * induction that is a value moving by a fixed step through the 16 bit words, and
+ * the first value that leaves the loop is found with modular arithmetic rather than
+ * by stepping. The values whose character ADD takes for a zero, such as 48 ('0'),
+ * are checked one by one, so loops leave at exactly the iteration the interpreter
+ * would.
+ *
+ * Skipping leaves the registers and CC as the last iteration skipped would, and
+ * stops one iteration short of the last one taken, which then runs as usual, so
+ * the IR and coverage come out of a real iteration too.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+final class CountedLoop {
+
+    private final static int REGISTERS = 8;
+    private final static int WORD_MASK = 0xFFFF;
+    private final static int WORDS = 0x10000;
+    private final static int MAX_STEP = 0x4000; // no larger step jumps over half of the words
+    private final static int MAX_QUIRK_SCAN = 64; // words in a row that may read as zero digits
+
+    private final static int NONE = 0;
+    private final static int INDUCTION = 1;
+    private final static int INVARIANT = 2;
+    private final static int IDEMPOTENT = 3;
+
+    private final static int CC_N = 4;
+    private final static int CC_Z = 2;
+    private final static int CC_P = 1;
+
+    // the words, other than 0, that ADD reads as zero because their character is a zero digit
+    private final static int[] NUMERIC_ZEROS = numericZeros();
+
+    private final int mLength;
+    private final byte[] mOpcodes;
+    private final int mNzp; // the nzp bits of the closing BR
+    private final int[] mKind = new int[REGISTERS];
+    private final int[] mStepRegister = new int[REGISTERS]; // the register an induction adds, or -1
+    private final int[] mStep = new int[REGISTERS]; // the immediate an induction adds
+    private final int[] mWord = new int[REGISTERS]; // the instruction writing each register
+    private final int mLastWord; // the last instruction to set the CC, or -1 if none does
+    private final int mLastRegister; // the register it writes
+
+    private CountedLoop(final int theLength, final byte[] theOpcodes, final int theNzp,
+                        final int theLastWord, final int theLastRegister) {
+        mLength = theLength;
+        mOpcodes = theOpcodes;
+        mNzp = theNzp;
+        mLastWord = theLastWord;
+        mLastRegister = theLastRegister;
+    }
+
+    /**
+     * Looks at the block from theStart for theLength words.
+     * @param theComputer the computer whose memory holds the block
+     * @param theStart the address of the first instruction
+     * @param theLength the number of instructions
+     * @param theOpcodes the opcode of each instruction
+     * @return the loop, or null if the block is not a loop that can be skipped
+     */
+    static CountedLoop analyze(final Computer theComputer, final int theStart, final int theLength,
+                               final byte[] theOpcodes) {
+        final int branch = theComputer.wordAt(theStart + theLength - 1);
+        final int nzp = (branch >>> 9) & 7;
+        if (branch >>> 12 != 0 || nzp == 0 || theStart + theLength + signExtend(branch, 9) != theStart) {
+            return null;
+        }
+        final int[] writes = new int[REGISTERS];
+        int lastWord = -1;
+        for (int i = 0; i < theLength - 1; i++) {
+            final int word = theComputer.wordAt(theStart + i);
+            final int opCode = word >>> 12;
+            if (opCode == 1 || opCode == 5 || opCode == 9) {
+                writes[(word >>> 9) & 7]++;
+                lastWord = word;
+            } else if (opCode != 0 || ((word >>> 9) & 7) != 0) {
+                return null; // only NOPs may sit among the arithmetic
+            }
+        }
+        for (int r = 0; r < REGISTERS; r++) {
+            if (writes[r] > 1) {
+                return null;
+            }
+        }
+
+        final CountedLoop loop = new CountedLoop(theLength, theOpcodes, nzp, lastWord,
+                lastWord < 0 ? -1 : (lastWord >>> 9) & 7);
+        for (int i = 0; i < theLength - 1; i++) {
+            final int word = theComputer.wordAt(theStart + i);
+            final int opCode = word >>> 12;
+            if (opCode == 0) {
+                continue;
+            }
+            final int dest = (word >>> 9) & 7;
+            loop.mWord[dest] = word;
+            final int first = (word >>> 6) & 7;
+            final boolean immediate = opCode != 9 && (word & 0x20) != 0;
+            final int second = opCode == 9 ? first : immediate ? -1 : word & 7;
+            final boolean firstWritten = writes[first] > 0;
+            final boolean secondWritten = second >= 0 && writes[second] > 0;
+            loop.mStepRegister[dest] = -1;
+            if (!firstWritten && !secondWritten) {
+                loop.mKind[dest] = INVARIANT;
+            } else if (opCode == 9) {
+                return null; // NOT of a register the loop changes flips every iteration
+            } else if (first == dest && (second < 0 || second == dest || !secondWritten)
+                    || second == dest && !firstWritten) {
+                if (opCode == 5) {
+                    loop.mKind[dest] = IDEMPOTENT;
+                } else if (second == dest && first == dest) {
+                    return null; // ADD R, R, R doubles
+                } else {
+                    loop.mKind[dest] = INDUCTION;
+                    loop.mStepRegister[dest] = immediate ? -1 : first == dest ? second : first;
+                    loop.mStep[dest] = immediate ? signExtend(word, 5) : 0;
+                }
+            } else {
+                return null;
+            }
+        }
+        return loop;
+    }
+
+    /**
+     * Skips as many iterations as can be worked out, leaving the last taken
+     * iteration to run as usual. Iterations are only skipped up to an interrupt
+     * that is due, and not at all while a cache is modeled or if the loop would
+     * never end.
+     * @param theComputer the computer, with its PC at the start of the loop
+     * @return the number of iterations skipped
+     */
+    long skip(final Computer theComputer) {
+        if (theComputer.cache() != null) {
+            return 0;
+        }
+        long limit = Long.MAX_VALUE;
+        final long nextEvent = theComputer.nextEvent();
+        if (nextEvent != Long.MAX_VALUE) {
+            limit = Math.max(0, (nextEvent - theComputer.getInstructionCount() - 1) / mLength);
+        }
+
+        long iterations; // the iterations whose branch is taken, or Long.MAX_VALUE
+        final int step = mLastWord < 0 ? 0 : stepOf(theComputer, mLastRegister);
+        if (mLastWord < 0 || mKind[mLastRegister] != INDUCTION || step == 0) {
+            // the CC the branch sees is the same every iteration
+            final int cc = mLastWord < 0 ? theComputer.conditionCode() : conditionCode(
+                    evaluate(theComputer, mLastWord), mLastWord >>> 12 == 1);
+            if (cc == 0 || (cc & mNzp) == 0) {
+                return 0;
+            }
+            iterations = Long.MAX_VALUE;
+        } else {
+            final int signedStep = (short) step;
+            if (signedStep > MAX_STEP || signedStep < -MAX_STEP) {
+                return 0;
+            }
+            final long exit = firstExit(theComputer.registerValue(mLastRegister) & WORD_MASK, signedStep);
+            if (exit < 0) {
+                return 0;
+            }
+            iterations = exit == Long.MAX_VALUE ? Long.MAX_VALUE : exit - 1;
+        }
+        if (iterations == Long.MAX_VALUE && limit == Long.MAX_VALUE) {
+            return 0; // a loop that never ends, with nothing to end it early for
+        }
+        final long skipped = Math.min(iterations - 1, limit);
+        if (skipped <= 0) {
+            return 0;
+        }
+
+        for (int r = 0; r < REGISTERS; r++) {
+            if (mKind[r] == INVARIANT || mKind[r] == IDEMPOTENT) {
+                theComputer.writeRegister(r, evaluate(theComputer, mWord[r]));
+            } else if (mKind[r] == INDUCTION) {
+                final long moved = (theComputer.registerValue(r) + skipped % WORDS * stepOf(theComputer, r)) % WORDS;
+                theComputer.writeRegister(r, (int) moved);
+            }
+        }
+        if (mLastWord >= 0) {
+            theComputer.writeConditionCode(mKind[mLastRegister] == INDUCTION
+                    ? conditionCode(theComputer.registerValue(mLastRegister), true)
+                    : conditionCode(evaluate(theComputer, mLastWord), mLastWord >>> 12 == 1));
+        }
+        theComputer.retire(mOpcodes, mLength, skipped);
+        return skipped;
+    }
+
+    // the amount the induction register theRegister moves by each iteration, as a 16 bit word
+    private int stepOf(final Computer theComputer, final int theRegister) {
+        if (mKind[theRegister] != INDUCTION) {
+            return 0;
+        }
+        final int step = mStepRegister[theRegister] < 0
+                ? mStep[theRegister] : theComputer.registerValue(mStepRegister[theRegister]);
+        return step & WORD_MASK;
+    }
+
+    /**
+     * Finds the first iteration whose branch is not taken, for a loop whose CC comes
+     * from an ADD moving theStart by theStep each iteration.
+     * @return the iteration, counting from 1, Long.MAX_VALUE if the loop never
+     *         leaves, or -1 if it could not be worked out
+     */
+    private long firstExit(final int theStart, final int theStep) {
+        long exit = Long.MAX_VALUE;
+        if ((mNzp & CC_Z) == 0) {
+            exit = Math.min(exit, firstHit(theStart, theStep, 0));
+            if (theStep == 1 || theStep == -1) {
+                exit = Math.min(exit, nextNumericZero(theStart, theStep));
+            } else {
+                for (int zero : NUMERIC_ZEROS) {
+                    exit = Math.min(exit, firstHit(theStart, theStep, zero));
+                }
+            }
+        }
+        if ((mNzp & CC_N) == 0) {
+            final long entry = firstEntry(theStart, theStep, 0x8000, 0xFFFF);
+            if (entry < 0) {
+                return -1;
+            }
+            exit = Math.min(exit, entry);
+        }
+        if ((mNzp & CC_P) == 0) {
+            final long entry = firstEntry(theStart, theStep, 0x0001, 0x7FFF);
+            if (entry < 0) {
+                return -1;
+            }
+            exit = Math.min(exit, entry);
+        }
+        return exit;
+    }
+
+    // the first iteration i from 1 on at which theStart + i * theStep is theWord,
+    // or Long.MAX_VALUE if it never is
+    private static long firstHit(final int theStart, final int theStep, final int theWord) {
+        final int gcd = theStep & -theStep; // a power of 2, as the words are
+        final int distance = (theWord - theStart) & WORD_MASK;
+        if (distance % gcd != 0) {
+            return Long.MAX_VALUE;
+        }
+        final int period = WORDS / gcd;
+        final int oddStep = (theStep / gcd) & (period - 1);
+        int inverse = oddStep; // Newton's iteration for the inverse modulo a power of 2
+        for (int k = 0; k < 4; k++) {
+            inverse *= 2 - oddStep * inverse;
+        }
+        final long iteration = (long) (distance / gcd) * (inverse & (period - 1)) & (period - 1);
+        return iteration == 0 ? period : iteration;
+    }
+
+    // the first iteration at which theStart, counted up or down by 1, reads as a zero digit
+    private static int nextNumericZero(final int theStart, final int theStep) {
+        final int found = Arrays.binarySearch(NUMERIC_ZEROS, theStart);
+        int index = found >= 0 ? found + theStep : theStep > 0 ? -found - 1 : -found - 2;
+        if (index >= 0 && index < NUMERIC_ZEROS.length) {
+            return Math.abs(NUMERIC_ZEROS[index] - theStart);
+        }
+        index = theStep > 0 ? 0 : NUMERIC_ZEROS.length - 1; // around past 0
+        return WORDS - Math.abs(NUMERIC_ZEROS[index] - theStart);
+    }
+
+    // the first iteration from 1 on at which theStart + i * theStep lands in
+    // theLow..theHigh without reading as a zero digit, or -1 if it leaves the range
+    // first; the range is at least as wide as the step, so it cannot be jumped over
+    private static long firstEntry(final int theStart, final int theStep, final int theLow, final int theHigh) {
+        final int first = (theStart + theStep) & WORD_MASK;
+        long iteration;
+        if (first >= theLow && first <= theHigh) {
+            iteration = 1;
+        } else if (theStep > 0) {
+            iteration = 1 + ((theLow - first) & WORD_MASK) / theStep
+                    + (((theLow - first) & WORD_MASK) % theStep == 0 ? 0 : 1);
+        } else {
+            iteration = 1 + ((first - theHigh) & WORD_MASK) / -theStep
+                    + (((first - theHigh) & WORD_MASK) % -theStep == 0 ? 0 : 1);
+        }
+        for (int scanned = 0; scanned < MAX_QUIRK_SCAN; scanned++) {
+            final int word = (int) ((theStart + iteration % WORDS * theStep) & WORD_MASK);
+            if (word < theLow || word > theHigh) {
+                return -1;
+            }
+            if (!isNumericZero(word)) {
+                return iteration;
+            }
+            iteration++;
+        }
+        return -1;
+    }
+
+    // the value theWord's ADD, AND or NOT writes, from the registers as they are
+    private static int evaluate(final Computer theComputer, final int theWord) {
+        final int first = theComputer.registerValue((theWord >>> 6) & 7);
+        if (theWord >>> 12 == 9) {
+            return (short) ~first;
+        }
+        final int second = (theWord & 0x20) != 0
+                ? signExtend(theWord, 5) : theComputer.registerValue(theWord & 7);
+        return (short) (theWord >>> 12 == 1 ? first + second : first & second);
+    }
+
+    // the CC theValue sets; an ADD also sets Z for the words read as zero digits
+    private static int conditionCode(final int theValue, final boolean theAdd) {
+        if (theValue == 0 || theAdd && isNumericZero(theValue & WORD_MASK)) {
+            return CC_Z;
+        }
+        return theValue < 0 ? CC_N : CC_P;
+    }
+
+    private static boolean isNumericZero(final int theWord) {
+        return Character.getNumericValue((char) theWord) == 0;
+    }
+
+    private static int[] numericZeros() {
+        int count = 0;
+        for (int word = 1; word < WORDS; word++) {
+            if (isNumericZero(word)) {
+                count++;
+            }
+        }
+        final int[] zeros = new int[count];
+        count = 0;
+        for (int word = 1; word < WORDS; word++) {
+            if (isNumericZero(word)) {
+                zeros[count++] = word;
+            }
+        }
+        return zeros;
+    }
+
+    // sign-extends the low theBits bits of theWord
+    private static int signExtend(final int theWord, final int theBits) {
+        final int shift = 32 - theBits;
+        return (theWord << shift) >> shift;
+    }
+}
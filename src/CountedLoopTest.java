@@ -0,0 +1,103 @@
+/*
+ * Unit tests for the CountedLoop class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class CountedLoopTest {
+
+    // Counts R0 down from 100 while it stays positive; ADD sets Z at 48 ('0').
+    private static final String[] DOWN_TO_DIGIT_ZERO = {
+            "0010000000000011",  // LD into R0 x64
+            "0001000000111111",  // LOOP: ADD R0 <- R0 - 1
+            "0000001111111110",  // BRp LOOP
+            "1111000000100101",  // TRAP - vector x25 - HALT
+            "0000000001100100",  // x64
+    };
+
+    /**
+     * Test method for {@link CountedLoop#skip(Computer)}.
+     */
+    @Test
+    void testNestedLoopsMatchTheInterpreter() {
+        Computer interpreted = new Computer();
+        interpreted.loadMachineCode(TestPrograms.nestedLoops());
+        interpreted.execute();
+
+        Computer tiered = new Computer();
+        tiered.loadMachineCode(TestPrograms.nestedLoops());
+        TieredExecutor executor = new TieredExecutor(tiered, 1);
+        executor.execute();
+
+        assertEquals(5_316_922, tiered.getInstructionCount());
+        assertEquals(interpreted.getInstructionCount(), tiered.getInstructionCount());
+        assertSameState(interpreted, tiered);
+        // all but the last 2 iterations of each inner loop are skipped, once it is decoded
+        assertEquals((37 + (40 * 40 * 40 - 1) * 38) * 2, executor.getSkippedInstructions());
+    }
+
+    /**
+     * Test method for {@link CountedLoop#skip(Computer)}.
+     */
+    @Test
+    void testLoopLeavesAtDigitZero() {
+        Computer computer = new Computer();
+        computer.loadMachineCode(DOWN_TO_DIGIT_ZERO);
+        TieredExecutor executor = new TieredExecutor(computer, 1);
+        executor.execute();
+
+        assertEquals(48, computer.getRegisters()[0].get2sCompValue());
+        assertEquals(1 + 2 * 52 + 1, computer.getInstructionCount());
+        assertEquals(2, computer.getCC().getUnsignedValue()); // Z
+        assertTrue(executor.getSkippedInstructions() > 0);
+    }
+
+    /**
+     * Test method for {@link CountedLoop#skip(Computer)}.
+     */
+    @Test
+    void testBusyWaitTakesInterruptOnTime() {
+        int[] program = {
+                0x5020,  // AND R0 <- 0
+                0x1261,  // LOOP: ADD R1 <- R1 + 1
+                0x0FFE}; // BRnzp LOOP
+        Computer[] computers = new Computer[2];
+        for (int engine = 0; engine < 2; engine++) {
+            Computer computer = new Computer(new Memory(65536));
+            for (int i = 0; i < program.length; i++) {
+                computer.memory().set(i, program[i]);
+            }
+            computer.memory().set(0x0180, 0x0200);
+            computer.memory().set(0x0200, 0xF025); // the handler halts
+            EventScheduler events = new EventScheduler();
+            computer.setEventScheduler(events);
+            events.schedule(100_001, 0x80, 4);
+            if (engine == 0) {
+                computer.execute();
+            } else {
+                TieredExecutor executor = new TieredExecutor(computer, 1);
+                executor.execute();
+                assertTrue(executor.getSkippedInstructions() > 90_000);
+            }
+            computers[engine] = computer;
+        }
+        assertEquals(100_002, computers[1].getInstructionCount());
+        assertSameState(computers[0], computers[1]);
+        assertEquals(computers[0].wordAt(0x2FFE), computers[1].wordAt(0x2FFE)); // the PC pushed
+        assertEquals(computers[0].wordAt(0x2FFF), computers[1].wordAt(0x2FFF)); // the PSR pushed
+    }
+
+    private static void assertSameState(final Computer theExpected, final Computer theActual) {
+        for (int i = 0; i < 8; i++) {
+            assertEquals(theExpected.registerValue(i), theActual.registerValue(i));
+        }
+        assertEquals(theExpected.programCounter(), theActual.programCounter());
+        assertEquals(theExpected.processorStatus(), theActual.processorStatus());
+    }
+}
@@ -0,0 +1,164 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * The Coverage class records which instructions of a program ran: a bit per address
+ * for "executed", and for every BR a bit for "taken" and a bit for "not taken".
+ *
+ * A Computer given a Coverage records into it as it executes, with plain writes, so
+ * a Coverage being recorded into belongs to one thread. Coverages of many runs are
+ * combined with merge(), which ORs them in word by word with atomic operations and
+ * never locks, so any number of threads can merge into one shared Coverage at once.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class Coverage {
+
+    private final static VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int mSize;
+    private final long[] mExecuted;
+    private final long[] mTaken;
+    private final long[] mNotTaken;
+
+    /**
+     * Creates an empty coverage of theSize addresses.
+     * @param theSize the number of addresses, usually the memory size
+     */
+    public Coverage(final int theSize) {
+        if (theSize <= 0 || theSize > 65536) {
+            throw new IllegalArgumentException("Invalid size");
+        }
+        mSize = theSize;
+        final int words = (theSize + 63) >>> 6;
+        mExecuted = new long[words];
+        mTaken = new long[words];
+        mNotTaken = new long[words];
+    }
+
+    /**
+     * @return the number of addresses
+     */
+    public int size() {
+        return mSize;
+    }
+
+    // notes that the instruction at theAddress ran
+    void executed(final int theAddress) {
+        mExecuted[theAddress >>> 6] |= 1L << theAddress;
+    }
+
+    // notes that the instructions from theFrom up to, but not including, theTo ran
+    void executed(final int theFrom, final int theTo) {
+        for (int address = theFrom; address < theTo; address++) {
+            mExecuted[address >>> 6] |= 1L << address;
+        }
+    }
+
+    // notes whether the BR at theAddress branched
+    void branch(final int theAddress, final boolean theTaken) {
+        final long[] bits = theTaken ? mTaken : mNotTaken;
+        bits[theAddress >>> 6] |= 1L << theAddress;
+    }
+
+    /**
+     * ORs theOther into this coverage, atomically word by word. Safe to call from
+     * many threads at once; theOther must not be recorded into meanwhile.
+     * @param theOther the coverage of another run of the same size
+     */
+    public void merge(final Coverage theOther) {
+        if (theOther.mSize != mSize) {
+            throw new IllegalArgumentException("Coverage sizes differ");
+        }
+        or(mExecuted, theOther.mExecuted);
+        or(mTaken, theOther.mTaken);
+        or(mNotTaken, theOther.mNotTaken);
+    }
+
+    private static void or(final long[] theInto, final long[] theFrom) {
+        for (int i = 0; i < theFrom.length; i++) {
+            if (theFrom[i] != 0) {
+                BITS.getAndBitwiseOr(theInto, i, theFrom[i]);
+            }
+        }
+    }
+
+    /**
+     * @param theAddress an address
+     * @return true if the instruction at theAddress ran
+     */
+    public boolean isExecuted(final int theAddress) {
+        return isSet(mExecuted, theAddress);
+    }
+
+    /**
+     * @param theAddress the address of a BR
+     * @return true if the BR branched at least once
+     */
+    public boolean isTaken(final int theAddress) {
+        return isSet(mTaken, theAddress);
+    }
+
+    /**
+     * @param theAddress the address of a BR
+     * @return true if the BR fell through at least once
+     */
+    public boolean isNotTaken(final int theAddress) {
+        return isSet(mNotTaken, theAddress);
+    }
+
+    private boolean isSet(final long[] theBits, final int theAddress) {
+        if (theAddress < 0 || theAddress >= mSize) {
+            throw new IllegalArgumentException("Invalid address");
+        }
+        return ((long) BITS.getAcquire(theBits, theAddress >>> 6) & (1L << theAddress)) != 0;
+    }
+
+    /**
+     * @return the number of addresses whose instruction ran
+     */
+    public int getExecutedCount() {
+        int count = 0;
+        for (int i = 0; i < mExecuted.length; i++) {
+            count += Long.bitCount((long) BITS.getAcquire(mExecuted, i));
+        }
+        return count;
+    }
+
+    /**
+     * Exports the coverage as the size followed by the executed, taken and not taken
+     * bitmaps, 3 bits per address in all.
+     * @return the exported coverage
+     */
+    public byte[] toByteArray() {
+        final ByteBuffer buffer = ByteBuffer.allocate(4 + 3 * 8 * mExecuted.length);
+        buffer.putInt(mSize);
+        for (long[] bits : new long[][] { mExecuted, mTaken, mNotTaken }) {
+            for (int i = 0; i < bits.length; i++) {
+                buffer.putLong((long) BITS.getAcquire(bits, i));
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Reads a coverage exported by toByteArray().
+     * @param theBytes the exported coverage
+     * @return the coverage
+     */
+    public static Coverage fromByteArray(final byte[] theBytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(theBytes);
+        final Coverage coverage = new Coverage(buffer.getInt());
+        if (buffer.remaining() != 3 * 8 * coverage.mExecuted.length) {
+            throw new IllegalArgumentException("Invalid coverage");
+        }
+        for (long[] bits : new long[][] { coverage.mExecuted, coverage.mTaken, coverage.mNotTaken }) {
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = buffer.getLong();
+            }
+        }
+        return coverage;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Unit tests for the Coverage class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class CoverageTest {
+
+    /**
+     * Test method for {@link Coverage#toByteArray()}.
+     */
+    @Test
+    void testRecordAndExport() {
+        Coverage coverage = new Coverage(100);
+        coverage.executed(3);
+        coverage.executed(60, 70); // across the first word of bits
+        coverage.branch(63, true);
+        coverage.branch(64, false);
+        coverage.branch(99, true);
+        coverage.branch(99, false);
+
+        assertEquals(100, coverage.size());
+        assertEquals(11, coverage.getExecutedCount());
+        assertTrue(coverage.isExecuted(3));
+        assertFalse(coverage.isExecuted(4));
+        assertTrue(coverage.isExecuted(69));
+        assertFalse(coverage.isExecuted(70));
+        assertTrue(coverage.isTaken(63));
+        assertFalse(coverage.isNotTaken(63));
+        assertFalse(coverage.isTaken(64));
+        assertTrue(coverage.isNotTaken(64));
+
+        byte[] bytes = coverage.toByteArray();
+        assertEquals(4 + 3 * 2 * 8, bytes.length);
+        Coverage copy = Coverage.fromByteArray(bytes);
+        assertEquals(100, copy.size());
+        assertEquals(11, copy.getExecutedCount());
+        assertTrue(copy.isTaken(99));
+        assertTrue(copy.isNotTaken(99));
+        assertArrayEquals(bytes, copy.toByteArray());
+
+        assertThrows(IllegalArgumentException.class, () -> coverage.isExecuted(100));
+        assertThrows(IllegalArgumentException.class, () -> coverage.isTaken(-1));
+        assertThrows(IllegalArgumentException.class, () -> new Coverage(0));
+        assertThrows(IllegalArgumentException.class, () -> new Coverage(65537));
+        assertThrows(IllegalArgumentException.class,
+                () -> Coverage.fromByteArray(Arrays.copyOf(bytes, bytes.length - 8)));
+    }
+
+    /**
+     * Test method for {@link Coverage#merge(Coverage)}.
+     */
+    @Test
+    void testMergeOrsEveryBitmap() {
+        Coverage first = new Coverage(128);
+        first.executed(0);
+        first.branch(64, true);
+        Coverage second = new Coverage(128);
+        second.executed(127);
+        second.branch(64, false);
+        second.branch(65, true);
+
+        Coverage merged = new Coverage(128);
+        merged.merge(first);
+        merged.merge(second);
+        merged.merge(first); // merging again changes nothing
+        assertEquals(2, merged.getExecutedCount());
+        assertTrue(merged.isExecuted(0));
+        assertTrue(merged.isExecuted(127));
+        assertTrue(merged.isTaken(64));
+        assertTrue(merged.isNotTaken(64));
+        assertTrue(merged.isTaken(65));
+        assertFalse(merged.isNotTaken(65));
+
+        // the merged coverages are left as they were
+        assertEquals(1, first.getExecutedCount());
+        assertFalse(first.isNotTaken(64));
+
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new Coverage(129)));
+    }
+
+    /**
+     * Test method for {@link Coverage#merge(Coverage)}.
+     */
+    @Test
+    void testConcurrentMerges() throws InterruptedException {
+        int threads = 4;
+        for (int round = 0; round < 20; round++) {
+            Coverage shared = new Coverage(65536);
+            CyclicBarrier start = new CyclicBarrier(threads);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                // every thread owns every fourth address, so all of them write every word
+                Coverage own = new Coverage(65536);
+                for (int address = t; address < 65536; address += threads) {
+                    own.executed(address);
+                    own.branch(address, address % 8 < 4);
+                }
+                workers[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    shared.merge(own);
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            assertEquals(65536, shared.getExecutedCount());
+            for (int address = 0; address < 65536; address++) {
+                assertEquals(address % 8 < 4, shared.isTaken(address));
+                assertEquals(address % 8 >= 4, shared.isNotTaken(address));
+            }
+        }
+    }
+}
@@ -0,0 +1,478 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The DifferentialFuzzer checks that the TieredExecutor computes exactly what the
+ * reference interpreter in Computer computes. It generates random programs of valid
+ * BR, ADD, LD, AND, NOT and TRAP instructions and runs each on both engines. After
+ * every block the tiered engine runs, the interpreter is stepped to the same
+ * instruction count and the full state is compared: registers, PC, IR, CC, memory,
+ * output, coverage, cache counts and whether the run halted or failed. Half the
+ * programs run without a cache model, since the tiered engine skips the iterations
+ * of counted loops in closed form only when no cache is modeled. A mismatching
+ * program is shrunk to a minimal reproducer. Programs are spread over several host threads.
+ *
+ * Usage: java DifferentialFuzzer [programs] [threads] [seed]
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class DifferentialFuzzer {
+
+    private final static int MEMORY = 50;
+    private final static int DEFAULT_LENGTH = 24;
+    private final static long DEFAULT_BUDGET = 5_000;
+    private final static String NOP = "0000000000000000";
+    private final static String HALT = "1111000000100101";
+    private final static String INPUT = "LC-3 fuzz input"; // what GETC and IN read
+    private final static int CACHE_SIZE = 16; // a cache smaller than MEMORY, so lines are evicted
+    private final static int CACHE_WAYS = 2;
+    private final static int CACHE_LINE = 4;
+
+    private final long mSeed;
+    private final int mLength;
+    private final long mBudget;
+
+    /**
+     * Creates a fuzzer generating programs of 24 instructions, run for at most
+     * 5000 instructions each.
+     * @param theSeed the seed the programs are generated from
+     */
+    public DifferentialFuzzer(final long theSeed) {
+        this(theSeed, DEFAULT_LENGTH, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates a fuzzer.
+     * @param theSeed the seed the programs are generated from
+     * @param theLength the number of instructions per program, followed by as many data words
+     * @param theBudget the instructions a program may retire before the comparison stops
+     */
+    public DifferentialFuzzer(final long theSeed, final int theLength, final long theBudget) {
+        if (theLength <= 0 || theLength * 2 >= MEMORY || theBudget <= 0) {
+            throw new IllegalArgumentException("Invalid length or budget");
+        }
+        mSeed = theSeed;
+        mLength = theLength;
+        mBudget = theBudget;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        final int programs = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        final int threads = args.length > 1
+                ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        final Report report = new DifferentialFuzzer(seed).run(programs, threads);
+        System.out.printf("seed %d: %d programs, %d instructions (%d skipped) in %.1f ms, %.0f programs/s,"
+                        + " %.0f instructions/s%n",
+                seed, report.getPrograms(), report.getInstructions(), report.getSkippedInstructions(),
+                report.getNanos() / 1e6, report.getProgramsPerSecond(), report.getInstructionsPerSecond());
+        for (Failure failure : report.getFailures()) {
+            System.out.println(failure);
+        }
+    }
+
+    /**
+     * Generates and checks thePrograms programs on theThreads host threads.
+     * @param thePrograms the number of programs
+     * @param theThreads the number of host threads
+     * @return what was run and every mismatch found, shrunk
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public Report run(final int thePrograms, final int theThreads) throws InterruptedException {
+        final AtomicLong instructions = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+        final ExecutorService pool = Executors.newFixedThreadPool(theThreads);
+        final long start = System.nanoTime();
+        for (int t = 0; t < theThreads; t++) {
+            final int first = t;
+            pool.execute(() -> {
+                long retired = 0;
+                long skippedHere = 0;
+                for (int i = first; i < thePrograms; i += theThreads) {
+                    final String[] program = generate(new Random(mSeed + i));
+                    final boolean cacheModel = i % 2 == 0;
+                    final Outcome outcome = compare(program, cacheModel);
+                    retired += outcome.mInstructions;
+                    skippedHere += outcome.mSkipped;
+                    if (outcome.mMismatch != null) {
+                        final String[] reproducer = shrink(program, cacheModel);
+                        failures.add(new Failure(mSeed + i, reproducer, cacheModel,
+                                compare(reproducer, cacheModel).mMismatch));
+                    }
+                }
+                instructions.addAndGet(retired);
+                skipped.addAndGet(skippedHere);
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        return new Report(thePrograms, instructions.get(), skipped.get(), System.nanoTime() - start, failures);
+    }
+
+    /**
+     * Generates a random program: mLength valid instructions followed by data.
+     * Every LD and BR stays within the program and its data. One program in four
+     * has a counted loop planted in it.
+     * @param theRandom the source of randomness
+     * @return the program, as Strings
+     */
+    String[] generate(final Random theRandom) {
+        final int size = mLength * 2;
+        final String[] program = new String[size];
+        for (int pc = 0; pc < mLength; pc++) {
+            final int dest = theRandom.nextInt(8);
+            final int source = theRandom.nextInt(8);
+            final int second = theRandom.nextBoolean()
+                    ? 0x20 | theRandom.nextInt(32) : theRandom.nextInt(8);
+            final int pick = theRandom.nextInt(100);
+            final int word;
+            if (pick < 25) {
+                word = 0x1000 | dest << 9 | source << 6 | second; // ADD
+            } else if (pick < 40) {
+                word = 0x5000 | dest << 9 | source << 6 | second; // AND
+            } else if (pick < 50) {
+                word = 0x9000 | dest << 9 | source << 6 | 0x3F; // NOT
+            } else if (pick < 65) {
+                word = 0x2000 | dest << 9 | offsetTo(theRandom.nextInt(size), pc); // LD
+            } else if (pick < 88) {
+                word = theRandom.nextInt(8) << 9 | offsetTo(theRandom.nextInt(mLength), pc); // BR
+            } else if (pick < 91) {
+                word = 0xF021; // TRAP OUT
+            } else if (pick < 95) {
+                word = 0xF020 | theRandom.nextInt(5); // TRAP GETC, OUT, PUTS, IN or PUTSP
+            } else {
+                word = 0xF025; // TRAP HALT
+            }
+            program[pc] = toBits(word);
+        }
+        for (int i = mLength; i < size; i++) {
+            program[i] = toBits(theRandom.nextInt(0x10000));
+        }
+        if (mLength > 2 && theRandom.nextInt(4) == 0) {
+            // a counted loop, which random words seldom make: step a register by a
+            // little, then branch back up to 3 words on some condition
+            final int pc = 1 + theRandom.nextInt(mLength - 2);
+            final int register = theRandom.nextInt(8);
+            final int step = theRandom.nextBoolean() ? 1 + theRandom.nextInt(3) : -1 - theRandom.nextInt(3);
+            program[pc] = toBits(0x1000 | register << 9 | register << 6 | 0x20 | (step & 0x1F));
+            final int target = pc - theRandom.nextInt(Math.min(pc, 3) + 1);
+            program[pc + 1] = toBits((1 + theRandom.nextInt(7)) << 9 | offsetTo(target, pc + 1));
+        }
+        return program;
+    }
+
+    /**
+     * Runs theProgram on both engines, comparing their state after every block.
+     * @param theProgram the program, as Strings
+     * @param theCacheModel true to model a cache on both engines and compare its
+     *        counts; false to let the tiered engine skip loop iterations
+     * @return the instructions retired and the first mismatch, if any
+     */
+    Outcome compare(final String[] theProgram, final boolean theCacheModel) {
+        final Computer reference = new Computer();
+        final Computer fast = new Computer();
+        final StringBuilder referenceOutput = new StringBuilder();
+        final StringBuilder fastOutput = new StringBuilder();
+        reference.loadMachineCode(theProgram);
+        fast.loadMachineCode(theProgram);
+        reference.setOutput(referenceOutput);
+        fast.setOutput(fastOutput);
+        reference.setInput(INPUT);
+        fast.setInput(INPUT);
+        reference.setCoverage(new Coverage(reference.memorySize()));
+        fast.setCoverage(new Coverage(fast.memorySize()));
+        if (theCacheModel) {
+            reference.setCache(new CacheModel(CACHE_SIZE, CACHE_WAYS, CACHE_LINE, CacheModel.Policy.LRU));
+            fast.setCache(new CacheModel(CACHE_SIZE, CACHE_WAYS, CACHE_LINE, CacheModel.Policy.LRU));
+        }
+        final TieredExecutor executor = executor(fast);
+
+        boolean fastHalted = false;
+        boolean fastFailed = false;
+        boolean referenceHalted = false;
+        boolean referenceFailed = false;
+        while (!fastHalted && !fastFailed && fast.getInstructionCount() < mBudget) {
+            try {
+                fastHalted = executor.step();
+            } catch (RuntimeException e) {
+                fastFailed = true;
+            }
+            try {
+                while (!referenceHalted && reference.getInstructionCount() < fast.getInstructionCount()) {
+                    referenceHalted = reference.executeNext();
+                }
+                if (fastFailed) {
+                    referenceHalted = reference.executeNext();
+                }
+            } catch (RuntimeException e) {
+                referenceFailed = true;
+            }
+            String mismatch = null;
+            if (fastHalted != referenceHalted || fastFailed != referenceFailed) {
+                mismatch = "halted " + referenceHalted + "/" + fastHalted
+                        + ", failed " + referenceFailed + "/" + fastFailed;
+            }
+            if (mismatch == null) {
+                mismatch = compareState(reference, fast, referenceOutput, fastOutput);
+            }
+            if (mismatch != null) {
+                return new Outcome(fast.getInstructionCount(), executor.getSkippedInstructions(),
+                        "after " + fast.getInstructionCount() + " instructions: " + mismatch);
+            }
+        }
+        return new Outcome(fast.getInstructionCount(), executor.getSkippedInstructions(), null);
+    }
+
+    /**
+     * @param theComputer the machine the tiered engine runs
+     * @return the tiered engine checked against the interpreter, promoting every
+     *         block at once; a test may return one with a bug planted in it
+     */
+    TieredExecutor executor(final Computer theComputer) {
+        return new TieredExecutor(theComputer, 1);
+    }
+
+    // describes the first difference between the two machines, or returns null
+    private static String compareState(final Computer theReference, final Computer theFast,
+                                       final StringBuilder theReferenceOutput, final StringBuilder theFastOutput) {
+        if (theReference.getInstructionCount() != theFast.getInstructionCount()) {
+            return "instruction count " + theReference.getInstructionCount() + "/" + theFast.getInstructionCount();
+        }
+        final BitString[] referenceRegisters = theReference.getRegisters();
+        final BitString[] fastRegisters = theFast.getRegisters();
+        for (int i = 0; i < referenceRegisters.length; i++) {
+            if (referenceRegisters[i].getUnsignedValue() != fastRegisters[i].getUnsignedValue()) {
+                return "R" + i + " " + referenceRegisters[i].getUnsignedValue()
+                        + "/" + fastRegisters[i].getUnsignedValue();
+            }
+        }
+        if (theReference.programCounter() != theFast.programCounter()) {
+            return "PC " + theReference.programCounter() + "/" + theFast.programCounter();
+        }
+        if (theReference.getIR().getUnsignedValue() != theFast.getIR().getUnsignedValue()) {
+            return "IR " + theReference.getIR().getUnsignedValue() + "/" + theFast.getIR().getUnsignedValue();
+        }
+        if (!String.valueOf(theReference.getCC().getBits()).equals(String.valueOf(theFast.getCC().getBits()))) {
+            return "CC " + String.valueOf(theReference.getCC().getBits())
+                    + "/" + String.valueOf(theFast.getCC().getBits());
+        }
+        for (int i = 0; i < theReference.memorySize(); i++) {
+            if (theReference.wordAt(i) != theFast.wordAt(i)) {
+                return "memory at " + i;
+            }
+        }
+        if (!theReferenceOutput.toString().equals(theFastOutput.toString())) {
+            return "output \"" + theReferenceOutput + "\"/\"" + theFastOutput + "\"";
+        }
+        if (!Arrays.equals(theReference.coverage().toByteArray(), theFast.coverage().toByteArray())) {
+            return "coverage";
+        }
+        if (theReference.cache() != null && !theReference.cache().toString().equals(theFast.cache().toString())) {
+            return "cache " + theReference.cache() + "/" + theFast.cache();
+        }
+        return null;
+    }
+
+    /**
+     * Shrinks a mismatching program: words are replaced by NOPs, then by HALTs, for
+     * as long as the program still mismatches, so addresses and offsets stay put.
+     * @param theProgram a program the engines disagree on
+     * @param theCacheModel whether the program disagrees with a cache modeled
+     * @return the smallest still-disagreeing program found
+     */
+    String[] shrink(final String[] theProgram, final boolean theCacheModel) {
+        final String[] program = theProgram.clone();
+        boolean shrunk = true;
+        while (shrunk) {
+            shrunk = false;
+            for (String replacement : new String[] { NOP, HALT }) {
+                for (int i = 0; i < program.length; i++) {
+                    if (program[i].equals(replacement) || program[i].equals(NOP)) {
+                        continue;
+                    }
+                    final String original = program[i];
+                    program[i] = replacement;
+                    if (compare(program, theCacheModel).mMismatch != null) {
+                        shrunk = true;
+                    } else {
+                        program[i] = original;
+                    }
+                }
+            }
+        }
+        return program;
+    }
+
+    // the 9 bit offset from the instruction at thePC to theTarget
+    private static int offsetTo(final int theTarget, final int thePC) {
+        return (theTarget - thePC - 1) & 0x1FF;
+    }
+
+    // the 16 character binary form of theWord
+    private static String toBits(final int theWord) {
+        final char[] bits = new char[16];
+        for (int i = 0; i < 16; i++) {
+            bits[i] = (theWord & (0x8000 >>> i)) != 0 ? '1' : '0';
+        }
+        return new String(bits);
+    }
+
+    // what comparing one program found
+    static final class Outcome {
+        private final long mInstructions;
+        private final long mSkipped;
+        private final String mMismatch;
+
+        private Outcome(final long theInstructions, final long theSkipped, final String theMismatch) {
+            mInstructions = theInstructions;
+            mSkipped = theSkipped;
+            mMismatch = theMismatch;
+        }
+
+        /**
+         * @return the first mismatch, or null if the engines agreed throughout
+         */
+        String getMismatch() {
+            return mMismatch;
+        }
+    }
+
+    /**
+     * A program the engines disagree on, shrunk to a minimal reproducer.
+     */
+    public static final class Failure {
+        private final long mSeed;
+        private final String[] mProgram;
+        private final boolean mCacheModel;
+        private final String mMismatch;
+
+        private Failure(final long theSeed, final String[] theProgram, final boolean theCacheModel,
+                        final String theMismatch) {
+            mSeed = theSeed;
+            mProgram = theProgram;
+            mCacheModel = theCacheModel;
+            mMismatch = theMismatch;
+        }
+
+        /**
+         * @return the seed the original program was generated from
+         */
+        public long getSeed() {
+            return mSeed;
+        }
+
+        /**
+         * @return the shrunk program, as Strings
+         */
+        public String[] getProgram() {
+            return mProgram.clone();
+        }
+
+        /**
+         * @return true if the program was run with a cache modeled
+         */
+        public boolean hasCacheModel() {
+            return mCacheModel;
+        }
+
+        /**
+         * @return the first difference the shrunk program shows
+         */
+        public String getMismatch() {
+            return mMismatch;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder text = new StringBuilder();
+            text.append("seed ").append(mSeed).append(mCacheModel ? "" : " (no cache model)")
+                    .append(": ").append(mMismatch).append('\n');
+            for (int i = 0; i < mProgram.length; i++) {
+                if (!mProgram[i].equals(NOP)) {
+                    text.append(String.format("  %3d \"%s\"%n", i, mProgram[i]));
+                }
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * The outcome of a fuzzing run.
+     */
+    public static final class Report {
+        private final int mPrograms;
+        private final long mInstructions;
+        private final long mSkipped;
+        private final long mNanos;
+        private final List<Failure> mFailures;
+
+        private Report(final int thePrograms, final long theInstructions, final long theSkipped,
+                       final long theNanos, final List<Failure> theFailures) {
+            mPrograms = thePrograms;
+            mInstructions = theInstructions;
+            mSkipped = theSkipped;
+            mNanos = theNanos;
+            mFailures = Collections.unmodifiableList(new ArrayList<>(theFailures));
+        }
+
+        /**
+         * @return the number of programs checked
+         */
+        public int getPrograms() {
+            return mPrograms;
+        }
+
+        /**
+         * @return the instructions the tiered engine retired over all programs
+         */
+        public long getInstructions() {
+            return mInstructions;
+        }
+
+        /**
+         * @return the instructions of those the tiered engine skipped over as loop
+         *         iterations worked out in closed form
+         */
+        public long getSkippedInstructions() {
+            return mSkipped;
+        }
+
+        /**
+         * @return the wall-clock time of the run
+         */
+        public long getNanos() {
+            return mNanos;
+        }
+
+        /**
+         * @return the programs checked per second
+         */
+        public double getProgramsPerSecond() {
+            return mPrograms * 1e9 / mNanos;
+        }
+
+        /**
+         * @return the instructions run on both engines per second
+         */
+        public double getInstructionsPerSecond() {
+            return mInstructions * 1e9 / mNanos;
+        }
+
+        /**
+         * @return every mismatch found, shrunk
+         */
+        public List<Failure> getFailures() {
+            return mFailures;
+        }
+    }
+}
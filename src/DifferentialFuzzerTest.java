@@ -0,0 +1,68 @@
+/*
+ * Unit tests for the DifferentialFuzzer class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class DifferentialFuzzerTest {
+
+    private static final String NOP = "0000000000000000";
+    private static final String OUT = "1111000000100001";
+
+    /**
+     * Test method for {@link DifferentialFuzzer#run(int, int)}.
+     */
+    @Test
+    void testFuzzedProgramsMatchInterpreter() throws InterruptedException {
+        DifferentialFuzzer.Report report = new DifferentialFuzzer(20261019L).run(200, 2);
+
+        assertEquals(200, report.getPrograms());
+        assertTrue(report.getFailures().isEmpty(), report.getFailures().toString());
+        assertTrue(report.getSkippedInstructions() > 0); // the programs run without a cache model
+    }
+
+    /**
+     * Test method for {@link DifferentialFuzzer#run(int, int)}.
+     */
+    @Test
+    void testPlantedBugIsReportedAndShrunk() throws InterruptedException {
+        // a tiered engine that flips the last word of memory after any block ending in an OUT
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(20261019L) {
+            @Override
+            TieredExecutor executor(final Computer theComputer) {
+                return new TieredExecutor(theComputer, 1) {
+                    @Override
+                    boolean step() {
+                        boolean halted = super.step();
+                        if (theComputer.getIR().getUnsignedValue() == 0xF021) {
+                            int last = theComputer.memorySize() - 1;
+                            theComputer.memory().set(last, theComputer.wordAt(last) ^ 1);
+                        }
+                        return halted;
+                    }
+                };
+            }
+        };
+        DifferentialFuzzer.Report report = fuzzer.run(10, 1);
+
+        assertFalse(report.getFailures().isEmpty());
+        for (DifferentialFuzzer.Failure failure : report.getFailures()) {
+            assertTrue(failure.getMismatch().endsWith("memory at 49"), failure.getMismatch());
+            // shrunk to the OUT alone, with every other word a NOP
+            String[] program = failure.getProgram();
+            assertEquals(1, Arrays.stream(program).filter(word -> !word.equals(NOP)).count(), failure.toString());
+            assertTrue(Arrays.asList(program).contains(OUT), failure.toString());
+            assertNotNull(fuzzer.compare(program, failure.hasCacheModel()).getMismatch());
+        }
+        assertNull(new DifferentialFuzzer(20261019L).compare(
+                report.getFailures().get(0).getProgram(), true).getMismatch());
+    }
+}
@@ -0,0 +1,130 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The Disassembler turns 16 bit words into LC-3 assembly text, such as
+ * "ADD R2, R2, #-1" or "BRnzp #-5", covering all 16 opcodes. PC-relative offsets
+ * are shown as they are encoded, relative to the incremented PC.
+ *
+ * Each word is decoded at most once: its text is kept in a table over the whole
+ * 65,536 word space that every thread shares, so rendering a word again is a single
+ * array lookup. The table is filled lazily, so a short program pays only for the
+ * words it shows. An entry is set once, by compare-and-set, and never changes after
+ * that; two threads meeting an empty entry may both decode it, but both return the
+ * String that was stored first.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public final class Disassembler {
+
+    private final static AtomicReferenceArray<String> TABLE = new AtomicReferenceArray<>(0x10000);
+
+    private final static String[] REGISTERS = { "R0", "R1", "R2", "R3", "R4", "R5", "R6", "R7" };
+    private final static char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private Disassembler() {
+    }
+
+    /**
+     * @param theWord a 16 bit word; only the low 16 bits are used
+     * @return the word as an LC-3 instruction
+     */
+    public static String disassemble(final int theWord) {
+        final int word = theWord & 0xFFFF;
+        final String text = TABLE.get(word);
+        if (text != null) {
+            return text;
+        }
+        final String decoded = decode(word);
+        final String witness = TABLE.compareAndExchange(word, null, decoded);
+        return witness == null ? decoded : witness;
+    }
+
+    // decodes theWord into its text
+    private static String decode(final int theWord) {
+        final String dest = REGISTERS[(theWord >>> 9) & 7];
+        final String source = REGISTERS[(theWord >>> 6) & 7];
+        switch (theWord >>> 12) {
+            case 0: // BR
+                final int nzp = (theWord >>> 9) & 7;
+                if (nzp == 0) {
+                    return "NOP";
+                }
+                return "BR" + ((nzp & 4) != 0 ? "n" : "") + ((nzp & 2) != 0 ? "z" : "")
+                        + ((nzp & 1) != 0 ? "p" : "") + " #" + signExtend(theWord, 9);
+            case 1:
+                return "ADD " + dest + ", " + source + ", " + secondOperand(theWord);
+            case 2:
+                return "LD " + dest + ", #" + signExtend(theWord, 9);
+            case 3:
+                return "ST " + dest + ", #" + signExtend(theWord, 9);
+            case 4:
+                if ((theWord & 0x0800) != 0) {
+                    return "JSR #" + signExtend(theWord, 11);
+                }
+                return "JSRR " + source;
+            case 5:
+                return "AND " + dest + ", " + source + ", " + secondOperand(theWord);
+            case 6:
+                return "LDR " + dest + ", " + source + ", #" + signExtend(theWord, 6);
+            case 7:
+                return "STR " + dest + ", " + source + ", #" + signExtend(theWord, 6);
+            case 8:
+                return "RTI";
+            case 9:
+                return "NOT " + dest + ", " + source;
+            case 10:
+                return "LDI " + dest + ", #" + signExtend(theWord, 9);
+            case 11:
+                return "STI " + dest + ", #" + signExtend(theWord, 9);
+            case 12:
+                return ((theWord >>> 6) & 7) == 7 ? "RET" : "JMP " + source;
+            case 13: // reserved
+                return ".FILL " + hex(theWord);
+            case 14:
+                return "LEA " + dest + ", #" + signExtend(theWord, 9);
+            default:
+                return trap(theWord & 0xFF);
+        }
+    }
+
+    // SR2 or #imm5, the second operand of ADD and AND
+    private static String secondOperand(final int theWord) {
+        if ((theWord & 0x20) != 0) {
+            return "#" + signExtend(theWord, 5);
+        }
+        return REGISTERS[theWord & 7];
+    }
+
+    // the name of a trap routine, or TRAP and its vector
+    private static String trap(final int theVector) {
+        switch (theVector) {
+            case 0x20:
+                return "GETC";
+            case 0x21:
+                return "OUT";
+            case 0x22:
+                return "PUTS";
+            case 0x23:
+                return "IN";
+            case 0x24:
+                return "PUTSP";
+            case 0x25:
+                return "HALT";
+            default:
+                return "TRAP x" + HEX_DIGITS[theVector >>> 4] + HEX_DIGITS[theVector & 0xF];
+        }
+    }
+
+    // theWord as x followed by four hex digits
+    private static String hex(final int theWord) {
+        return "x" + HEX_DIGITS[theWord >>> 12] + HEX_DIGITS[(theWord >>> 8) & 0xF]
+                + HEX_DIGITS[(theWord >>> 4) & 0xF] + HEX_DIGITS[theWord & 0xF];
+    }
+
+    // sign-extends the low theBits bits of theWord
+    private static int signExtend(final int theWord, final int theBits) {
+        final int shift = 32 - theBits;
+        return (theWord << shift) >> shift;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Unit tests for the Disassembler class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class DisassemblerTest {
+
+    /**
+     * Test method for {@link Disassembler#disassemble(int)}.
+     */
+    @Test
+    void testDisassembleSimulatorProgram() {
+        assertEquals("LD R0, #8", Disassembler.disassemble(0x2008));
+        assertEquals("ADD R2, R0, R1", Disassembler.disassemble(0x1401));
+        assertEquals("BRz #4", Disassembler.disassemble(0x0404));
+        assertEquals("OUT", Disassembler.disassemble(0xF021));
+        assertEquals("ADD R2, R2, #-1", Disassembler.disassemble(0x14BF));
+        assertEquals("BRnzp #-5", Disassembler.disassemble(0x0FFB));
+        assertEquals("HALT", Disassembler.disassemble(0xF025));
+        assertEquals("NOP", Disassembler.disassemble(0x0000));
+    }
+
+    /**
+     * Test method for {@link Disassembler#disassemble(int)}.
+     */
+    @Test
+    void testDisassembleEveryOpcode() {
+        assertEquals("ST R3, #-1", Disassembler.disassemble(0x37FF));
+        assertEquals("JSR #1023", Disassembler.disassemble(0x4BFF));
+        assertEquals("JSRR R5", Disassembler.disassemble(0x4140));
+        assertEquals("AND R1, R1, #0", Disassembler.disassemble(0x5260));
+        assertEquals("LDR R1, R2, #-32", Disassembler.disassemble(0x62A0));
+        assertEquals("STR R7, R6, #31", Disassembler.disassemble(0x7F9F));
+        assertEquals("RTI", Disassembler.disassemble(0x8000));
+        assertEquals("NOT R4, R3", Disassembler.disassemble(0x98FF));
+        assertEquals("LDI R0, #255", Disassembler.disassemble(0xA0FF));
+        assertEquals("STI R0, #-256", Disassembler.disassemble(0xB100));
+        assertEquals("JMP R2", Disassembler.disassemble(0xC080));
+        assertEquals("RET", Disassembler.disassemble(0xC1C0));
+        assertEquals(".FILL xD123", Disassembler.disassemble(0xD123));
+        assertEquals("LEA R6, #3", Disassembler.disassemble(0xEC03));
+        assertEquals("TRAP x26", Disassembler.disassemble(0xF026));
+        assertEquals("PUTSP", Disassembler.disassemble(0xF024));
+    }
+
+    /**
+     * Test method for {@link Disassembler#disassemble(int)}.
+     */
+    @Test
+    void testDisassembleIsALookup() {
+        // the text of a word is decoded once and shared
+        assertSame(Disassembler.disassemble(0x14BF), Disassembler.disassemble(0x14BF));
+        assertSame(Disassembler.disassemble(0xF025), Disassembler.disassemble(0x1F025));
+    }
+}
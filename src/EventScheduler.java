@@ -0,0 +1,260 @@
+import java.util.Arrays;
+
+/**
+ * The EventScheduler raises interrupts at set points in a Computer's run, measured
+ * in instructions retired: one-off device interrupts with schedule() and timer
+ * interrupts that repeat every so many instructions with schedulePeriodic().
+ *
+ * Events wait in a min-heap ordered on the instruction count they are due at, held
+ * in parallel primitive arrays. The computer only compares its instruction count
+ * against the count of the next event, so devices are never polled per instruction.
+ * An event that falls due raises its interrupt, which stays pending, like a device
+ * holding its interrupt line, until the processor's priority drops below that of
+ * the interrupt. The highest priority pending interrupt is taken first.
+ *
+ * A scheduler belongs to the one computer it is set on, and to that computer's thread.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class EventScheduler {
+
+    private final static int INITIAL_CAPACITY = 8;
+    private final static int MAX_VECTOR = 0xFF;
+    private final static int MAX_PRIORITY = 7;
+
+    // the heap: the count each event is due at, its interrupt and its period, or 0
+    private long[] mDue = new long[INITIAL_CAPACITY];
+    private int[] mVector = new int[INITIAL_CAPACITY];
+    private int[] mPriority = new int[INITIAL_CAPACITY];
+    private long[] mPeriod = new long[INITIAL_CAPACITY];
+    private int mSize;
+
+    // interrupts raised and not yet taken, oldest first
+    private int[] mPendingVector = new int[INITIAL_CAPACITY];
+    private int[] mPendingPriority = new int[INITIAL_CAPACITY];
+    private int mPendingCount;
+
+    private Computer mComputer; // the computer told when the next event moves, or null
+    private long mDelivered;
+
+    /**
+     * Raises an interrupt once, after the instruction that brings the instruction
+     * count to theCount. A count already reached raises it after the next instruction.
+     * @param theCount the instruction count the event is due at
+     * @param theVector the interrupt vector, x00 to xFF, whose handler address is at x0100 + theVector
+     * @param thePriority the priority of the interrupt, 1 to 7
+     */
+    public void schedule(final long theCount, final int theVector, final int thePriority) {
+        add(theCount, theVector, thePriority, 0);
+    }
+
+    /**
+     * Raises an interrupt every thePeriod instructions, starting at theFirst.
+     * @param theFirst the instruction count the first event is due at
+     * @param thePeriod the instructions between events
+     * @param theVector the interrupt vector, x00 to xFF
+     * @param thePriority the priority of the interrupt, 1 to 7
+     */
+    public void schedulePeriodic(final long theFirst, final long thePeriod, final int theVector,
+                                 final int thePriority) {
+        if (thePeriod <= 0) {
+            throw new IllegalArgumentException("Invalid period");
+        }
+        add(theFirst, theVector, thePriority, thePeriod);
+    }
+
+    /**
+     * Drops every scheduled event, and any pending interrupt, for theVector.
+     * @param theVector the interrupt vector
+     */
+    public void cancel(final int theVector) {
+        int kept = 0;
+        for (int i = 0; i < mSize; i++) {
+            if (mVector[i] != theVector) {
+                mDue[kept] = mDue[i];
+                mVector[kept] = mVector[i];
+                mPriority[kept] = mPriority[i];
+                mPeriod[kept] = mPeriod[i];
+                kept++;
+            }
+        }
+        mSize = kept;
+        for (int i = mSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        kept = 0;
+        for (int i = 0; i < mPendingCount; i++) {
+            if (mPendingVector[i] != theVector) {
+                mPendingVector[kept] = mPendingVector[i];
+                mPendingPriority[kept] = mPendingPriority[i];
+                kept++;
+            }
+        }
+        mPendingCount = kept;
+        changed();
+    }
+
+    /**
+     * @return the events waiting to fall due
+     */
+    public int getScheduledCount() {
+        return mSize;
+    }
+
+    /**
+     * @return the interrupts raised and not yet taken
+     */
+    public int getPendingCount() {
+        return mPendingCount;
+    }
+
+    /**
+     * @return the interrupts taken by the computer
+     */
+    public long getDelivered() {
+        return mDelivered;
+    }
+
+    // ties the scheduler to theComputer, or to none
+    void attach(final Computer theComputer) {
+        mComputer = theComputer;
+    }
+
+    /**
+     * Raises the interrupts of every event due by theCount, then takes the highest
+     * priority pending interrupt above thePriority off the pending list.
+     * @param theCount the instructions retired
+     * @param thePriority the priority the processor runs at
+     * @return the interrupt to take, as its priority times 256 plus its vector, or -1
+     */
+    int poll(final long theCount, final int thePriority) {
+        while (mSize > 0 && mDue[0] <= theCount) {
+            raise(mVector[0], mPriority[0]);
+            if (mPeriod[0] != 0) {
+                mDue[0] += mPeriod[0];
+            } else {
+                mSize--;
+                moveTo(0, mSize);
+            }
+            siftDown(0);
+        }
+        int best = -1;
+        for (int i = 0; i < mPendingCount; i++) {
+            if (mPendingPriority[i] > thePriority
+                    && (best < 0 || mPendingPriority[i] > mPendingPriority[best])) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return -1;
+        }
+        final int interrupt = mPendingPriority[best] << 8 | mPendingVector[best];
+        mPendingCount--;
+        System.arraycopy(mPendingVector, best + 1, mPendingVector, best, mPendingCount - best);
+        System.arraycopy(mPendingPriority, best + 1, mPendingPriority, best, mPendingCount - best);
+        mDelivered++;
+        return interrupt;
+    }
+
+    /**
+     * @param theCount the instructions retired
+     * @param thePriority the priority the processor runs at
+     * @return the instruction count at which poll has something to do
+     */
+    long nextCheck(final long theCount, final int thePriority) {
+        for (int i = 0; i < mPendingCount; i++) {
+            if (mPendingPriority[i] > thePriority) {
+                return theCount;
+            }
+        }
+        return mSize == 0 ? Long.MAX_VALUE : mDue[0];
+    }
+
+    private void add(final long theCount, final int theVector, final int thePriority, final long thePeriod) {
+        if (theCount < 0) {
+            throw new IllegalArgumentException("Invalid count");
+        }
+        if (theVector < 0 || theVector > MAX_VECTOR) {
+            throw new IllegalArgumentException("Invalid vector");
+        }
+        if (thePriority < 1 || thePriority > MAX_PRIORITY) {
+            throw new IllegalArgumentException("Invalid priority");
+        }
+        if (mSize == mDue.length) {
+            final int capacity = mSize * 2;
+            mDue = Arrays.copyOf(mDue, capacity);
+            mVector = Arrays.copyOf(mVector, capacity);
+            mPriority = Arrays.copyOf(mPriority, capacity);
+            mPeriod = Arrays.copyOf(mPeriod, capacity);
+        }
+        int i = mSize++;
+        mDue[i] = theCount;
+        mVector[i] = theVector;
+        mPriority[i] = thePriority;
+        mPeriod[i] = thePeriod;
+        while (i > 0 && mDue[(i - 1) / 2] > mDue[i]) {
+            swap(i, (i - 1) / 2);
+            i = (i - 1) / 2;
+        }
+        changed();
+    }
+
+    // adds an interrupt to the pending list, unless it is already there
+    private void raise(final int theVector, final int thePriority) {
+        for (int i = 0; i < mPendingCount; i++) {
+            if (mPendingVector[i] == theVector) {
+                return;
+            }
+        }
+        if (mPendingCount == mPendingVector.length) {
+            mPendingVector = Arrays.copyOf(mPendingVector, mPendingCount * 2);
+            mPendingPriority = Arrays.copyOf(mPendingPriority, mPendingCount * 2);
+        }
+        mPendingVector[mPendingCount] = theVector;
+        mPendingPriority[mPendingCount] = thePriority;
+        mPendingCount++;
+    }
+
+    // tells the computer the next event may have moved
+    private void changed() {
+        if (mComputer != null) {
+            mComputer.eventsChanged();
+        }
+    }
+
+    private void siftDown(final int theIndex) {
+        int i = theIndex;
+        while (true) {
+            final int left = 2 * i + 1;
+            if (left >= mSize) {
+                return;
+            }
+            final int child = left + 1 < mSize && mDue[left + 1] < mDue[left] ? left + 1 : left;
+            if (mDue[i] <= mDue[child]) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void moveTo(final int theTo, final int theFrom) {
+        mDue[theTo] = mDue[theFrom];
+        mVector[theTo] = mVector[theFrom];
+        mPriority[theTo] = mPriority[theFrom];
+        mPeriod[theTo] = mPeriod[theFrom];
+    }
+
+    private void swap(final int theFirst, final int theSecond) {
+        final long due = mDue[theFirst];
+        final int vector = mVector[theFirst];
+        final int priority = mPriority[theFirst];
+        final long period = mPeriod[theFirst];
+        moveTo(theFirst, theSecond);
+        mDue[theSecond] = due;
+        mVector[theSecond] = vector;
+        mPriority[theSecond] = priority;
+        mPeriod[theSecond] = period;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Unit tests for the EventScheduler class and interrupt handling in Computer.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class EventSchedulerTest {
+
+    private static final int TIMER = 0x80;
+    private static final int DEVICE = 0x81;
+
+    // Builds a full size machine whose TIMER handler, at x0200, adds 1 to R2 and
+    // whose DEVICE handler, at x0210, adds 1 to R3.
+    private static Computer machine(final int ... theProgram) {
+        Computer computer = new Computer(new Memory(65536));
+        for (int i = 0; i < theProgram.length; i++) {
+            computer.memory().set(i, theProgram[i]);
+        }
+        computer.memory().set(0x0100 + TIMER, 0x0200);
+        computer.memory().set(0x0200, 0x14A1); // ADD R2 <- R2 + 1
+        computer.memory().set(0x0201, 0x8000); // RTI
+        computer.memory().set(0x0100 + DEVICE, 0x0210);
+        computer.memory().set(0x0210, 0x16E1); // ADD R3 <- R3 + 1
+        computer.memory().set(0x0211, 0x8000); // RTI
+        return computer;
+    }
+
+    /**
+     * Test method for {@link EventScheduler#schedule(long, int, int)}.
+     */
+    @Test
+    void testInterruptPushesAndReturns() {
+        Computer computer = machine(
+                0x1261,  // ADD R1 <- R1 + 1
+                0x0FFE); // BRnzp - back to the ADD
+        EventScheduler events = new EventScheduler();
+        computer.setEventScheduler(events);
+        events.schedule(5, TIMER, 4);
+
+        for (int i = 0; i < 5; i++) {
+            computer.executeNext();
+        }
+        assertEquals(0x0200, computer.getPC().getUnsignedValue());
+        assertEquals(0x0400, computer.getPSR().getUnsignedValue()); // supervisor, priority 4
+        assertEquals(0x2FFE, computer.getRegisters()[6].getUnsignedValue());
+        assertEquals(0x0001, computer.wordAt(0x2FFE)); // the PC
+        assertEquals(0x8001, computer.wordAt(0x2FFF)); // the PSR: user, priority 0, P
+        assertEquals(1, events.getDelivered());
+        assertEquals(0, events.getScheduledCount());
+
+        computer.executeNext();
+        computer.executeNext();
+        assertEquals(0x0001, computer.getPC().getUnsignedValue());
+        assertEquals(0x8001, computer.getPSR().getUnsignedValue());
+        assertEquals(6, computer.getRegisters()[6].getUnsignedValue());
+        assertEquals(3, computer.getRegisters()[2].getUnsignedValue());
+        assertEquals(4, computer.getRegisters()[1].getUnsignedValue());
+    }
+
+    /**
+     * Test method for {@link EventScheduler#schedule(long, int, int)}.
+     */
+    @Test
+    void testHigherPriorityIsTakenFirst() {
+        Computer computer = machine(
+                0x1261,  // ADD R1 <- R1 + 1
+                0x0FFE); // BRnzp - back to the ADD
+        EventScheduler events = new EventScheduler();
+        computer.setEventScheduler(events);
+        events.schedule(1, TIMER, 2);
+        events.schedule(1, DEVICE, 5);
+
+        computer.executeNext();
+        assertEquals(0x0210, computer.getPC().getUnsignedValue());
+        assertEquals(1, events.getPendingCount());
+
+        computer.executeNext(); // the DEVICE handler's ADD; the TIMER is held back
+        assertEquals(0x0211, computer.getPC().getUnsignedValue());
+        computer.executeNext(); // RTI, back at priority 0, so the TIMER is taken
+        assertEquals(0x0200, computer.getPC().getUnsignedValue());
+        assertEquals(0x0200, computer.getPSR().getUnsignedValue());
+        assertEquals(0x0001, computer.wordAt(0x2FFE));
+        assertEquals(2, events.getDelivered());
+        assertEquals(0, events.getPendingCount());
+    }
+
+    /**
+     * Test method for {@link EventScheduler#schedulePeriodic(long, long, int, int)}.
+     */
+    @Test
+    void testEnginesTakeTimerInterruptsAlike() {
+        int[] program = {
+                0x2004,  // LD into R0 x28
+                0x103F,  // ADD R0 <- R0 - 1
+                0x03FE,  // BRp - Loop back
+                0xF025,  // TRAP - vector x25 - HALT
+                0x0000,
+                0x0028}; // x28
+        Computer interpreted = machine(program);
+        EventScheduler interpretedEvents = new EventScheduler();
+        interpreted.setEventScheduler(interpretedEvents);
+        interpretedEvents.schedulePeriodic(7, 7, TIMER, 4);
+        interpreted.execute();
+
+        Computer tiered = machine(program);
+        EventScheduler tieredEvents = new EventScheduler();
+        tiered.setEventScheduler(tieredEvents);
+        tieredEvents.schedulePeriodic(7, 7, TIMER, 4);
+        new TieredExecutor(tiered, 1).execute();
+
+        long delivered = interpretedEvents.getDelivered();
+        assertTrue(delivered > 10);
+        assertEquals(delivered, tieredEvents.getDelivered());
+        assertEquals(2 + delivered, interpreted.getRegisters()[2].getUnsignedValue());
+        assertEquals(2 + delivered, tiered.getRegisters()[2].getUnsignedValue());
+        assertEquals(82 + 2 * delivered, interpreted.getInstructionCount());
+        assertEquals(interpreted.getInstructionCount(), tiered.getInstructionCount());
+        assertEquals(0, tiered.getRegisters()[0].getUnsignedValue());
+    }
+
+    /**
+     * Test method for {@link Computer#executeReturnFromInterrupt()}.
+     */
+    @Test
+    void testInvalidUse() {
+        Computer computer = machine(0x8000); // RTI
+        assertThrows(IllegalStateException.class, computer::executeNext);
+
+        EventScheduler events = new EventScheduler();
+        assertThrows(IllegalArgumentException.class, () -> events.schedule(1, 0x100, 4));
+        assertThrows(IllegalArgumentException.class, () -> events.schedule(1, TIMER, 0));
+        assertThrows(IllegalArgumentException.class, () -> events.schedulePeriodic(1, 0, TIMER, 4));
+
+        events.schedulePeriodic(1, 10, TIMER, 4);
+        events.schedule(3, DEVICE, 4);
+        events.cancel(TIMER);
+        assertEquals(1, events.getScheduledCount());
+
+        Computer small = new Computer();
+        small.loadMachineCode("0001001001100001"); // ADD R1 <- R1 + 1
+        assertThrows(IllegalArgumentException.class, () -> small.setEventScheduler(events)); // no interrupt table
+        assertThrows(IllegalArgumentException.class, () -> new Computer(0x3000 - 1).setEventScheduler(events));
+        assertThrows(IllegalArgumentException.class, () -> new Computer(65537));
+    }
+
+    /**
+     * Test method for {@link Computer#Computer(int)}.
+     */
+    @Test
+    void testInterruptOnPublicMachine() {
+        Computer computer = new Computer(65536);
+        computer.loadMachineCode(
+                "0001001001100001",  // ADD R1 <- R1 + 1
+                "0000111111111110"); // BRnzp - back to the ADD
+        BitString word = new BitString();
+        word.setUnsignedValue(0x0200);
+        computer.loadWord(0x0100 + TIMER, word);
+        word.setUnsignedValue(0x14A1); // ADD R2 <- R2 + 1
+        computer.loadWord(0x0200, word);
+        word.setUnsignedValue(0x8000); // RTI
+        computer.loadWord(0x0201, word);
+        EventScheduler events = new EventScheduler();
+        computer.setEventScheduler(events);
+        events.schedule(3, TIMER, 4);
+
+        for (int i = 0; i < 6; i++) {
+            computer.executeNext();
+        }
+        assertEquals(1, events.getDelivered());
+        assertEquals(3, computer.getRegisters()[2].getUnsignedValue());
+        assertEquals(0x8001, computer.getPSR().getUnsignedValue()); // back in user mode
+        assertEquals(3, computer.getRegisters()[1].getUnsignedValue());
+        assertEquals(0, computer.getPC().getUnsignedValue());
+    }
+}
@@ -0,0 +1,50 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event spanning one run of a program, from the start of
+ * execution to its end. Its duration and instruction count give the throughput of
+ * the run, which can be set against GC pauses in the same recording.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+@Name("lc3.Execution")
+@Label("Execution")
+@Category("LC-3 Simulator")
+@Description("One run of a program, until it halts or fails")
+final class ExecutionEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Start Address")
+    int startAddress;
+
+    @Label("Instructions Retired")
+    long instructions;
+
+    @Label("Halt Reason")
+    String haltReason;
+
+    /**
+     * Ends the event and commits it, if it is being recorded.
+     * @param theEngine the engine that ran the program
+     * @param theStartAddress the PC the run started at
+     * @param theInstructions the instructions retired by the run
+     * @param theReason why the run ended
+     */
+    void finish(final String theEngine, final int theStartAddress, final long theInstructions,
+                final HaltReason theReason) {
+        end();
+        if (shouldCommit()) {
+            engine = theEngine;
+            startAddress = theStartAddress;
+            instructions = theInstructions;
+            haltReason = theReason.name();
+            commit();
+        }
+    }
+}
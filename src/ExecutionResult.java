@@ -0,0 +1,119 @@
+/**
+ * The ExecutionResult is the final state of a Computer after a run started by
+ * Computer.executeAsync(): its registers, PC, IR, CC and memory, what it wrote,
+ * the instructions retired and why the run ended. It is immutable, so it can be
+ * handed between threads freely.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public final class ExecutionResult {
+
+    private final int[] mRegisters;
+    private final int mPC;
+    private final int mIR;
+    private final int mCC;
+    private final int[] mMemory;
+    private final String mOutput;
+    private final long mInstructions;
+    private final HaltReason mHaltReason;
+    private final RuntimeException mError;
+
+    /**
+     * Creates a result, copying theRegisters.
+     * @param theRegisters the registers, as unsigned 16 bit values
+     * @param thePC the PC
+     * @param theIR the IR
+     * @param theCC the CC, as nzp bits
+     * @param theMemory every word of memory, which the result takes ownership of
+     * @param theOutput everything written by the output traps
+     * @param theInstructions the instructions retired by the run
+     * @param theHaltReason why the run ended
+     * @param theError the exception that ended the run, or null
+     */
+    ExecutionResult(final int[] theRegisters, final int thePC, final int theIR, final int theCC,
+                    final int[] theMemory, final String theOutput, final long theInstructions,
+                    final HaltReason theHaltReason, final RuntimeException theError) {
+        mRegisters = theRegisters.clone();
+        mPC = thePC;
+        mIR = theIR;
+        mCC = theCC;
+        mMemory = theMemory;
+        mOutput = theOutput;
+        mInstructions = theInstructions;
+        mHaltReason = theHaltReason;
+        mError = theError;
+    }
+
+    /**
+     * @param theRegister the register number
+     * @return the final 2's complement value of the register
+     */
+    public int getRegister(final int theRegister) {
+        return (short) mRegisters[theRegister];
+    }
+
+    /**
+     * @return the final PC
+     */
+    public int getPC() {
+        return mPC;
+    }
+
+    /**
+     * @return the final IR
+     */
+    public int getIR() {
+        return mIR;
+    }
+
+    /**
+     * @return the final CC, as nzp bits; 0 if no instruction set it
+     */
+    public int getCC() {
+        return mCC;
+    }
+
+    /**
+     * @param theAddress a memory address
+     * @return the final unsigned value of the word at theAddress
+     */
+    public int getWord(final int theAddress) {
+        return mMemory[theAddress];
+    }
+
+    /**
+     * @return the number of words of memory
+     */
+    public int getMemorySize() {
+        return mMemory.length;
+    }
+
+    /**
+     * @return everything written by the output traps during the run
+     */
+    public String getOutput() {
+        return mOutput;
+    }
+
+    /**
+     * @return the instructions retired by the run
+     */
+    public long getInstructionCount() {
+        return mInstructions;
+    }
+
+    /**
+     * @return why the run ended
+     */
+    public HaltReason getHaltReason() {
+        return mHaltReason;
+    }
+
+    /**
+     * @return the exception that ended the run, or null if it did not fail
+     */
+    public RuntimeException getError() {
+        return mError;
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * The reasons a run of a Computer can end for.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public enum HaltReason {
+    /** A TRAP x25 - HALT was executed. */
+    HALT,
+    /** An instruction threw, for example an illegal opcode. */
+    ERROR,
+    /** The run was cancelled before it halted. */
+    CANCELLED,
+    /** The run used up its instruction budget before it halted. */
+    BUDGET
+}
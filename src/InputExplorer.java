@@ -0,0 +1,333 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The InputExplorer runs a program over every value of an input word, the way a
+ * grader checks a submission against all possible inputs. Instead of running the
+ * program from address 0 once per input, it runs it once up to the first
+ * instruction that depends on the input: a fetch from the input word, an LD, LDI or
+ * LDR of it, or a PUTS or PUTSP whose string runs into it. There it forks the
+ * Computer, once per input. Forks are copy-on-write snapshots, so the prefix they
+ * share is executed only once, and they continue in parallel on a work-stealing
+ * ForkJoinPool.
+ *
+ * The coverage of every run is merged into one Coverage of the whole exploration,
+ * which shows the instructions and branch directions no input reached.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class InputExplorer {
+
+    private final static long DEFAULT_BUDGET = 1_000_000;
+    private final static int INPUTS_PER_TASK = 64;
+
+    private final String[] mProgram;
+    private final int mInputAddress;
+    private final long mBudget;
+    private long mPrefixInstructions;
+    private Coverage mCoverage;
+
+    /**
+     * Creates an explorer that stops each run after a million instructions.
+     * @param theProgram the machine code program, as Strings
+     * @param theInputAddress the address of the word holding the input
+     */
+    public InputExplorer(final String[] theProgram, final int theInputAddress) {
+        this(theProgram, theInputAddress, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates an explorer.
+     * @param theProgram the machine code program, as Strings
+     * @param theInputAddress the address of the word holding the input
+     * @param theBudget the instructions a run may retire before it is given up on
+     */
+    public InputExplorer(final String[] theProgram, final int theInputAddress, final long theBudget) {
+        if (theBudget <= 0) {
+            throw new IllegalArgumentException("Invalid budget");
+        }
+        mProgram = theProgram.clone();
+        mInputAddress = theInputAddress;
+        mBudget = theBudget;
+    }
+
+    /**
+     * Runs the program for every input from theFirst to theLast on the common pool.
+     * @param theFirst the first input value
+     * @param theLast the last input value
+     * @return the result for each input, in input order
+     */
+    public Result[] explore(final int theFirst, final int theLast) {
+        return explore(theFirst, theLast, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the program for every input from theFirst to theLast on thePool.
+     * @param theFirst the first input value
+     * @param theLast the last input value
+     * @param thePool the pool the forks run on
+     * @return the result for each input, in input order
+     */
+    public Result[] explore(final int theFirst, final int theLast, final ForkJoinPool thePool) {
+        if (theFirst > theLast || theFirst < 0 || theLast > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid input range");
+        }
+        final Computer base = new Computer();
+        if (mInputAddress < 0 || mInputAddress >= base.memorySize()) {
+            throw new IllegalArgumentException("Invalid address");
+        }
+        base.loadMachineCode(mProgram);
+        final StringBuilder prefixOutput = new StringBuilder();
+        base.setOutput(prefixOutput);
+        final Coverage coverage = new Coverage(base.memorySize());
+        base.setCoverage(coverage);
+        mCoverage = new Coverage(base.memorySize());
+
+        final Result[] results = new Result[theLast - theFirst + 1];
+        final Result shared = runPrefix(base, prefixOutput);
+        mPrefixInstructions = base.getInstructionCount();
+        mCoverage.merge(coverage);
+        if (shared != null) {
+            // the program finished without looking at its input
+            for (int i = 0; i < results.length; i++) {
+                results[i] = shared.forInput(theFirst + i);
+            }
+            return results;
+        }
+        thePool.invoke(new ForkTask(base, prefixOutput.toString(), results, theFirst, 0, results.length));
+        return results;
+    }
+
+    /**
+     * @return the coverage of the last exploration, merged over every input
+     */
+    public Coverage getCoverage() {
+        return mCoverage;
+    }
+
+    /**
+     * @return the instructions of the prefix every input shared in the last exploration
+     */
+    public long getPrefixInstructions() {
+        return mPrefixInstructions;
+    }
+
+    // runs theBase until the next instruction depends on the input, returning null if
+    // it got there, or the result if the program ended first
+    private Result runPrefix(final Computer theBase, final StringBuilder theOutput) {
+        try {
+            while (theBase.getInstructionCount() < mBudget) {
+                if (readsInput(theBase)) {
+                    return null;
+                }
+                if (theBase.executeNext()) {
+                    return new Result(0, theBase, theOutput.toString(), true, null);
+                }
+            }
+            return new Result(0, theBase, theOutput.toString(), false, null);
+        } catch (RuntimeException e) {
+            return new Result(0, theBase, theOutput.toString(), false, e.toString());
+        }
+    }
+
+    // true if the instruction at the PC is the input word or reads it: an LD, LDI or LDR
+    // of it, or a PUTS or PUTSP whose string runs into it
+    private boolean readsInput(final Computer theComputer) {
+        final int pc = theComputer.programCounter();
+        if (pc == mInputAddress) {
+            return true;
+        }
+        final int word = theComputer.wordAt(pc);
+        final int opCode = word >>> 12;
+        final int address = (pc + 1 + ((word << 23) >> 23)) & 0xFFFF; // PC + offset9
+        if (opCode == 2) { // LD
+            return address == mInputAddress;
+        } else if (opCode == 10) { // LDI, through the pointer at address
+            return address == mInputAddress
+                    || address < theComputer.memorySize() && theComputer.wordAt(address) == mInputAddress;
+        } else if (opCode == 6) { // LDR, BaseR + offset6
+            final int base = theComputer.registerValue((word >>> 6) & 7);
+            return ((base + ((word << 26) >> 26)) & 0xFFFF) == mInputAddress;
+        } else if (opCode == 15 && ((word & 0xFF) == 0x22 || (word & 0xFF) == 0x24)) { // PUTS, PUTSP
+            return stringReadsInput(theComputer, theComputer.registerValue(0) & 0xFFFF, (word & 0xFF) == 0x24);
+        }
+        return false;
+    }
+
+    // true if the string a PUTS, or a PUTSP if thePacked, prints from theAddress runs
+    // into the input word before the word that ends it
+    private boolean stringReadsInput(final Computer theComputer, final int theAddress, final boolean thePacked) {
+        for (int address = theAddress; address < theComputer.memorySize(); address++) {
+            if (address == mInputAddress) {
+                return true;
+            }
+            final int word = theComputer.wordAt(address);
+            if (word == 0 || thePacked && (word >>> 8) == 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    // runs one fork of theBase with theInput in the input word
+    private Result runFork(final Computer theBase, final String thePrefixOutput, final int theInput) {
+        final Computer fork = theBase.fork();
+        final StringBuilder output = new StringBuilder(thePrefixOutput);
+        fork.setOutput(output);
+        final Coverage coverage = new Coverage(fork.memorySize());
+        fork.setCoverage(coverage);
+        fork.memory().set(mInputAddress, theInput);
+        try {
+            while (fork.getInstructionCount() < mBudget) {
+                if (fork.executeNext()) {
+                    return new Result(theInput, fork, output.toString(), true, null);
+                }
+            }
+            return new Result(theInput, fork, output.toString(), false, null);
+        } catch (RuntimeException e) {
+            return new Result(theInput, fork, output.toString(), false, e.toString());
+        } finally {
+            mCoverage.merge(coverage);
+        }
+    }
+
+    // splits the inputs in halves until a half is small enough to run its forks in turn
+    private final class ForkTask extends RecursiveAction {
+
+        private final static long serialVersionUID = 1L;
+
+        private final Computer mBase;
+        private final String mPrefixOutput;
+        private final Result[] mResults;
+        private final int mFirstInput;
+        private final int mFrom;
+        private final int mTo;
+
+        ForkTask(final Computer theBase, final String thePrefixOutput, final Result[] theResults,
+                 final int theFirstInput, final int theFrom, final int theTo) {
+            mBase = theBase;
+            mPrefixOutput = thePrefixOutput;
+            mResults = theResults;
+            mFirstInput = theFirstInput;
+            mFrom = theFrom;
+            mTo = theTo;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom <= INPUTS_PER_TASK) {
+                for (int i = mFrom; i < mTo; i++) {
+                    mResults[i] = runFork(mBase, mPrefixOutput, mFirstInput + i);
+                }
+                return;
+            }
+            final int middle = (mFrom + mTo) >>> 1;
+            invokeAll(new ForkTask(mBase, mPrefixOutput, mResults, mFirstInput, mFrom, middle),
+                    new ForkTask(mBase, mPrefixOutput, mResults, mFirstInput, middle, mTo));
+        }
+    }
+
+    /**
+     * The final state of the program for one input.
+     */
+    public static final class Result {
+
+        private final int mInput;
+        private final int[] mRegisters;
+        private final int mPC;
+        private final int mCC;
+        private final long mInstructions;
+        private final String mOutput;
+        private final boolean mHalted;
+        private final String mError;
+
+        private Result(final int theInput, final Computer theComputer, final String theOutput,
+                       final boolean theHalted, final String theError) {
+            mInput = theInput;
+            mRegisters = new int[theComputer.getRegisters().length];
+            for (int i = 0; i < mRegisters.length; i++) {
+                mRegisters[i] = theComputer.registerValue(i);
+            }
+            mPC = theComputer.programCounter();
+            mCC = theComputer.getCC().getUnsignedValue();
+            mInstructions = theComputer.getInstructionCount();
+            mOutput = theOutput;
+            mHalted = theHalted;
+            mError = theError;
+        }
+
+        private Result(final Result theShared, final int theInput) {
+            mInput = theInput;
+            mRegisters = theShared.mRegisters;
+            mPC = theShared.mPC;
+            mCC = theShared.mCC;
+            mInstructions = theShared.mInstructions;
+            mOutput = theShared.mOutput;
+            mHalted = theShared.mHalted;
+            mError = theShared.mError;
+        }
+
+        // the same result, reported for theInput
+        private Result forInput(final int theInput) {
+            return new Result(this, theInput);
+        }
+
+        /**
+         * @return the input value
+         */
+        public int getInput() {
+            return mInput;
+        }
+
+        /**
+         * @param theRegister the register number
+         * @return the final 2's complement value of the register
+         */
+        public int getRegister(final int theRegister) {
+            return mRegisters[theRegister];
+        }
+
+        /**
+         * @return the final PC
+         */
+        public int getPC() {
+            return mPC;
+        }
+
+        /**
+         * @return the final CC, as nzp bits
+         */
+        public int getCC() {
+            return mCC;
+        }
+
+        /**
+         * @return the instructions retired, including the shared prefix
+         */
+        public long getInstructionCount() {
+            return mInstructions;
+        }
+
+        /**
+         * @return everything written by the output traps
+         */
+        public String getOutput() {
+            return mOutput;
+        }
+
+        /**
+         * @return true if the run ended in a HALT; false if it ran out of budget or failed
+         */
+        public boolean isHalted() {
+            return mHalted;
+        }
+
+        /**
+         * @return the exception that ended the run, or null if there was none
+         */
+        public String getError() {
+            return mError;
+        }
+    }
+}
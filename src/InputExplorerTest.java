@@ -0,0 +1,127 @@
+/*
+ * Unit tests for the InputExplorer class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class InputExplorerTest {
+
+    // Prints the character in the input word, then the character before it.
+    private static final String[] ECHO = {
+            "0001001001100001",  // ADD R1 <- R1 + 1
+            "0001001001100001",  // ADD R1 <- R1 + 1
+            "0010000000000100",  // LD into R0 the input word
+            "1111000000100001",  // TRAP - vector x21 - OUT
+            "0001000000111111",  // ADD R0 <- R0 - 1
+            "1111000000100001",  // TRAP - vector x21 - OUT
+            "1111000000100101",  // TRAP - vector x25 - HALT
+            "0000000000000000",  // input
+    };
+
+    /**
+     * Test method for {@link InputExplorer#explore(int, int)}.
+     */
+    @Test
+    void testExploreSharesPrefix() {
+        InputExplorer explorer = new InputExplorer(ECHO, 7);
+        InputExplorer.Result[] results = explorer.explore('a', 'z');
+
+        assertEquals(26, results.length);
+        assertEquals(2, explorer.getPrefixInstructions());
+        for (int i = 0; i < results.length; i++) {
+            assertEquals('a' + i, results[i].getInput());
+            assertTrue(results[i].isHalted());
+            assertEquals("" + (char) ('a' + i) + (char) ('a' + i - 1), results[i].getOutput());
+            assertEquals(3, results[i].getRegister(1));
+            assertEquals(7, results[i].getInstructionCount());
+        }
+    }
+
+    /**
+     * Test method for {@link InputExplorer#explore(int, int)}.
+     */
+    @Test
+    void testExploreStopsRunaways() {
+        String[] program = {
+                "0010000000000001",  // LD into R0 the input word
+                "0000111111111111",  // BR - to itself, forever
+                "0000000000000000",  // input
+        };
+        InputExplorer explorer = new InputExplorer(program, 2, 100);
+        InputExplorer.Result[] results = explorer.explore(0, 3);
+
+        for (InputExplorer.Result result : results) {
+            assertFalse(result.isHalted());
+            assertNull(result.getError());
+            assertEquals(100, result.getInstructionCount());
+        }
+    }
+
+    /**
+     * Test method for {@link InputExplorer#getCoverage()}.
+     */
+    @Test
+    void testExploreMergesCoverage() {
+        String[] program = {
+                "0010000000000100",  // LD into R0 the input word
+                "0000010000000001",  // BRz - skip the OUT
+                "1111000000100001",  // TRAP - vector x21 - OUT
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "1001001001111111",  // NOT R1 <- R1, never reached
+                "0000000000000000",  // input
+        };
+        InputExplorer explorer = new InputExplorer(program, 5);
+
+        explorer.explore(0, 0);
+        Coverage zero = explorer.getCoverage();
+        assertTrue(zero.isTaken(1));
+        assertFalse(zero.isNotTaken(1));
+        assertFalse(zero.isExecuted(2));
+        assertEquals(3, zero.getExecutedCount());
+
+        explorer.explore(0, 5);
+        Coverage all = Coverage.fromByteArray(explorer.getCoverage().toByteArray());
+        assertTrue(all.isTaken(1));
+        assertTrue(all.isNotTaken(1));
+        assertTrue(all.isExecuted(2));
+        assertFalse(all.isExecuted(4));
+        assertEquals(4, all.getExecutedCount());
+    }
+
+    /**
+     * Test method for {@link InputExplorer#explore(int, int)}.
+     */
+    @Test
+    void testExploreForksAtStringOfInput() {
+        String[] program = {
+                "0010000000000010",  // LD into R0 the address of the string
+                "1111000000100010",  // TRAP - vector x22 - PUTS
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000000100",  // the address of the string
+                "0000000000111101",  // '='
+                "0000000000000000",  // input, the placeholder ends the string
+                "0000000000000000",  // the end of the string
+        };
+        InputExplorer explorer = new InputExplorer(program, 5);
+        InputExplorer.Result[] results = explorer.explore('a', 'c');
+
+        assertEquals(1, explorer.getPrefixInstructions());
+        for (int i = 0; i < results.length; i++) {
+            assertTrue(results[i].isHalted());
+            assertEquals("=" + (char) ('a' + i), results[i].getOutput());
+        }
+
+        // PUTSP: "==" then the input as one character, the high byte of which ends it
+        program[1] = "1111000000100100";
+        program[4] = "0011110100111101";
+        results = new InputExplorer(program, 5).explore('x', 'y');
+        assertEquals("==x", results[0].getOutput());
+        assertEquals("==y", results[1].getOutput());
+    }
+}
@@ -0,0 +1,424 @@
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The MacroBenchmark runs a suite of complete LC-3 programs, shaped like the
+ * programs the simulator is given, from loading to HALT on every execution engine.
+ * For each workload and engine it reports the instructions per second, the bytes
+ * allocated per instruction, as counted by the AllocationProbe, and the mean time to
+ * HALT.
+ *
+ * The results can be saved as a baseline file. A later run given that baseline
+ * fails, with exit status 1, when the throughput of any workload on any engine has
+ * dropped by more than the threshold.
+ *
+ * Usage: java MacroBenchmark [--save file] [--baseline file] [--threshold percent] [--seconds s]
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class MacroBenchmark {
+
+    private final static double DEFAULT_THRESHOLD = 10;
+    private final static double DEFAULT_SECONDS = 1;
+
+    /**
+     * The programs of the suite.
+     */
+    public enum Workload {
+        /** The countdown of Simulator.main, printing 9 to 1, repeated 40 times. */
+        COUNTDOWN(2042,
+                "0010011000001011",  // LD into R3 x28 - the repetitions
+                "0010000000001011",  // OUTER: LD into R0 x39 which is ASCII 9
+                "0010001000001011",  // LD into R1 x30
+                "0001010000000001",  // ADD R2 <- R0 + R1 ; R2 is the counter
+                "0000010000000100",  // TOP: BR if zero skip down to DONE
+                "1111000000100001",  // TRAP - vector x21 - OUT R0
+                "0001000000111111",  // ADD - decrement R0 - the character
+                "0001010010111111",  // ADD - decrement R2 - the counter
+                "0000111111111011",  // BR - Loop back to TOP
+                "0001011011111111",  // DONE: ADD R3 <- R3 - 1
+                "0000001111110110",  // BRp OUTER
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000101000",  // x28
+                "0000000000111001",  // x39
+                "1111111111010000"), // x30
+        /** x123 times 40 by repeated ADD, repeated 40 times. */
+        MULTIPLY(5002,
+                "0010110000001001",  // LD into R6 x28 - the repetitions
+                "0101010010100000",  // OUTER: AND R2 <- 0 - the product
+                "0010000000001000",  // LD into R0 x123
+                "0010001000000110",  // LD into R1 x28 - the multiplier
+                "0001010010000000",  // LOOP: ADD R2 <- R2 + R0
+                "0001001001111111",  // ADD R1 <- R1 - 1
+                "0000001111111101",  // BRp LOOP
+                "0001110110111111",  // ADD R6 <- R6 - 1
+                "0000001111111000",  // BRp OUTER
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000101000",  // x28
+                "0000000100100011"), // x123
+        /** The 1 bits and the 0 bits of x2D3B counted, by clearing the lowest 1, 40 times. */
+        BIT_COUNT(2803,
+                "0010000000010000",  // LD into R0 x28 - the repetitions
+                "0010100000010000",  // LD into R4 x2D3B - the word
+                "0101001100000100",  // OUTER: AND R1 <- R4 AND R4
+                "0000010000000100",  // BRz ZEROS
+                "0001011011100001",  // ONES: ADD R3 <- R3 + 1
+                "0001010001111111",  // ADD R2 <- R1 - 1
+                "0101001001000010",  // AND R1 <- R1 AND R2 - clear the lowest 1
+                "0000101111111100",  // BRnp ONES
+                "1001001100111111",  // ZEROS: NOT R1 <- R4
+                "0000010000000100",  // BRz NEXT
+                "0001101101100001",  // LOOP: ADD R5 <- R5 + 1
+                "0001010001111111",  // ADD R2 <- R1 - 1
+                "0101001001000010",  // AND R1 <- R1 AND R2 - clear the lowest 1
+                "0000101111111100",  // BRnp LOOP
+                "0001000000111111",  // NEXT: ADD R0 <- R0 - 1
+                "0000001111110010",  // BRp OUTER
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000101000",  // x28
+                "0010110100111011"), // x2D3B
+        /** The alphabet and a newline written by OUT, 40 times. */
+        ALPHABET(4402,
+                "0010001000001011",  // LD into R1 x28 - the lines
+                "0010000000001011",  // LINE: LD into R0 x41 which is ASCII A
+                "0010010000001011",  // LD into R2 x1A - the letters
+                "1111000000100001",  // CHAR: TRAP - vector x21 - OUT R0
+                "0001000000100001",  // ADD R0 <- R0 + 1
+                "0001010010111111",  // ADD R2 <- R2 - 1
+                "0000001111111100",  // BRp CHAR
+                "0010000000000111",  // LD into R0 x0A which is a newline
+                "1111000000100001",  // TRAP - vector x21 - OUT R0
+                "0001001001111111",  // ADD R1 <- R1 - 1
+                "0000001111110110",  // BRp LINE
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000101000",  // x28
+                "0000000001000001",  // x41
+                "0000000000011010",  // x1A
+                "0000000000001010"), // x0A
+        /** Four nested loops of 40 iterations each. */
+        NESTED_LOOPS(5_316_922,
+                "0010001000001100",  // LD into R1 x28 - outer counter
+                "0010010000001011",  // OUTER: LD into R2 x28
+                "0010011000001010",  // MID: LD into R3 x28
+                "0010100000001001",  // INNER: LD into R4 x28
+                "0001100100111111",  // LOOP: ADD R4 <- R4 - 1
+                "0000001111111110",  // BRp LOOP
+                "0001011011111111",  // ADD R3 <- R3 - 1
+                "0000001111111011",  // BRp INNER
+                "0001010010111111",  // ADD R2 <- R2 - 1
+                "0000001111111000",  // BRp MID
+                "0001001001111111",  // ADD R1 <- R1 - 1
+                "0000001111110101",  // BRp OUTER
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000101000"); // x28
+
+        private final long mInstructions;
+        private final String[] mProgram;
+
+        Workload(final long theInstructions, final String... theProgram) {
+            mInstructions = theInstructions;
+            mProgram = theProgram;
+        }
+
+        /**
+         * @return the number of instructions one run retires, up to and including the HALT
+         */
+        public long getInstructions() {
+            return mInstructions;
+        }
+
+        /**
+         * @return the machine code program, as Strings
+         */
+        public String[] getProgram() {
+            return mProgram.clone();
+        }
+    }
+
+    /**
+     * The engines a workload can run on.
+     */
+    public enum Engine {
+        /** Computer.execute(). */
+        INTERPRETER,
+        /** TieredExecutor.execute(), with its default threshold. */
+        TIERED;
+
+        // runs theComputer from its PC to the HALT
+        void execute(final Computer theComputer) {
+            if (this == INTERPRETER) {
+                theComputer.execute();
+            } else {
+                new TieredExecutor(theComputer).execute();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Options options = Options.parse(args);
+        final String save = options.getSave();
+        final String baseline = options.getBaseline();
+        final double threshold = options.getThreshold();
+        final double seconds = options.getSeconds();
+
+        final List<Result> results = new ArrayList<>();
+        System.out.printf("%-13s %-12s %16s %12s %14s%n",
+                "workload", "engine", "instructions/s", "bytes/instr", "ms to HALT");
+        for (Workload workload : Workload.values()) {
+            for (Engine engine : Engine.values()) {
+                final Result result = measure(workload, engine, (long) (seconds * 1e9));
+                results.add(result);
+                System.out.printf("%-13s %-12s %16.0f %12.3f %14.3f%n", workload, engine,
+                        result.getInstructionsPerSecond(), result.getBytesPerInstruction(),
+                        result.getNanosToHalt() / 1e6);
+            }
+        }
+
+        if (save != null) {
+            try (Writer out = new FileWriter(save)) {
+                toProperties(results).store(out, "MacroBenchmark baseline");
+            }
+        }
+        if (baseline != null) {
+            final Properties properties = new Properties();
+            try (Reader in = new FileReader(baseline)) {
+                properties.load(in);
+            }
+            final List<String> regressions = regressions(results, properties, threshold);
+            for (String regression : regressions) {
+                System.out.println(regression);
+            }
+            if (!regressions.isEmpty()) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Runs theWorkload on theEngine, after as long a warm up, until at least
+     * theMinNanos have been spent executing. Only the execution to HALT is timed
+     * and counted; creating the computer and loading the program are not.
+     * @param theWorkload the program to run
+     * @param theEngine the engine to run it on
+     * @param theMinNanos the execution time to measure for
+     * @return the measurements
+     * @throws IllegalStateException if a run does not retire the workload's instructions
+     */
+    public static Result measure(final Workload theWorkload, final Engine theEngine, final long theMinNanos) {
+        final StringBuilder output = new StringBuilder();
+        for (int pass = 0; pass < 2; pass++) {
+            long runs = 0;
+            long nanos = 0;
+            long bytes = 0;
+            while (nanos < theMinNanos || runs == 0) {
+                final Computer computer = new Computer();
+                computer.loadMachineCode(theWorkload.mProgram);
+                output.setLength(0);
+                computer.setOutput(output);
+
+                final long allocated = AllocationProbe.allocatedBytes();
+                final long start = System.nanoTime();
+                theEngine.execute(computer);
+                nanos += System.nanoTime() - start;
+                bytes += AllocationProbe.allocatedBytes() - allocated;
+                runs++;
+
+                if (computer.getInstructionCount() != theWorkload.mInstructions) {
+                    throw new IllegalStateException(theWorkload + " on " + theEngine + " retired "
+                            + computer.getInstructionCount() + " instructions");
+                }
+            }
+            if (pass == 1) { // the first pass only warms up the JIT
+                return new Result(theWorkload, theEngine, runs, nanos, bytes);
+            }
+        }
+        throw new AssertionError();
+    }
+
+    /**
+     * @param theResults the measurements
+     * @return the instructions per second of each result, keyed by workload.engine
+     */
+    static Properties toProperties(final List<Result> theResults) {
+        final Properties properties = new Properties();
+        for (Result result : theResults) {
+            properties.setProperty(result.key(), String.valueOf(Math.round(result.getInstructionsPerSecond())));
+        }
+        return properties;
+    }
+
+    /**
+     * Compares the throughput of theResults with a saved baseline.
+     * @param theResults the measurements
+     * @param theBaseline the instructions per second saved by an earlier run
+     * @param theThreshold the drop in throughput, as a percentage, that counts as a regression
+     * @return a line describing each result slower than allowed; empty if there is none
+     */
+    static List<String> regressions(final List<Result> theResults, final Properties theBaseline,
+                                    final double theThreshold) {
+        final List<String> regressions = new ArrayList<>();
+        for (Result result : theResults) {
+            final String saved = theBaseline.getProperty(result.key());
+            if (saved == null) {
+                continue; // a workload or engine the baseline predates
+            }
+            final double before = Double.parseDouble(saved);
+            final double after = result.getInstructionsPerSecond();
+            if (after < before * (1 - theThreshold / 100)) {
+                regressions.add(String.format("REGRESSION %s: %.0f instructions/s, %.1f%% below the baseline %.0f",
+                        result.key(), after, 100 * (before - after) / before, before));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * The options of a run from the command line.
+     */
+    static final class Options {
+        private String mSave;
+        private String mBaseline;
+        private double mThreshold = DEFAULT_THRESHOLD;
+        private double mSeconds = DEFAULT_SECONDS;
+
+        /**
+         * @param theArgs the command line: options, each followed by its value
+         * @return the options
+         * @throws IllegalArgumentException if an option is unknown, has no value, or
+         *         has a value out of range
+         */
+        static Options parse(final String[] theArgs) {
+            final Options options = new Options();
+            for (int i = 0; i < theArgs.length; i += 2) {
+                final String option = theArgs[i];
+                if (!option.equals("--save") && !option.equals("--baseline")
+                        && !option.equals("--threshold") && !option.equals("--seconds")) {
+                    throw new IllegalArgumentException("Unknown option: " + option);
+                }
+                if (i + 1 == theArgs.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                final String value = theArgs[i + 1];
+                if (option.equals("--save")) {
+                    options.mSave = value;
+                } else if (option.equals("--baseline")) {
+                    options.mBaseline = value;
+                } else if (option.equals("--threshold")) {
+                    options.mThreshold = Double.parseDouble(value);
+                    if (!(options.mThreshold >= 0 && options.mThreshold < 100)) {
+                        throw new IllegalArgumentException("Invalid threshold: " + value);
+                    }
+                } else {
+                    options.mSeconds = Double.parseDouble(value);
+                    if (!(options.mSeconds > 0)) {
+                        throw new IllegalArgumentException("Invalid seconds: " + value);
+                    }
+                }
+            }
+            return options;
+        }
+
+        /**
+         * @return the file to save the results to as a baseline, or null
+         */
+        String getSave() {
+            return mSave;
+        }
+
+        /**
+         * @return the baseline file to compare the results with, or null
+         */
+        String getBaseline() {
+            return mBaseline;
+        }
+
+        /**
+         * @return the drop in throughput, as a percentage, that counts as a regression
+         */
+        double getThreshold() {
+            return mThreshold;
+        }
+
+        /**
+         * @return the seconds to measure each workload on each engine for
+         */
+        double getSeconds() {
+            return mSeconds;
+        }
+    }
+
+    /**
+     * The measurements of one workload on one engine.
+     */
+    public static final class Result {
+
+        private final Workload mWorkload;
+        private final Engine mEngine;
+        private final long mRuns;
+        private final long mNanos;
+        private final long mBytes;
+
+        Result(final Workload theWorkload, final Engine theEngine, final long theRuns,
+               final long theNanos, final long theBytes) {
+            mWorkload = theWorkload;
+            mEngine = theEngine;
+            mRuns = theRuns;
+            mNanos = theNanos;
+            mBytes = theBytes;
+        }
+
+        // the name the result is saved under in a baseline
+        private String key() {
+            return mWorkload + "." + mEngine;
+        }
+
+        /**
+         * @return the workload
+         */
+        public Workload getWorkload() {
+            return mWorkload;
+        }
+
+        /**
+         * @return the engine
+         */
+        public Engine getEngine() {
+            return mEngine;
+        }
+
+        /**
+         * @return the runs measured
+         */
+        public long getRuns() {
+            return mRuns;
+        }
+
+        /**
+         * @return the instructions retired per second of execution
+         */
+        public double getInstructionsPerSecond() {
+            return mRuns * mWorkload.mInstructions * 1e9 / mNanos;
+        }
+
+        /**
+         * @return the bytes allocated per instruction retired
+         */
+        public double getBytesPerInstruction() {
+            return (double) mBytes / (mRuns * mWorkload.mInstructions);
+        }
+
+        /**
+         * @return the mean nanoseconds from the start of execution to the HALT
+         */
+        public double getNanosToHalt() {
+            return (double) mNanos / mRuns;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Unit tests for the MacroBenchmark class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class MacroBenchmarkTest {
+
+    // a result of theInstructionsPerSecond, as one run of MULTIPLY on theEngine
+    private static MacroBenchmark.Result result(final MacroBenchmark.Engine theEngine,
+                                                final double theInstructionsPerSecond) {
+        long instructions = MacroBenchmark.Workload.MULTIPLY.getInstructions();
+        return new MacroBenchmark.Result(MacroBenchmark.Workload.MULTIPLY, theEngine, 1,
+                Math.round(instructions * 1e9 / theInstructionsPerSecond), 0);
+    }
+
+    /**
+     * Test method for {@link MacroBenchmark#regressions(List, Properties, double)}.
+     */
+    @Test
+    void testRegressionsUseThreshold() throws IOException {
+        Properties baseline = MacroBenchmark.toProperties(List.of(
+                result(MacroBenchmark.Engine.INTERPRETER, 100_000_000),
+                result(MacroBenchmark.Engine.TIERED, 400_000_000)));
+        StringWriter saved = new StringWriter();
+        baseline.store(saved, "MacroBenchmark baseline");
+        Properties loaded = new Properties();
+        loaded.load(new StringReader(saved.toString()));
+        assertEquals("100000000", loaded.getProperty("MULTIPLY.INTERPRETER"));
+
+        // 8% and 20% slower: only the second is past a 10% threshold
+        List<MacroBenchmark.Result> slower = List.of(
+                result(MacroBenchmark.Engine.INTERPRETER, 92_000_000),
+                result(MacroBenchmark.Engine.TIERED, 320_000_000));
+        List<String> regressions = MacroBenchmark.regressions(slower, loaded, 10);
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).startsWith("REGRESSION MULTIPLY.TIERED"), regressions.get(0));
+        assertEquals(2, MacroBenchmark.regressions(slower, loaded, 5).size());
+        assertTrue(MacroBenchmark.regressions(slower, loaded, 25).isEmpty());
+
+        // faster results, and workloads the baseline predates, never regress
+        assertTrue(MacroBenchmark.regressions(List.of(result(MacroBenchmark.Engine.TIERED, 900_000_000)),
+                loaded, 0).isEmpty());
+        assertTrue(MacroBenchmark.regressions(slower, new Properties(), 0).isEmpty());
+    }
+
+    /**
+     * Test method for {@link MacroBenchmark.Options#parse(String[])}.
+     */
+    @Test
+    void testOptions() {
+        MacroBenchmark.Options options = MacroBenchmark.Options.parse(new String[] {
+                "--baseline", "base.properties", "--threshold", "5", "--seconds", "0.5"});
+        assertEquals("base.properties", options.getBaseline());
+        assertNull(options.getSave());
+        assertEquals(5.0, options.getThreshold());
+        assertEquals(0.5, options.getSeconds());
+        assertEquals(10.0, MacroBenchmark.Options.parse(new String[0]).getThreshold());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> MacroBenchmark.Options.parse(new String[] {"--save", "a", "--baseline"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> MacroBenchmark.Options.parse(new String[] {"--verbose"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> MacroBenchmark.Options.parse(new String[] {"--threshold", "-1"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> MacroBenchmark.Options.parse(new String[] {"--seconds", "0"}));
+    }
+}
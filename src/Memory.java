@@ -0,0 +1,159 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * The Memory class holds the 16 bit words of an LC-3 memory. A Memory can be shared
+ * by several cores running on different host threads: every word is read and
+ * written as a single atomic operation on its own, so cores never wait on each
+ * other for a lock, and compareAndSet and getAndAdd give them atomic
+ * read-modify-write operations on one word.
+ *
+ * A Memory can also be forked into a copy-on-write snapshot. The words are kept
+ * in pages of 256, and the fork and the original share every page until one of
+ * them writes to it; the writer then copies just that page. A fork costs a copy of
+ * the page table, and each page it writes costs a copy of 256 words. A fork can
+ * itself be shared by cores, which may write to a shared page at the same time:
+ * the page is copied once for all of them. Forking is the one operation that must
+ * not overlap a write.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class Memory {
+
+    private final static int MAX_SIZE = 65536;
+    private final static int WORD_MASK = 0xFFFF;
+    private final static int PAGE_BITS = 8;
+    private final static int PAGE_SIZE = 1 << PAGE_BITS;
+    private final static int OFFSET_MASK = PAGE_SIZE - 1;
+
+    private final static VarHandle WORDS = MethodHandles.arrayElementVarHandle(int[].class);
+    private final static VarHandle PAGES = MethodHandles.arrayElementVarHandle(int[][].class);
+
+    private final int mSize;
+    private final int[][] mPages;   // the words, a page at a time
+    private final int[][] mPrivate; // the pages of mPages not shared with a fork, or null
+
+    /**
+     * Creates a memory of theSize words, all 0.
+     * @param theSize the number of words
+     */
+    public Memory(final int theSize) {
+        if (theSize <= 0 || theSize > MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid memory size");
+        }
+        mSize = theSize;
+        mPages = new int[(theSize + OFFSET_MASK) >>> PAGE_BITS][];
+        mPrivate = new int[mPages.length][];
+        for (int i = 0; i < mPages.length; i++) {
+            mPages[i] = new int[Math.min(PAGE_SIZE, theSize - (i << PAGE_BITS))];
+            mPrivate[i] = mPages[i];
+        }
+    }
+
+    /**
+     * @return the number of words
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Reads a word. A write by another thread is seen by every read that follows it.
+     * @param theAddress the address to read
+     * @return the unsigned 16 bit value of the word
+     */
+    public int get(final int theAddress) {
+        final int[] page = (int[]) PAGES.getAcquire(mPages, theAddress >>> PAGE_BITS);
+        return (int) WORDS.getAcquire(page, theAddress & OFFSET_MASK);
+    }
+
+    /**
+     * Writes a word.
+     * @param theAddress the address to write
+     * @param theValue the value, of which only the low 16 bits are kept
+     */
+    public void set(final int theAddress, final int theValue) {
+        WORDS.setRelease(writable(theAddress), theAddress & OFFSET_MASK, theValue & WORD_MASK);
+    }
+
+    /**
+     * Atomically replaces a word if it still holds the expected value.
+     * @param theAddress the address to write
+     * @param theExpected the value the word must hold
+     * @param theValue the new value, of which only the low 16 bits are kept
+     * @return true if the word was replaced
+     */
+    public boolean compareAndSet(final int theAddress, final int theExpected, final int theValue) {
+        return WORDS.compareAndSet(writable(theAddress), theAddress & OFFSET_MASK,
+                theExpected & WORD_MASK, theValue & WORD_MASK);
+    }
+
+    /**
+     * Atomically adds to a word, wrapping around at 16 bits.
+     * @param theAddress the address to update
+     * @param theDelta the amount to add
+     * @return the value the word held before
+     */
+    public int getAndAdd(final int theAddress, final int theDelta) {
+        final int[] page = writable(theAddress);
+        final int offset = theAddress & OFFSET_MASK;
+        int old;
+        do {
+            old = (int) WORDS.getAcquire(page, offset);
+        } while (!WORDS.weakCompareAndSet(page, offset, old, (old + theDelta) & WORD_MASK));
+        return old;
+    }
+
+    /**
+     * Returns a copy-on-write snapshot of this memory. Neither this memory nor the
+     * fork copies a page until it writes to it. Forking is not atomic with respect
+     * to writes, so the memory must not be written by another thread meanwhile:
+     * fork a machine whose cores are stopped.
+     * @return the fork
+     */
+    public Memory fork() {
+        Arrays.fill(mPrivate, null);
+        return new Memory(mSize, mPages.clone());
+    }
+
+    // a fork sharing thePages with the memory it came from
+    private Memory(final int theSize, final int[][] thePages) {
+        mSize = theSize;
+        mPages = thePages;
+        mPrivate = new int[thePages.length][];
+    }
+
+    /**
+     * @return the pages this memory has not shared with a fork since it last forked
+     */
+    int privatePages() {
+        int count = 0;
+        for (int[] page : mPrivate) {
+            if (page != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // the page holding theAddress, copied first if it is shared with a fork. Cores
+    // writing a shared page at once each copy it, but only the copy that makes it
+    // into mPrivate is used, and it is in mPages before any of them writes to it.
+    private int[] writable(final int theAddress) {
+        final int index = theAddress >>> PAGE_BITS;
+        int[] page = (int[]) PAGES.getAcquire(mPrivate, index);
+        if (page == null) {
+            final int[] copy = ((int[]) PAGES.getAcquire(mPages, index)).clone();
+            page = (int[]) PAGES.compareAndExchange(mPrivate, index, null, copy);
+            if (page == null) {
+                page = copy;
+            }
+        }
+        if (PAGES.getAcquire(mPages, index) != page) {
+            PAGES.setRelease(mPages, index, page);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Unit tests for the Memory class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class MemoryTest {
+
+    /**
+     * Test method for {@link Memory#fork()}.
+     */
+    @Test
+    void testForkCopiesOnlyWrittenPages() {
+        Memory memory = new Memory(65536);
+        memory.set(0x3100, 1);
+        Memory fork = memory.fork();
+        assertEquals(0, memory.privatePages());
+        assertEquals(0, fork.privatePages());
+
+        fork.set(0x3101, 2);
+        fork.getAndAdd(0x31FF, 3); // the same page
+        assertEquals(1, fork.privatePages());
+        assertEquals(0, memory.get(0x3101));
+        assertEquals(1, fork.get(0x3100));
+
+        memory.compareAndSet(0x3100, 1, 4);
+        memory.set(0xFFFF, 5);
+        assertEquals(2, memory.privatePages());
+        assertEquals(1, fork.get(0x3100));
+        assertEquals(0, fork.get(0xFFFF));
+        assertEquals(3, fork.get(0x31FF));
+
+        Memory small = new Memory(50);
+        small.fork().set(49, 6);
+        assertEquals(0, small.get(49));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> small.get(50));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> small.fork().set(-1, 0));
+    }
+
+    /**
+     * Test method for {@link Memory#fork()}.
+     */
+    @Test
+    void testForkWrittenByCores() throws InterruptedException {
+        int cores = 4;
+        for (int round = 0; round < 20; round++) {
+            Memory memory = new Memory(65536);
+            memory.set(0xFF00, 7);
+            Memory fork = memory.fork();
+            CyclicBarrier start = new CyclicBarrier(cores);
+            Thread[] threads = new Thread[cores];
+            for (int t = 0; t < cores; t++) {
+                int core = t;
+                threads[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    // every core writes its own word of each page, all sharing the page at first
+                    for (int page = 0; page < 256; page++) {
+                        fork.getAndAdd(page * 256 + 1 + core, 1);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (int page = 0; page < 256; page++) {
+                for (int core = 0; core < cores; core++) {
+                    assertEquals(1, fork.get(page * 256 + 1 + core));
+                    assertEquals(0, memory.get(page * 256 + 1 + core));
+                }
+            }
+            assertEquals(7, fork.get(0xFF00));
+            assertEquals(256, fork.privatePages());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * The MultiCoreBenchmark measures how the throughput of a MultiCoreComputer scales
+ * with its number of cores. Every core runs the same four nested countdown loops,
+ * so the work per core stays fixed and ideal scaling doubles the aggregate
+ * instructions per second each time the cores double.
+ *
+ * Usage: java MultiCoreBenchmark [maxCores]
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class MultiCoreBenchmark {
+
+    // Four nested loops of 40 iterations each, about 5.3 million instructions.
+    private static final String[] NESTED_LOOPS = {
+            "0010001000001100",  // LD into R1 x28 - outer counter
+            "0010010000001011",  // OUTER: LD into R2 x28
+            "0010011000001010",  // MID: LD into R3 x28
+            "0010100000001001",  // INNER: LD into R4 x28
+            "0001100100111111",  // LOOP: ADD R4 <- R4 - 1
+            "0000001111111110",  // BRp LOOP
+            "0001011011111111",  // ADD R3 <- R3 - 1
+            "0000001111111011",  // BRp INNER
+            "0001010010111111",  // ADD R2 <- R2 - 1
+            "0000001111111000",  // BRp MID
+            "0001001001111111",  // ADD R1 <- R1 - 1
+            "0000001111110101",  // BRp OUTER
+            "1111000000100101",  // TRAP - vector x25 - HALT
+            "0000000000101000",  // x28
+    };
+
+    public static void main(String[] args) throws InterruptedException {
+        final int maxCores = args.length > 0
+                ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+
+        run(1); // warm up the JIT before measuring
+
+        System.out.printf("%5s %12s %16s %8s%n", "cores", "millis", "instructions/s", "speedup");
+        double single = 0;
+        for (int cores = 1; cores <= maxCores; cores *= 2) {
+            final long start = System.nanoTime();
+            final long instructions = run(cores);
+            final long nanos = System.nanoTime() - start;
+            final double perSecond = instructions * 1e9 / nanos;
+            if (cores == 1) {
+                single = perSecond;
+            }
+            System.out.printf("%5d %12.1f %16.0f %8.2f%n", cores, nanos / 1e6, perSecond, perSecond / single);
+        }
+    }
+
+    // runs the loops on theCores cores at once and returns the instructions retired
+    private static long run(final int theCores) throws InterruptedException {
+        final MultiCoreComputer machine = new MultiCoreComputer(theCores);
+        machine.loadMachineCode(NESTED_LOOPS);
+        machine.execute();
+        return machine.getInstructionCount();
+    }
+}
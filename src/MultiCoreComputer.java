@@ -0,0 +1,141 @@
+/**
+ * The MultiCoreComputer is an LC-3 machine with several cores sharing one Memory.
+ * Each core is a Computer with its own registers, PC, IR and CC. The cores can run
+ * at the same time on host threads of their own, or deterministically, with one
+ * host thread taking one instruction from each core in turn.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class MultiCoreComputer {
+
+    private final static int DEFAULT_MEMORY = 50;
+
+    private final Memory mMemory;
+    private final Computer[] mCores;
+
+    /**
+     * Creates a machine with theCores cores sharing 50 words of memory.
+     * @param theCores the number of cores
+     */
+    public MultiCoreComputer(final int theCores) {
+        this(theCores, DEFAULT_MEMORY);
+    }
+
+    /**
+     * Creates a machine with theCores cores sharing theMemorySize words of memory.
+     * @param theCores the number of cores
+     * @param theMemorySize the number of words of shared memory
+     */
+    public MultiCoreComputer(final int theCores, final int theMemorySize) {
+        if (theCores <= 0) {
+            throw new IllegalArgumentException("Invalid number of cores");
+        }
+        mMemory = new Memory(theMemorySize);
+        mCores = new Computer[theCores];
+        for (int i = 0; i < theCores; i++) {
+            mCores[i] = new Computer(mMemory);
+        }
+    }
+
+    /**
+     * Loads a machine code program, as Strings, into the shared memory.
+     * @param theWords the Strings that contain the instructions or data.
+     */
+    public void loadMachineCode(final String ... theWords) {
+        mCores[0].loadMachineCode(theWords);
+    }
+
+    /**
+     * Sets the address a core starts executing at, so cores can run different
+     * parts of the program.
+     * @param theCore the core number
+     * @param theAddress the start address
+     */
+    public void startAt(final int theCore, final int theAddress) {
+        if (theAddress < 0 || theAddress >= mMemory.size()) {
+            throw new IllegalArgumentException("Invalid address");
+        }
+        mCores[theCore].jump(theAddress);
+    }
+
+    /**
+     * @return the number of cores
+     */
+    public int getCoreCount() {
+        return mCores.length;
+    }
+
+    /**
+     * @param theCore the core number
+     * @return the core, whose accessors show its registers, PC, IR and CC
+     */
+    public Computer getCore(final int theCore) {
+        return mCores[theCore];
+    }
+
+    /**
+     * @return the memory shared by the cores
+     */
+    public Memory getMemory() {
+        return mMemory;
+    }
+
+    /**
+     * @return the instructions retired by all cores together
+     */
+    public long getInstructionCount() {
+        long count = 0;
+        for (Computer core : mCores) {
+            count += core.getInstructionCount();
+        }
+        return count;
+    }
+
+    /**
+     * Runs every core on a host thread of its own until all of them have executed
+     * a HALT. If a core fails, the first failure is rethrown once every thread is done.
+     * @throws InterruptedException if interrupted while waiting for the cores
+     */
+    public void execute() throws InterruptedException {
+        final Thread[] threads = new Thread[mCores.length];
+        final RuntimeException[] failures = new RuntimeException[mCores.length];
+        for (int i = 0; i < mCores.length; i++) {
+            final int core = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    mCores[core].execute();
+                } catch (RuntimeException e) {
+                    failures[core] = e;
+                }
+            }, "lc3-core-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (RuntimeException failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Runs the cores round-robin on the calling thread, one instruction from each
+     * core that has not halted, in core order, until all of them have executed a
+     * HALT. The interleaving, and so the result, is the same on every run.
+     */
+    public void executeRoundRobin() {
+        final boolean[] halted = new boolean[mCores.length];
+        int running = mCores.length;
+        while (running > 0) {
+            for (int i = 0; i < mCores.length; i++) {
+                if (!halted[i] && mCores[i].executeNext()) {
+                    halted[i] = true;
+                    running--;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Unit tests for the MultiCoreComputer class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class MultiCoreComputerTest {
+
+    private static final String[] PROGRAM = {
+            "0010000000000011",  // LD into R0 x14
+            "0001000000111111",  // ADD R0 <- R0 - 1
+            "0000001111111110",  // BRp - Loop back
+            "1111000000100101",  // TRAP - vector x25 - HALT
+            "0000000000010100",  // x14
+    };
+
+    /**
+     * Test method for {@link MultiCoreComputer#executeRoundRobin()}.
+     */
+    @Test
+    void testExecuteRoundRobin() {
+        MultiCoreComputer machine = new MultiCoreComputer(3);
+        machine.loadMachineCode(PROGRAM);
+        machine.startAt(2, 3); // core 2 halts straight away
+        machine.executeRoundRobin();
+
+        assertEquals(1 + 2 * 20 + 1, machine.getCore(0).getInstructionCount());
+        assertEquals(1 + 2 * 20 + 1, machine.getCore(1).getInstructionCount());
+        assertEquals(1, machine.getCore(2).getInstructionCount());
+        assertEquals(0, machine.getCore(1).getRegisters()[0].get2sCompValue());
+        assertEquals(3, machine.getCore(2).getRegisters()[3].get2sCompValue());
+    }
+
+    /**
+     * Test method for {@link MultiCoreComputer#execute()}.
+     */
+    @Test
+    void testExecuteOnThreads() throws InterruptedException {
+        MultiCoreComputer machine = new MultiCoreComputer(4);
+        machine.loadMachineCode(PROGRAM);
+        machine.execute();
+
+        assertEquals(4 * 42, machine.getInstructionCount());
+        for (int i = 0; i < machine.getCoreCount(); i++) {
+            assertEquals(4, machine.getCore(i).getPC().getUnsignedValue());
+        }
+    }
+
+    /**
+     * Test method for {@link Memory#getAndAdd(int, int)}.
+     */
+    @Test
+    void testMemoryWrapsAround() {
+        Memory memory = new Memory(4);
+        memory.set(1, 0xFFFF);
+        assertEquals(0xFFFF, memory.getAndAdd(1, 2));
+        assertEquals(1, memory.get(1));
+        assertFalse(memory.compareAndSet(1, 0, 5));
+        assertTrue(memory.compareAndSet(1, 1, -1));
+        assertEquals(0xFFFF, memory.get(1));
+    }
+}
@@ -0,0 +1,23 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for a machine code program loaded into a Computer.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+@Name("lc3.ProgramLoad")
+@Label("Program Load")
+@Category("LC-3 Simulator")
+@Description("A machine code program loaded into memory")
+final class ProgramLoadEvent extends jdk.jfr.Event {
+
+    @Label("Words")
+    int words;
+
+    @Label("Memory Size")
+    int memorySize;
+}
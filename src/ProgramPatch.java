@@ -0,0 +1,110 @@
+import java.util.Arrays;
+
+/**
+ * The ProgramPatch is a set of word changes applied to the program already loaded
+ * in a Computer, so a small edit or a mutant of a program can be run without
+ * loading the whole program again. Loading a program writes every word and makes a
+ * TieredExecutor analyse all of its code again; a patch writes only the words that
+ * change, and the executor drops only the blocks holding them, each once, while
+ * every other block keeps its tier and decoded form.
+ *
+ * Applying a patch returns the patch that undoes it, so many mutants can be tried
+ * from one warm image:
+ *
+ *   ProgramPatch undo = new ProgramPatch().set(0x0002, 0x103F).apply(computer);
+ *   ... put back the registers and PC, and run the mutant ...
+ *   undo.apply(computer);
+ *
+ * A patch changes memory only: the registers, PC and CC are as the last run left
+ * them. Each word is written as loadWord writes it, so a modeled cache counts the
+ * write; only the executor hears about the words together.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public final class ProgramPatch {
+
+    private final static int WORD_MASK = 0xFFFF;
+
+    private int[] mAddresses = new int[4];
+    private int[] mWords = new int[4];
+    private int mSize;
+
+    /**
+     * Sets the word at theAddress to theWord, in place of any word this patch
+     * already set there.
+     * @param theAddress the address, checked against the memory the patch is applied to
+     * @param theWord the word, x0000 to xFFFF
+     * @return this patch
+     */
+    public ProgramPatch set(final int theAddress, final int theWord) {
+        if ((theWord & ~WORD_MASK) != 0) {
+            throw new IllegalArgumentException("Invalid word");
+        }
+        for (int i = 0; i < mSize; i++) {
+            if (mAddresses[i] == theAddress) {
+                mWords[i] = theWord;
+                return this;
+            }
+        }
+        if (mSize == mAddresses.length) {
+            mAddresses = Arrays.copyOf(mAddresses, mSize * 2);
+            mWords = Arrays.copyOf(mWords, mSize * 2);
+        }
+        mAddresses[mSize] = theAddress;
+        mWords[mSize] = theWord;
+        mSize++;
+        return this;
+    }
+
+    /**
+     * Sets the word at theAddress to the 16 bits of theWord.
+     * @param theAddress the address
+     * @param theWord the word, as machine code
+     * @return this patch
+     */
+    public ProgramPatch set(final int theAddress, final String theWord) {
+        final BitString word = new BitString();
+        word.setBits(theWord.toCharArray());
+        return set(theAddress, word.getUnsignedValue());
+    }
+
+    /**
+     * @return the number of words the patch sets
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Writes the words of this patch that differ from theComputer's memory. If any
+     * address is outside its memory nothing is written.
+     * @param theComputer the computer holding the program
+     * @return the patch that puts back the words this one changed
+     */
+    public ProgramPatch apply(final Computer theComputer) {
+        final Memory memory = theComputer.memory();
+        for (int i = 0; i < mSize; i++) {
+            if (mAddresses[i] < 0 || mAddresses[i] >= memory.size()) {
+                throw new IllegalArgumentException("Invalid address");
+            }
+        }
+        final ProgramPatch undo = new ProgramPatch();
+        final int[] addresses = new int[mSize];
+        final int[] words = new int[mSize];
+        int changed = 0;
+        for (int i = 0; i < mSize; i++) {
+            final int old = memory.get(mAddresses[i]);
+            if (old != mWords[i]) {
+                undo.set(mAddresses[i], old);
+                addresses[changed] = mAddresses[i];
+                words[changed] = mWords[i];
+                changed++;
+            }
+        }
+        if (changed > 0) {
+            theComputer.patch(addresses, words, changed);
+        }
+        return undo;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Unit tests for the ProgramPatch class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class ProgramPatchTest {
+
+    private static final int[] START_REGISTERS = {0, 1, 2, 3, 4, 5, 6, 7};
+
+    /**
+     * Test method for {@link ProgramPatch#apply(Computer)}.
+     */
+    @Test
+    void testPatchKeepsOtherBlocksWarm() {
+        Computer computer = new Computer();
+        computer.loadMachineCode(TestPrograms.countLoop());
+        TieredExecutor executor = new TieredExecutor(computer, 10);
+        executor.execute();
+        assertEquals(1, executor.getPromotions());
+
+        // the count is data, outside every block: the decoded loop is kept
+        ProgramPatch undo = new ProgramPatch().set(5, 100).apply(computer);
+        assertEquals(1, undo.size());
+        assertEquals(0, executor.getDemotions());
+        rerun(computer, executor);
+        assertEquals(1, executor.getPromotions());
+        assertSameAs(patched(TestPrograms.countLoop(), 5, 100), computer);
+
+        // both ADDs are in the loop, which is dropped once
+        ProgramPatch mutant = new ProgramPatch()
+                .set(1, "0001001001100011")  // ADD R1 <- R1 + 3
+                .set(2, "0001000000111110"); // ADD R0 <- R0 - 2
+        ProgramPatch undoMutant = mutant.apply(computer);
+        assertEquals(1, executor.getDemotions());
+        rerun(computer, executor);
+        assertSameAs(patched(patched(patched(TestPrograms.countLoop(), 5, 100), 1, 0x1263), 2, 0x103E), computer);
+
+        undoMutant.apply(computer);
+        undo.apply(computer);
+        rerun(computer, executor);
+        assertSameAs(TestPrograms.countLoop(), computer);
+        assertEquals(0, new ProgramPatch().set(1, 0x1261).apply(computer).size()); // already there
+    }
+
+    /**
+     * Test method for {@link ProgramPatch#apply(Computer)}.
+     */
+    @Test
+    void testMutantsMatchFreshLoads() {
+        Computer computer = new Computer();
+        computer.loadMachineCode(TestPrograms.countLoop());
+        TieredExecutor executor = new TieredExecutor(computer, 10);
+        executor.execute();
+
+        for (int imm = 0; imm < 32; imm++) { // every immediate of the ADD to R1
+            runMutant(computer, executor, 1, 0x1260 | imm);
+        }
+        for (int step = 1; step <= 16; step++) { // every decrement of R0
+            runMutant(computer, executor, 2, 0x1020 | (-step & 0x1F));
+        }
+        for (int count = -3; count <= 60; count += 7) {
+            runMutant(computer, executor, 5, count & 0xFFFF);
+        }
+
+        rerun(computer, executor);
+        assertSameAs(TestPrograms.countLoop(), computer);
+    }
+
+    /**
+     * Test method for {@link ProgramPatch#set(int, int)}.
+     */
+    @Test
+    void testInvalidUse() {
+        Computer computer = new Computer();
+        computer.loadMachineCode(TestPrograms.countLoop());
+        ProgramPatch patch = new ProgramPatch().set(1, 0x1262).set(1, 0x1263);
+        assertEquals(1, patch.size());
+        assertThrows(IllegalArgumentException.class, () -> patch.set(2, 0x10000));
+        assertThrows(IllegalArgumentException.class, () -> patch.set(2, -1));
+
+        // nothing is written when any address is outside memory
+        patch.set(computer.memorySize(), 0);
+        assertThrows(IllegalArgumentException.class, () -> patch.apply(computer));
+        assertEquals(0x1261, computer.wordAt(1));
+
+        assertEquals(0, new ProgramPatch().apply(computer).size());
+        computer.execute();
+        assertEquals(41, computer.registerValue(1));
+
+        // patched words are written as loadWord writes them
+        CacheModel cache = new CacheModel(16, 1, 4, CacheModel.Policy.LRU);
+        computer.setCache(cache);
+        new ProgramPatch().set(1, 0x1262).set(2, 0x103E).apply(computer);
+        assertEquals(2, cache.getWrites());
+    }
+
+    // runs the program with theWord at theAddress, checks it against a fresh load, and undoes it
+    private static void runMutant(final Computer theComputer, final TieredExecutor theExecutor,
+                                  final int theAddress, final int theWord) {
+        final ProgramPatch undo = new ProgramPatch().set(theAddress, theWord).apply(theComputer);
+        rerun(theComputer, theExecutor);
+        assertSameAs(patched(TestPrograms.countLoop(), theAddress, theWord), theComputer);
+        undo.apply(theComputer);
+    }
+
+    // runs the program again from the state a load leaves
+    private static void rerun(final Computer theComputer, final TieredExecutor theExecutor) {
+        theComputer.restore(START_REGISTERS, 0, 0, 0, theComputer.getInstructionCount());
+        theExecutor.execute();
+    }
+
+    // checks theComputer against a fresh interpreter run of theProgram
+    private static void assertSameAs(final String[] theProgram, final Computer theComputer) {
+        final Computer reference = new Computer();
+        reference.loadMachineCode(theProgram);
+        reference.execute();
+        for (int r = 0; r < 8; r++) {
+            assertEquals(reference.registerValue(r), theComputer.registerValue(r));
+        }
+        assertEquals(reference.programCounter(), theComputer.programCounter());
+        assertEquals(reference.conditionCode(), theComputer.conditionCode());
+        for (int i = 0; i < theProgram.length; i++) {
+            assertEquals(reference.wordAt(i), theComputer.wordAt(i));
+        }
+    }
+
+    // theProgram with theWord at theAddress
+    private static String[] patched(final String[] theProgram, final int theAddress, final int theWord) {
+        final String[] program = theProgram.clone();
+        program[theAddress] = String.format("%16s", Integer.toBinaryString(theWord)).replace(' ', '0');
+        return program;
+    }
+}
@@ -0,0 +1,358 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * The ResultReader reads back a file written by a ResultWriter, one record at a
+ * time. It holds one chunk of records at most, and of that chunk only the columns
+ * asked for, so filtering a large file on, say, the halt reason only inflates the
+ * halt reason column. Output texts and memory images are only read when asked for.
+ *
+ *   try (ResultReader results = new ResultReader(file)) {
+ *       while (results.next()) {
+ *           if (results.getHaltReason() == HaltReason.ERROR) {
+ *               System.out.println(results.getProgramId() + ": " + results.getOutput());
+ *           }
+ *       }
+ *   }
+ *
+ * A reader belongs to one thread.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public final class ResultReader implements Closeable {
+
+    private final static int TRAILER_BYTES = 8 + 4;
+    private final static HaltReason[] REASONS = HaltReason.values();
+
+    private final FileChannel mChannel;
+    private final long[] mChunkOffsets;
+    private final int[] mChunkRows;
+    private final long[] mBlobOffsets;
+    private final long mRecords;
+
+    private final Inflater mInflater = new Inflater();
+    private final ByteBuffer mHeader = ByteBuffer.allocate(8);
+    private byte[] mDeflated = new byte[0];
+    private final ByteBuffer[] mColumns = new ByteBuffer[ResultWriter.COLUMNS]; // inflated, or null
+    private final long[] mColumnOffsets = new long[ResultWriter.COLUMNS];
+    private int mChunk = -1;
+    private int mRow = -1; // the row within the chunk
+    private long mRecord = -1;
+
+    // the last output text and memory image read, as the same ones tend to follow each other
+    private int mOutputBlob = -1;
+    private String mOutput;
+    private int mMemoryBlob = -1;
+    private int[] mMemory;
+
+    /**
+     * Opens theFile and reads its footer.
+     * @param theFile a file written by a ResultWriter
+     * @throws IOException if the file cannot be read or is not a closed result file
+     */
+    public ResultReader(final Path theFile) throws IOException {
+        mChannel = FileChannel.open(theFile, StandardOpenOption.READ);
+        try {
+            final long size = mChannel.size();
+            if (size < 6 + TRAILER_BYTES) {
+                throw new IOException("Truncated result file");
+            }
+            final ByteBuffer header = read(0, 6);
+            if (header.getInt() != ResultWriter.MAGIC) {
+                throw new IOException("Not a result file");
+            }
+            final short version = header.getShort();
+            if (version != ResultWriter.VERSION) {
+                throw new IOException("Unsupported result file version " + version);
+            }
+            final ByteBuffer trailer = read(size - TRAILER_BYTES, TRAILER_BYTES);
+            final long footer = trailer.getLong();
+            if (trailer.getInt() != ResultWriter.MAGIC || footer < 6 || footer > size - TRAILER_BYTES - 8) {
+                throw new IOException("Result file was not closed");
+            }
+            final ByteBuffer buffer = read(footer, (int) (size - TRAILER_BYTES - footer));
+            final int chunks = buffer.getInt();
+            if (chunks < 0 || chunks > buffer.remaining() / 12) {
+                throw new IOException("Invalid chunk count " + chunks);
+            }
+            mChunkOffsets = new long[chunks];
+            mChunkRows = new int[chunks];
+            long records = 0;
+            for (int i = 0; i < chunks; i++) {
+                mChunkOffsets[i] = buffer.getLong();
+                mChunkRows[i] = buffer.getInt();
+                if (mChunkRows[i] <= 0 || mChunkRows[i] > ResultWriter.CHUNK_ROWS
+                        || mChunkOffsets[i] < 6 || mChunkOffsets[i] >= footer) {
+                    throw new IOException("Invalid chunk " + i);
+                }
+                records += mChunkRows[i];
+            }
+            mRecords = records;
+            final int blobs = buffer.getInt();
+            if (blobs < 0 || blobs != buffer.remaining() / 8) {
+                throw new IOException("Invalid blob count " + blobs);
+            }
+            mBlobOffsets = new long[blobs];
+            for (int i = 0; i < blobs; i++) {
+                mBlobOffsets[i] = buffer.getLong();
+                if (mBlobOffsets[i] < 6 || mBlobOffsets[i] >= footer) {
+                    throw new IOException("Invalid blob " + i);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            mChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the records in the file
+     */
+    public long getRecordCount() {
+        return mRecords;
+    }
+
+    /**
+     * @return the distinct output texts and memory images in the file
+     */
+    public int getBlobCount() {
+        return mBlobOffsets.length;
+    }
+
+    /**
+     * Moves on to the next record; the first call moves to the first record.
+     * @return true if there is a record; false once they have all been read
+     * @throws IOException if the file cannot be read
+     */
+    public boolean next() throws IOException {
+        if (mRecord + 1 >= mRecords) {
+            mRecord = mRecords;
+            return false;
+        }
+        mRecord++;
+        mRow++;
+        if (mChunk < 0 || mRow == mChunkRows[mChunk]) {
+            openChunk(mChunk + 1);
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of the current record, counting from 0
+     */
+    public long getRecord() {
+        return mRecord;
+    }
+
+    /**
+     * @return the program id the run was appended under
+     * @throws IOException if the file cannot be read
+     */
+    public long getProgramId() throws IOException {
+        return column(ResultWriter.COLUMN_ID).getLong(mRow * 8);
+    }
+
+    /**
+     * @param theRegister the register number
+     * @return the final 2's complement value of the register
+     * @throws IOException if the file cannot be read
+     */
+    public int getRegister(final int theRegister) throws IOException {
+        if (theRegister < 0 || theRegister >= ResultWriter.REGISTERS) {
+            throw new IllegalArgumentException("Invalid register " + theRegister);
+        }
+        return column(ResultWriter.COLUMN_R0 + theRegister).getShort(mRow * 2);
+    }
+
+    /**
+     * @return the final PC
+     * @throws IOException if the file cannot be read
+     */
+    public int getPC() throws IOException {
+        return column(ResultWriter.COLUMN_PC).getShort(mRow * 2) & 0xFFFF;
+    }
+
+    /**
+     * @return the final CC, as nzp bits; 0 if no instruction set it
+     * @throws IOException if the file cannot be read
+     */
+    public int getCC() throws IOException {
+        return column(ResultWriter.COLUMN_CC).get(mRow);
+    }
+
+    /**
+     * @return the instructions retired by the run
+     * @throws IOException if the file cannot be read
+     */
+    public long getInstructionCount() throws IOException {
+        return column(ResultWriter.COLUMN_INSTRUCTIONS).getLong(mRow * 8);
+    }
+
+    /**
+     * @return why the run ended
+     * @throws IOException if the file cannot be read or holds an unknown reason
+     */
+    public HaltReason getHaltReason() throws IOException {
+        final int reason = column(ResultWriter.COLUMN_HALT).get(mRow);
+        if (reason < 0 || reason >= REASONS.length) {
+            throw new IOException("Invalid halt reason " + reason);
+        }
+        return REASONS[reason];
+    }
+
+    /**
+     * @return everything written by the output traps during the run
+     * @throws IOException if the file cannot be read
+     */
+    public String getOutput() throws IOException {
+        final int blob = column(ResultWriter.COLUMN_OUTPUT).getInt(mRow * 4);
+        if (blob != mOutputBlob) {
+            mOutput = new String(readBlob(blob), StandardCharsets.UTF_16BE);
+            mOutputBlob = blob;
+        }
+        return mOutput;
+    }
+
+    /**
+     * @return every word of the final memory, as unsigned values, in an array the caller may keep
+     * @throws IOException if the file cannot be read
+     */
+    public int[] getMemory() throws IOException {
+        final int blob = column(ResultWriter.COLUMN_MEMORY).getInt(mRow * 4);
+        if (blob != mMemoryBlob) {
+            final ByteBuffer image = ByteBuffer.wrap(readBlob(blob));
+            mMemory = new int[image.remaining() / 2];
+            for (int i = 0; i < mMemory.length; i++) {
+                mMemory[i] = image.getShort() & 0xFFFF;
+            }
+            mMemoryBlob = blob;
+        }
+        return mMemory.clone();
+    }
+
+    /**
+     * @return the number of the output text of the run; runs that wrote the same text share it
+     * @throws IOException if the file cannot be read
+     */
+    public int getOutputBlob() throws IOException {
+        return column(ResultWriter.COLUMN_OUTPUT).getInt(mRow * 4);
+    }
+
+    /**
+     * @return the number of the final memory image of the run; runs that ended with the same image share it
+     * @throws IOException if the file cannot be read
+     */
+    public int getMemoryBlob() throws IOException {
+        return column(ResultWriter.COLUMN_MEMORY).getInt(mRow * 4);
+    }
+
+    @Override
+    public void close() throws IOException {
+        mInflater.end();
+        mChannel.close();
+    }
+
+    // reads the column lengths of chunk theChunk, leaving its columns to be inflated when asked for
+    private void openChunk(final int theChunk) throws IOException {
+        mChunk = theChunk;
+        mRow = 0;
+        long offset = mChunkOffsets[theChunk];
+        if (read(offset, 4).getInt() != mChunkRows[theChunk]) {
+            throw new IOException("Chunk " + theChunk + " does not match the footer");
+        }
+        offset += 4;
+        for (int i = 0; i < ResultWriter.COLUMNS; i++) {
+            mColumns[i] = null;
+            mColumnOffsets[i] = offset;
+            final int deflated = read(offset, 4).getInt();
+            if (deflated < 0) {
+                throw new IOException("Invalid column length " + deflated);
+            }
+            offset += 4 + deflated;
+        }
+    }
+
+    // the inflated column theColumn of the current chunk
+    private ByteBuffer column(final int theColumn) throws IOException {
+        if (mRow < 0 || mRecord >= mRecords) {
+            throw new IllegalStateException("No current record");
+        }
+        ByteBuffer column = mColumns[theColumn];
+        if (column == null) {
+            final long offset = mColumnOffsets[theColumn];
+            final int deflated = read(offset, 4).getInt();
+            column = ByteBuffer.wrap(inflate(offset + 4, deflated,
+                    mChunkRows[mChunk] * ResultWriter.WIDTHS[theColumn]));
+            mColumns[theColumn] = column;
+        }
+        return column;
+    }
+
+    private byte[] readBlob(final int theBlob) throws IOException {
+        if (theBlob < 0 || theBlob >= mBlobOffsets.length) {
+            throw new IOException("Invalid blob " + theBlob);
+        }
+        final ByteBuffer header = read(mBlobOffsets[theBlob], 8);
+        final int inflated = header.getInt();
+        final int deflated = header.getInt();
+        if (inflated < 0 || deflated < 0) {
+            throw new IOException("Invalid blob " + theBlob);
+        }
+        return inflate(mBlobOffsets[theBlob] + 8, deflated, inflated);
+    }
+
+    // inflates theDeflated bytes at theOffset, which must come to theInflated bytes
+    private byte[] inflate(final long theOffset, final int theDeflated, final int theInflated) throws IOException {
+        if (mDeflated.length < theDeflated) {
+            mDeflated = new byte[theDeflated];
+        }
+        final ByteBuffer in = ByteBuffer.wrap(mDeflated, 0, theDeflated);
+        fill(theOffset, in);
+        final byte[] out = new byte[theInflated + 1]; // room to notice more bytes than there should be
+        mInflater.reset();
+        mInflater.setInput(mDeflated, 0, theDeflated);
+        try {
+            int length = 0;
+            while (!mInflater.finished() && length < out.length) {
+                final int n = mInflater.inflate(out, length, out.length - length);
+                if (n == 0 && (mInflater.needsInput() || mInflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != theInflated || !mInflater.finished()) {
+                throw new IOException("Corrupt result file at " + theOffset);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt result file at " + theOffset, e);
+        }
+        return Arrays.copyOf(out, theInflated);
+    }
+
+    private ByteBuffer read(final long theOffset, final int theLength) throws IOException {
+        final ByteBuffer buffer = theLength <= mHeader.capacity() ? mHeader.clear().limit(theLength)
+                : ByteBuffer.allocate(theLength);
+        fill(theOffset, buffer);
+        return buffer.flip();
+    }
+
+    private void fill(final long theOffset, final ByteBuffer theBuffer) throws IOException {
+        long offset = theOffset;
+        while (theBuffer.hasRemaining()) {
+            final int n = mChannel.read(theBuffer, offset);
+            if (n < 0) {
+                throw new IOException("Truncated result file");
+            }
+            offset += n;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * The ResultWriter streams the results of a batch of runs to a file, so a corpus of
+ * programs can be run without holding every result in the heap. Each run is one
+ * fixed-width record: program id, R0 to R7, PC, CC, instructions retired, halt
+ * reason, and references to its output and final memory image. Records are read
+ * back with a ResultReader.
+ *
+ * The file is columnar and append-only. Records are buffered in chunks of 4096,
+ * and a full chunk is written column by column, each column deflated on its own,
+ * so a reader can inflate just the columns it looks at. Output texts and memory
+ * images are deflated blobs, each written once however many runs produce the same
+ * content; runs refer to them by number. Blobs are matched on their SHA-256 digest.
+ * A footer written by close() locates the chunks and blobs:
+ *
+ *   int   magic "LC3R"
+ *   short version
+ *   then chunks and blobs in the order they were written:
+ *     chunk: int rows, then per column: int deflated length, then the bytes
+ *     blob:  int inflated length, int deflated length, then the bytes
+ *   footer: int chunks, then per chunk: long offset, int rows
+ *           int blobs, then per blob: long offset
+ *   long  footer offset
+ *   int   magic "LC3R"
+ *
+ * Column values are big-endian. A file whose writer was never closed has no
+ * footer and cannot be read. A writer belongs to one thread.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public final class ResultWriter implements Closeable {
+
+    final static int MAGIC = 0x4C433352; // "LC3R"
+    final static short VERSION = 1;
+    final static int CHUNK_ROWS = 4096;
+    final static int REGISTERS = 8;
+
+    // the columns, in the order they are written, and their widths in bytes
+    final static int COLUMN_ID = 0;
+    final static int COLUMN_R0 = 1;
+    final static int COLUMN_PC = COLUMN_R0 + REGISTERS;
+    final static int COLUMN_CC = COLUMN_PC + 1;
+    final static int COLUMN_INSTRUCTIONS = COLUMN_CC + 1;
+    final static int COLUMN_HALT = COLUMN_INSTRUCTIONS + 1;
+    final static int COLUMN_OUTPUT = COLUMN_HALT + 1;
+    final static int COLUMN_MEMORY = COLUMN_OUTPUT + 1;
+    final static int COLUMNS = COLUMN_MEMORY + 1;
+    final static int[] WIDTHS = {8, 2, 2, 2, 2, 2, 2, 2, 2, 2, 1, 8, 1, 4, 4};
+
+    private final FileChannel mChannel;
+    private final ByteBuffer[] mColumns = new ByteBuffer[COLUMNS];
+    private int mRows; // rows in the chunk being filled
+    private final ByteBuffer mHeader = ByteBuffer.allocate(8);
+    private final Deflater mDeflater = new Deflater();
+    private byte[] mDeflated = new byte[CHUNK_ROWS * 8];
+    private byte[] mImage = new byte[0]; // the memory image being stored
+    private final MessageDigest mDigest;
+    private final Map<ByteBuffer, Integer> mBlobs = new HashMap<>();
+    private final List<Long> mBlobOffsets = new ArrayList<>();
+    private final List<Long> mChunkOffsets = new ArrayList<>();
+    private final List<Integer> mChunkRows = new ArrayList<>();
+    private long mPosition;
+    private long mRecords;
+    private boolean mClosed;
+
+    /**
+     * Creates theFile, replacing anything already there, and writes its header.
+     * @param theFile the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public ResultWriter(final Path theFile) throws IOException {
+        try {
+            mDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every Java platform has SHA-256
+        }
+        for (int i = 0; i < COLUMNS; i++) {
+            mColumns[i] = ByteBuffer.allocate(CHUNK_ROWS * WIDTHS[i]);
+        }
+        mChannel = FileChannel.open(theFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        final ByteBuffer header = ByteBuffer.allocate(6);
+        header.putInt(MAGIC).putShort(VERSION).flip();
+        write(header);
+    }
+
+    /**
+     * Appends the result of one run.
+     * @param theProgramId the number the caller knows the program by
+     * @param theResult the result of the run
+     * @throws IOException if the file cannot be written
+     */
+    public void append(final long theProgramId, final ExecutionResult theResult) throws IOException {
+        ensureOpen();
+        final int size = theResult.getMemorySize();
+        final byte[] image = image(size);
+        for (int i = 0; i < size; i++) {
+            image[2 * i] = (byte) (theResult.getWord(i) >>> 8);
+            image[2 * i + 1] = (byte) theResult.getWord(i);
+        }
+        final int memory = blob(image, size * 2);
+        final int output = text(theResult.getOutput());
+        row(theProgramId, theResult.getPC(), theResult.getCC(), theResult.getInstructionCount(),
+                theResult.getHaltReason(), output, memory);
+        for (int r = 0; r < REGISTERS; r++) {
+            mColumns[COLUMN_R0 + r].putShort((short) theResult.getRegister(r));
+        }
+        endRow();
+    }
+
+    /**
+     * Appends the result of a process that has been retired, under its id.
+     * @param theProcess the process
+     * @throws IOException if the file cannot be written
+     */
+    public void append(final Scheduler.Process theProcess) throws IOException {
+        if (!theProcess.isRetired()) {
+            throw new IllegalArgumentException("Process " + theProcess.getId() + " has not been retired");
+        }
+        ensureOpen();
+        final Computer computer = theProcess.getComputer();
+        final Memory source = computer.memory();
+        final int size = source.size();
+        final byte[] image = image(size);
+        for (int i = 0; i < size; i++) {
+            final int word = source.get(i);
+            image[2 * i] = (byte) (word >>> 8);
+            image[2 * i + 1] = (byte) word;
+        }
+        final int memory = blob(image, size * 2);
+        final int output = text(theProcess.getOutput());
+        row(theProcess.getId(), computer.programCounter(), computer.conditionCode(),
+                computer.getInstructionCount(), theProcess.getHaltReason(), output, memory);
+        for (int r = 0; r < REGISTERS; r++) {
+            mColumns[COLUMN_R0 + r].putShort((short) computer.registerValue(r));
+        }
+        endRow();
+    }
+
+    /**
+     * @return the records appended
+     */
+    public long getRecordCount() {
+        return mRecords;
+    }
+
+    /**
+     * @return the distinct output texts and memory images stored
+     */
+    public int getBlobCount() {
+        return mBlobOffsets.size();
+    }
+
+    /**
+     * @return the bytes written to the file so far
+     */
+    public long getBytesWritten() {
+        return mPosition;
+    }
+
+    /**
+     * Writes the chunk being filled and the footer, and closes the file.
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (mClosed) {
+            return;
+        }
+        mClosed = true;
+        try {
+            flushChunk();
+            final long footer = mPosition;
+            final ByteBuffer buffer = ByteBuffer.allocate(4 + mChunkOffsets.size() * 12
+                    + 4 + mBlobOffsets.size() * 8 + 8 + 4);
+            buffer.putInt(mChunkOffsets.size());
+            for (int i = 0; i < mChunkOffsets.size(); i++) {
+                buffer.putLong(mChunkOffsets.get(i)).putInt(mChunkRows.get(i));
+            }
+            buffer.putInt(mBlobOffsets.size());
+            for (long offset : mBlobOffsets) {
+                buffer.putLong(offset);
+            }
+            buffer.putLong(footer).putInt(MAGIC).flip();
+            write(buffer);
+        } finally {
+            mDeflater.end();
+            mChannel.close();
+        }
+    }
+
+    // fills in every column of the next row but the registers
+    private void row(final long theProgramId, final int thePC, final int theCC, final long theInstructions,
+                     final HaltReason theReason, final int theOutput, final int theMemory) {
+        mColumns[COLUMN_ID].putLong(theProgramId);
+        mColumns[COLUMN_PC].putShort((short) thePC);
+        mColumns[COLUMN_CC].put((byte) theCC);
+        mColumns[COLUMN_INSTRUCTIONS].putLong(theInstructions);
+        mColumns[COLUMN_HALT].put((byte) theReason.ordinal());
+        mColumns[COLUMN_OUTPUT].putInt(theOutput);
+        mColumns[COLUMN_MEMORY].putInt(theMemory);
+    }
+
+    private void ensureOpen() {
+        if (mClosed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+    }
+
+    private void endRow() throws IOException {
+        mRows++;
+        mRecords++;
+        if (mRows == CHUNK_ROWS) {
+            flushChunk();
+        }
+    }
+
+    // a scratch array for a memory image of theSize words
+    private byte[] image(final int theSize) {
+        if (mImage.length < theSize * 2) {
+            mImage = new byte[theSize * 2];
+        }
+        return mImage;
+    }
+
+    private int text(final String theText) throws IOException {
+        final byte[] bytes = theText.getBytes(StandardCharsets.UTF_16BE);
+        return blob(bytes, bytes.length);
+    }
+
+    // the number of the blob holding theLength bytes of theContent, written if it is new
+    private int blob(final byte[] theContent, final int theLength) throws IOException {
+        mDigest.update(theContent, 0, theLength);
+        final ByteBuffer key = ByteBuffer.wrap(mDigest.digest());
+        final Integer known = mBlobs.get(key);
+        if (known != null) {
+            return known;
+        }
+        final int number = mBlobOffsets.size();
+        mBlobs.put(key, number);
+        mBlobOffsets.add(mPosition);
+        final int deflated = deflate(theContent, theLength);
+        mHeader.clear();
+        mHeader.putInt(theLength).putInt(deflated).flip();
+        write(mHeader);
+        write(ByteBuffer.wrap(mDeflated, 0, deflated));
+        return number;
+    }
+
+    // writes the rows buffered so far as a chunk
+    private void flushChunk() throws IOException {
+        if (mRows == 0) {
+            return;
+        }
+        mChunkOffsets.add(mPosition);
+        mChunkRows.add(mRows);
+        mHeader.clear();
+        mHeader.putInt(mRows).flip();
+        write(mHeader);
+        for (ByteBuffer column : mColumns) {
+            final int deflated = deflate(column.array(), column.position());
+            mHeader.clear();
+            mHeader.putInt(deflated).flip();
+            write(mHeader);
+            write(ByteBuffer.wrap(mDeflated, 0, deflated));
+            column.clear();
+        }
+        mRows = 0;
+    }
+
+    // deflates theLength bytes of theContent into mDeflated and returns the deflated length
+    private int deflate(final byte[] theContent, final int theLength) {
+        mDeflater.reset();
+        mDeflater.setInput(theContent, 0, theLength);
+        mDeflater.finish();
+        int length = 0;
+        while (!mDeflater.finished()) {
+            if (length == mDeflated.length) {
+                final byte[] larger = new byte[mDeflated.length * 2];
+                System.arraycopy(mDeflated, 0, larger, 0, length);
+                mDeflated = larger;
+            }
+            length += mDeflater.deflate(mDeflated, length, mDeflated.length - length);
+        }
+        return length;
+    }
+
+    private void write(final ByteBuffer theBuffer) throws IOException {
+        while (theBuffer.hasRemaining()) {
+            mPosition += mChannel.write(theBuffer);
+        }
+    }
+}
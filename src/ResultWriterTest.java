@@ -0,0 +1,147 @@
+/*
+ * Unit tests for the ResultWriter and ResultReader classes.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class ResultWriterTest {
+
+    private static final String[] FOREVER = {
+            "0101000000100000",  // AND R0 <- 0
+            "0000111111111111",  // BR - to itself, forever
+    };
+
+    /**
+     * Test method for {@link Scheduler#setResultWriter(ResultWriter)}.
+     */
+    @Test
+    void testSchedulerStreamsRetiredProcesses() throws IOException {
+        Path file = Files.createTempFile("results", ".lc3r");
+        try {
+            Scheduler scheduler = new Scheduler(10);
+            scheduler.submit(TestPrograms.countLoop());
+            scheduler.submit(100, FOREVER);
+            scheduler.submit(TestPrograms.countLoop());
+            scheduler.submit("1101000000000000"); // an illegal opcode
+            scheduler.submit(TestPrograms.countLoop());
+            try (ResultWriter writer = new ResultWriter(file)) {
+                scheduler.setResultWriter(writer);
+                scheduler.run();
+                assertEquals(5, writer.getRecordCount());
+            }
+
+            try (ResultReader reader = new ResultReader(file)) {
+                assertEquals(5, reader.getRecordCount());
+                assertEquals(4, reader.getBlobCount()); // one output, three memory images
+                boolean[] seen = new boolean[5];
+                while (reader.next()) {
+                    int id = (int) reader.getProgramId();
+                    Scheduler.Process process = scheduler.getProcesses().get(id);
+                    seen[id] = true;
+                    assertEquals(process.getHaltReason(), reader.getHaltReason());
+                    assertEquals(process.getInstructions(), reader.getInstructionCount());
+                    assertEquals(process.getComputer().programCounter(), reader.getPC());
+                    assertEquals(process.getComputer().conditionCode(), reader.getCC());
+                    for (int r = 0; r < 8; r++) {
+                        assertEquals(process.getComputer().registerValue(r), reader.getRegister(r));
+                    }
+                    int[] memory = reader.getMemory();
+                    assertEquals(process.getComputer().memorySize(), memory.length);
+                    for (int i = 0; i < memory.length; i++) {
+                        assertEquals(process.getComputer().wordAt(i), memory[i]);
+                    }
+                    assertEquals("", reader.getOutput());
+                }
+                for (boolean processSeen : seen) {
+                    assertTrue(processSeen);
+                }
+                assertFalse(reader.next());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test method for {@link ResultReader#next()}.
+     */
+    @Test
+    void testRecordsSpanChunks() throws IOException {
+        int runs = 5000; // more than one chunk of 4096
+        int[] memory = new int[50];
+        memory[0] = 0xF025;
+        Path file = Files.createTempFile("results", ".lc3r");
+        try {
+            try (ResultWriter writer = new ResultWriter(file)) {
+                for (int i = 0; i < runs; i++) {
+                    int[] registers = {i, -i & 0xFFFF, 7, 0, 0, 0, 0, i % 3};
+                    writer.append(1_000_000 + i, new ExecutionResult(registers, 1, 0xF025, 1 << (i % 3),
+                            memory.clone(), i % 2 == 0 ? "even" : "odd✓", i,
+                            i % 10 == 0 ? HaltReason.BUDGET : HaltReason.HALT, null));
+                }
+                assertEquals(3, writer.getBlobCount());
+                assertTrue(writer.getBytesWritten() < runs * 38L / 4);
+            }
+
+            try (ResultReader reader = new ResultReader(file)) {
+                assertEquals(runs, reader.getRecordCount());
+                int budget = 0;
+                while (reader.next()) {
+                    if (reader.getHaltReason() == HaltReason.BUDGET) {
+                        budget++;
+                        int i = (int) reader.getRecord();
+                        assertEquals(1_000_000 + i, reader.getProgramId());
+                        assertEquals(i, reader.getRegister(0) & 0xFFFF);
+                        assertEquals((short) -i, reader.getRegister(1));
+                        assertEquals(i % 3, reader.getRegister(7));
+                        assertEquals(1 << (i % 3), reader.getCC());
+                        assertEquals(i, reader.getInstructionCount());
+                        assertEquals(i % 2 == 0 ? "even" : "odd✓", reader.getOutput());
+                        assertTrue(Arrays.equals(memory, reader.getMemory()));
+                    }
+                }
+                assertEquals(runs / 10, budget);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test method for {@link ResultReader#ResultReader(Path)}.
+     */
+    @Test
+    void testInvalidUse() throws IOException {
+        Path file = Files.createTempFile("results", ".lc3r");
+        try {
+            ResultWriter writer = new ResultWriter(file);
+            Scheduler scheduler = new Scheduler();
+            Scheduler.Process process = scheduler.submit(TestPrograms.countLoop());
+            assertThrows(IllegalArgumentException.class, () -> writer.append(process));
+            scheduler.run();
+            writer.append(process);
+            writer.close();
+            assertThrows(IllegalStateException.class, () -> writer.append(process));
+
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 1)); // as if never closed
+            assertThrows(IOException.class, () -> new ResultReader(file));
+            bytes[0] = 'X';
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> new ResultReader(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The SamplingProfiler finds where simulated programs spend their time without
+ * counting every instruction. A background thread wakes up every so often and
+ * reads the PC each attached Computer publishes, so the execution loops pay
+ * nothing but opaque stores of the PC and instruction count they make anyway. A
+ * computer whose instruction count has not moved since the last look is not
+ * running, and is not sampled.
+ *
+ * The samples make up two profiles:
+ *   the flat profile, the samples that landed under each label;
+ *   the stack profile, the samples of each chain of frames, where a frame is
+ *     code an interrupt was taken in, outermost first, and the last frame is
+ *     the code running. The LC-3 subset simulated has no JSR or RET, so the
+ *     interrupts are the only calls.
+ * Addresses are shown through a SymbolTable when one is set, and in hex when not.
+ * The stack profile can be written in the collapsed-stack format that flame graph
+ * tools read, one "frame;frame;frame samples" line per stack.
+ *
+ * Decoded blocks of a TieredExecutor only publish the PC at their ends, so their
+ * samples land on the start of the next block. The PC and the frames are read one
+ * after the other, and frames are written in place, so a sample taken as interrupts
+ * start or return may see the frames of an instruction just before or after.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class SamplingProfiler implements AutoCloseable {
+
+    private final static long DEFAULT_INTERVAL_MICROS = 1_000;
+    private final static int ADDRESSES = 0x10000;
+
+    private final long mIntervalNanos;
+    private final List<Target> mTargets = new CopyOnWriteArrayList<>();
+    private volatile SymbolTable mSymbols = new SymbolTable();
+    private volatile boolean mRunning;
+    private Thread mThread;
+
+    // the samples, guarded by this: by address, and by stack with each address a char
+    private final long[] mFlat = new long[ADDRESSES];
+    private final Map<String, Long> mStacks = new HashMap<>();
+    private long mSamples;
+
+    /**
+     * Creates a profiler that samples every millisecond once started.
+     */
+    public SamplingProfiler() {
+        this(DEFAULT_INTERVAL_MICROS);
+    }
+
+    /**
+     * Creates a profiler.
+     * @param theIntervalMicros the microseconds between samples once started
+     */
+    public SamplingProfiler(final long theIntervalMicros) {
+        if (theIntervalMicros <= 0) {
+            throw new IllegalArgumentException("Invalid interval");
+        }
+        mIntervalNanos = theIntervalMicros * 1_000;
+    }
+
+    /**
+     * Starts sampling theComputer. It may be attached before or while it runs.
+     * @param theComputer the computer
+     */
+    public void attach(final Computer theComputer) {
+        mTargets.add(new Target(theComputer));
+    }
+
+    /**
+     * Stops sampling theComputer.
+     * @param theComputer the computer
+     */
+    public void detach(final Computer theComputer) {
+        mTargets.removeIf(target -> target.mComputer == theComputer);
+    }
+
+    /**
+     * Attributes addresses to the labels of theSymbols from now on, in the
+     * profiles already taken as well.
+     * @param theSymbols the labels
+     */
+    public void setSymbols(final SymbolTable theSymbols) {
+        mSymbols = theSymbols;
+    }
+
+    /**
+     * Starts the sampling thread, a daemon.
+     */
+    public synchronized void start() {
+        if (mThread != null) {
+            throw new IllegalStateException("Profiler already started");
+        }
+        mRunning = true;
+        mThread = new Thread(this::sampleUntilStopped, "lc3-sampling-profiler");
+        mThread.setDaemon(true);
+        mThread.start();
+    }
+
+    /**
+     * Stops the sampling thread and waits for it to end. The samples taken are kept.
+     */
+    public void stop() {
+        final Thread thread;
+        synchronized (this) {
+            thread = mThread;
+            mThread = null;
+            mRunning = false;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Stops the sampling thread.
+     */
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /**
+     * @return the samples taken
+     */
+    public synchronized long getSampleCount() {
+        return mSamples;
+    }
+
+    /**
+     * @param theAddress an address
+     * @return the samples taken with the PC at theAddress
+     */
+    public synchronized long getSamples(final int theAddress) {
+        return mFlat[theAddress];
+    }
+
+    /**
+     * @return the samples under each label, most first
+     */
+    public synchronized Map<String, Long> getFlatProfile() {
+        final SymbolTable symbols = mSymbols;
+        final Map<String, Long> profile = new HashMap<>();
+        for (int address = 0; address < ADDRESSES; address++) {
+            if (mFlat[address] != 0) {
+                profile.merge(symbols.labelOf(address), mFlat[address], Long::sum);
+            }
+        }
+        return sorted(profile);
+    }
+
+    /**
+     * @return the samples of each stack, as its labels outermost first joined by
+     *         semicolons, most first
+     */
+    public synchronized Map<String, Long> getStackProfile() {
+        final SymbolTable symbols = mSymbols;
+        final Map<String, Long> profile = new HashMap<>();
+        final StringBuilder frames = new StringBuilder();
+        for (Map.Entry<String, Long> stack : mStacks.entrySet()) {
+            frames.setLength(0);
+            final String addresses = stack.getKey();
+            for (int i = 0; i < addresses.length(); i++) {
+                if (i > 0) {
+                    frames.append(';');
+                }
+                frames.append(symbols.labelOf(addresses.charAt(i)));
+            }
+            profile.merge(frames.toString(), stack.getValue(), Long::sum);
+        }
+        return sorted(profile);
+    }
+
+    /**
+     * Writes the stack profile in the collapsed-stack format of flame graph tools.
+     * @param theOut where to write it
+     * @throws IOException if theOut cannot be written
+     */
+    public void writeCollapsed(final Appendable theOut) throws IOException {
+        for (Map.Entry<String, Long> stack : getStackProfile().entrySet()) {
+            theOut.append(stack.getKey()).append(' ').append(Long.toString(stack.getValue())).append('\n');
+        }
+    }
+
+    /**
+     * Drops the samples taken so far.
+     */
+    public synchronized void reset() {
+        Arrays.fill(mFlat, 0);
+        mStacks.clear();
+        mSamples = 0;
+    }
+
+    /**
+     * Samples every attached computer that has retired an instruction since it was
+     * last looked at. The sampling thread calls this once per interval.
+     */
+    synchronized void sample() {
+        for (Target target : mTargets) {
+            final Computer computer = target.mComputer;
+            final long count = computer.publishedInstructionCount();
+            if (count == target.mLastCount) {
+                continue;
+            }
+            target.mLastCount = count;
+            final int[] frames = computer.publishedFrames();
+            final int pc = computer.publishedPC();
+            final char[] stack = new char[frames.length + 1];
+            for (int i = 0; i < frames.length; i++) {
+                stack[i] = (char) frames[i];
+            }
+            stack[frames.length] = (char) pc;
+            mFlat[pc]++;
+            mStacks.merge(new String(stack), 1L, Long::sum);
+            mSamples++;
+        }
+    }
+
+    private void sampleUntilStopped() {
+        long next = System.nanoTime() + mIntervalNanos;
+        while (mRunning) {
+            final long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            sample();
+            next += mIntervalNanos;
+            if (next < System.nanoTime()) {
+                next = System.nanoTime() + mIntervalNanos; // fell behind; do not catch up in a burst
+            }
+        }
+    }
+
+    // theProfile with the most samples first
+    private static Map<String, Long> sorted(final Map<String, Long> theProfile) {
+        final List<Map.Entry<String, Long>> entries = new ArrayList<>(theProfile.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        final Map<String, Long> sorted = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            sorted.put(entry.getKey(), entry.getValue());
+        }
+        return sorted;
+    }
+
+    // a computer sampled, and its instruction count when it was last looked at
+    private static final class Target {
+        private final Computer mComputer;
+        private long mLastCount;
+
+        private Target(final Computer theComputer) {
+            mComputer = theComputer;
+            mLastCount = theComputer.publishedInstructionCount();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Unit tests for the SamplingProfiler and SymbolTable classes.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class SamplingProfilerTest {
+
+    /**
+     * Test method for {@link SamplingProfiler#getFlatProfile()}.
+     */
+    @Test
+    void testFlatProfileByLabel() throws IOException {
+        Path file = Files.createTempFile("program", ".sym");
+        try {
+            Files.write(file, List.of(
+                    "// Symbol table",
+                    "// Scope level 0:",
+                    "//\tSymbol Name       Page Address",
+                    "//\t----------------  ------------",
+                    "//\tSTART             0000",
+                    "//\tLOOP              0001",
+                    "//\tDONE              0004"));
+            SymbolTable symbols = SymbolTable.read(file);
+            assertEquals(3, symbols.size());
+            assertEquals("LOOP+2", symbols.nameOf(3));
+
+            Computer computer = new Computer();
+            computer.loadMachineCode(TestPrograms.countLoop());
+            SamplingProfiler profiler = new SamplingProfiler();
+            profiler.attach(computer);
+            profiler.sample(); // nothing has run yet
+            boolean halted = false;
+            while (!halted) {
+                halted = computer.executeNext();
+                profiler.sample();
+            }
+            profiler.sample(); // nothing has run since
+
+            assertEquals(122, profiler.getSampleCount());
+            assertEquals(40, profiler.getSamples(2));
+            assertEquals(Map.of("x0001", 40L, "x0002", 40L, "x0003", 40L, "x0004", 1L, "x0005", 1L),
+                    profiler.getFlatProfile());
+            profiler.setSymbols(symbols);
+            assertEquals(List.of("LOOP", "DONE"), List.copyOf(profiler.getFlatProfile().keySet()));
+            assertEquals(Long.valueOf(120), profiler.getFlatProfile().get("LOOP"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test method for {@link SamplingProfiler#writeCollapsed(Appendable)}.
+     */
+    @Test
+    void testStacksFollowInterrupts() throws IOException {
+        Computer computer = new Computer(new Memory(65536));
+        computer.memory().set(0, 0x1261); // MAIN: ADD R1 <- R1 + 1
+        computer.memory().set(1, 0x0FFE); // BRnzp MAIN
+        computer.memory().set(0x0180, 0x0200);
+        computer.memory().set(0x0200, 0x14A1); // TIMER: ADD R2 <- R2 + 1
+        computer.memory().set(0x0201, 0x8000); // RTI
+        EventScheduler events = new EventScheduler();
+        computer.setEventScheduler(events);
+        events.schedule(5, 0x80, 4);
+        SymbolTable symbols = new SymbolTable();
+        symbols.define("MAIN", 0);
+        symbols.define("TIMER", 0x0200);
+
+        SamplingProfiler profiler = new SamplingProfiler();
+        profiler.setSymbols(symbols);
+        profiler.attach(computer);
+        for (int i = 0; i < 9; i++) {
+            computer.executeNext();
+            profiler.sample();
+        }
+
+        assertEquals(Map.of("MAIN", 7L, "MAIN;TIMER", 2L), profiler.getStackProfile());
+        StringBuilder collapsed = new StringBuilder();
+        profiler.writeCollapsed(collapsed);
+        assertEquals("MAIN 7\nMAIN;TIMER 2\n", collapsed.toString());
+
+        profiler.detach(computer);
+        computer.executeNext();
+        profiler.sample();
+        assertEquals(9, profiler.getSampleCount());
+        profiler.reset();
+        assertEquals(0, profiler.getSampleCount());
+        assertTrue(profiler.getStackProfile().isEmpty());
+    }
+
+    /**
+     * Test method for {@link SamplingProfiler#start()}.
+     */
+    @Test
+    void testBackgroundThreadSamplesRunningComputer() {
+        Computer computer = new Computer();
+        computer.loadMachineCode(TestPrograms.nestedLoops());
+        try (SamplingProfiler profiler = new SamplingProfiler(50)) {
+            profiler.attach(computer);
+            profiler.start();
+            assertThrows(IllegalStateException.class, profiler::start);
+            computer.execute();
+            profiler.stop();
+
+            long samples = profiler.getSampleCount();
+            assertTrue(samples > 0);
+            long inProgram = 0;
+            for (int address = 0; address <= 13; address++) { // the PC is x000D once HALT retires
+                inProgram += profiler.getSamples(address);
+            }
+            assertEquals(samples, inProgram);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SamplingProfiler(0));
+        assertThrows(IllegalArgumentException.class, () -> new SymbolTable().define("A B", 0));
+    }
+}
@@ -0,0 +1,290 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The Scheduler time-slices many programs on the calling host thread, the way an
+ * operating system shares one processor between processes. Each process is a
+ * Computer of its own, with its own memory and output, and runs for a quantum of
+ * instructions before the next ready process gets its turn. The process holds all
+ * of its state, so a context switch only changes which Computer runs next.
+ *
+ * A process is retired when it halts, fails or uses up its instruction budget.
+ * The scheduler keeps the instructions and time of every process and of the run
+ * as a whole. With a ResultWriter set, each process's result is also streamed to
+ * it as the process is retired.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class Scheduler {
+
+    private final static int DEFAULT_QUANTUM = 1_000;
+    private final static long DEFAULT_BUDGET = 10_000_000;
+
+    private int mQuantum;
+    private final List<Process> mProcesses = new ArrayList<>();
+    private final ArrayDeque<Process> mReady = new ArrayDeque<>();
+    private long mContextSwitches;
+    private long mInstructions;
+    private long mNanos;
+    private ResultWriter mResults; // where retired processes are written, or null
+
+    /**
+     * Creates a scheduler with a quantum of 1000 instructions.
+     */
+    public Scheduler() {
+        this(DEFAULT_QUANTUM);
+    }
+
+    /**
+     * Creates a scheduler.
+     * @param theQuantum the instructions a process runs before the next one gets its turn
+     */
+    public Scheduler(final int theQuantum) {
+        setQuantum(theQuantum);
+    }
+
+    /**
+     * Changes the quantum, from the next turn on.
+     * @param theQuantum the instructions a process runs before the next one gets its turn
+     */
+    public void setQuantum(final int theQuantum) {
+        if (theQuantum <= 0) {
+            throw new IllegalArgumentException("Invalid quantum");
+        }
+        mQuantum = theQuantum;
+    }
+
+    /**
+     * @return the instructions a process runs before the next one gets its turn
+     */
+    public int getQuantum() {
+        return mQuantum;
+    }
+
+    /**
+     * Streams the result of each process to theResults as it is retired, from the
+     * next call to run() on. The caller closes theResults.
+     * @param theResults the writer, or null for none
+     */
+    public void setResultWriter(final ResultWriter theResults) {
+        mResults = theResults;
+    }
+
+    /**
+     * Adds a process running theProgram, with a budget of ten million instructions.
+     * @param theProgram the machine code program, as Strings
+     * @return the process
+     */
+    public Process submit(final String... theProgram) {
+        return submit(DEFAULT_BUDGET, theProgram);
+    }
+
+    /**
+     * Adds a process running theProgram.
+     * @param theBudget the instructions the process may retire before it is retired itself
+     * @param theProgram the machine code program, as Strings
+     * @return the process
+     */
+    public Process submit(final long theBudget, final String... theProgram) {
+        if (theBudget <= 0) {
+            throw new IllegalArgumentException("Invalid budget");
+        }
+        final Process process = new Process(mProcesses.size(), theBudget);
+        process.mComputer.loadMachineCode(theProgram);
+        mProcesses.add(process);
+        mReady.add(process);
+        return process;
+    }
+
+    /**
+     * Runs the ready processes in turn, a quantum at a time, until every one of
+     * them has been retired.
+     * @throws UncheckedIOException if a result cannot be written to the ResultWriter
+     */
+    public void run() {
+        final SimulatorMetrics metrics = SimulatorMetrics.get();
+        for (int i = 0; i < mReady.size(); i++) {
+            metrics.runStarted();
+        }
+        final long start = System.nanoTime();
+        long switchedAt = start;
+        while (!mReady.isEmpty()) {
+            final Process process = mReady.poll();
+            final long executed = process.runQuantum(mQuantum);
+            mInstructions += executed;
+            final long now = System.nanoTime();
+            process.mNanos += now - switchedAt;
+            switchedAt = now;
+            process.mComputer.publishMetrics();
+            if (process.mHaltReason == null) {
+                mReady.add(process);
+            } else {
+                metrics.runFinished(process.mHaltReason);
+                if (mResults != null) {
+                    try {
+                        mResults.append(process);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+            mContextSwitches++;
+        }
+        mNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * @return every process submitted, in submission order
+     */
+    public List<Process> getProcesses() {
+        return Collections.unmodifiableList(mProcesses);
+    }
+
+    /**
+     * @return the number of turns given to processes
+     */
+    public long getContextSwitches() {
+        return mContextSwitches;
+    }
+
+    /**
+     * @return the instructions retired by all processes together
+     */
+    public long getInstructions() {
+        return mInstructions;
+    }
+
+    /**
+     * @return the nanoseconds spent in run()
+     */
+    public long getNanos() {
+        return mNanos;
+    }
+
+    /**
+     * @return the instructions retired by all processes per second of run()
+     */
+    public double getInstructionsPerSecond() {
+        return mNanos == 0 ? 0 : mInstructions * 1e9 / mNanos;
+    }
+
+    /**
+     * One program run by the scheduler.
+     */
+    public static final class Process {
+
+        private final int mId;
+        private final long mBudget;
+        private final Computer mComputer = new Computer();
+        private final StringBuilder mOutput = new StringBuilder();
+        private HaltReason mHaltReason; // null while the process is ready
+        private RuntimeException mError;
+        private long mQuanta;
+        private long mNanos;
+
+        private Process(final int theId, final long theBudget) {
+            mId = theId;
+            mBudget = theBudget;
+            mComputer.setOutput(mOutput);
+        }
+
+        // runs up to theQuantum instructions, retiring the process if it ends,
+        // and returns the instructions retired
+        private long runQuantum(final int theQuantum) {
+            final Computer computer = mComputer;
+            final long start = computer.getInstructionCount();
+            final long limit = Math.min(theQuantum, mBudget - start);
+            mQuanta++;
+            try {
+                for (long i = 0; i < limit; i++) {
+                    if (computer.executeNext()) {
+                        mHaltReason = HaltReason.HALT;
+                        break;
+                    }
+                }
+                if (mHaltReason == null && computer.getInstructionCount() >= mBudget) {
+                    mHaltReason = HaltReason.BUDGET;
+                }
+            } catch (RuntimeException e) {
+                mHaltReason = HaltReason.ERROR;
+                mError = e;
+            }
+            return computer.getInstructionCount() - start;
+        }
+
+        /**
+         * @return the process number, counting submissions from 0
+         */
+        public int getId() {
+            return mId;
+        }
+
+        /**
+         * @return the computer the process runs on, whose accessors show its state
+         */
+        public Computer getComputer() {
+            return mComputer;
+        }
+
+        /**
+         * @return everything the process wrote through the output traps
+         */
+        public String getOutput() {
+            return mOutput.toString();
+        }
+
+        /**
+         * @return true once the process has halted, failed or used up its budget
+         */
+        public boolean isRetired() {
+            return mHaltReason != null;
+        }
+
+        /**
+         * @return why the process was retired, or null if it has not been
+         */
+        public HaltReason getHaltReason() {
+            return mHaltReason;
+        }
+
+        /**
+         * @return the exception that retired the process, or null
+         */
+        public RuntimeException getError() {
+            return mError;
+        }
+
+        /**
+         * @return the instructions the process retired
+         */
+        public long getInstructions() {
+            return mComputer.getInstructionCount();
+        }
+
+        /**
+         * @return the number of turns the process was given
+         */
+        public long getQuanta() {
+            return mQuanta;
+        }
+
+        /**
+         * @return the nanoseconds the process ran for, including its context switches
+         */
+        public long getNanos() {
+            return mNanos;
+        }
+
+        /**
+         * @return the instructions retired per second the process ran
+         */
+        public double getInstructionsPerSecond() {
+            return mNanos == 0 ? 0 : getInstructions() * 1e9 / mNanos;
+        }
+    }
+}
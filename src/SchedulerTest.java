@@ -0,0 +1,87 @@
+/*
+ * Unit tests for the Scheduler class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class SchedulerTest {
+
+    private static final String[] COUNTDOWN = {
+            "0010000000000011",  // LD into R0 x14
+            "0001000000111111",  // ADD R0 <- R0 - 1
+            "0000001111111110",  // BRp - Loop back
+            "1111000000100101",  // TRAP - vector x25 - HALT
+            "0000000000010100",  // x14
+    };
+
+    private static final String[] PRINT_NINE = {
+            "0010000000000010",  // LD into R0 x39 which is ASCII 9
+            "1111000000100001",  // TRAP - vector x21 - OUT
+            "1111000000100101",  // TRAP - vector x25 - HALT
+            "0000000000111001",  // x39
+    };
+
+    private static final String[] FOREVER = {
+            "0101000000100000",  // AND R0 <- 0
+            "0000111111111111",  // BR - to itself, forever
+    };
+
+    /**
+     * Test method for {@link Scheduler#run()}.
+     */
+    @Test
+    void testRunRetiresEveryProcess() {
+        Scheduler scheduler = new Scheduler(10);
+        Scheduler.Process countdown = scheduler.submit(COUNTDOWN);
+        Scheduler.Process print = scheduler.submit(PRINT_NINE);
+        Scheduler.Process forever = scheduler.submit(100, FOREVER);
+        Scheduler.Process illegal = scheduler.submit("1101000000000000");
+        scheduler.run();
+
+        assertEquals(HaltReason.HALT, countdown.getHaltReason());
+        assertEquals(42, countdown.getInstructions());
+        assertEquals(5, countdown.getQuanta());
+        assertEquals(0, countdown.getComputer().getRegisters()[0].get2sCompValue());
+
+        assertEquals(HaltReason.HALT, print.getHaltReason());
+        assertEquals("9", print.getOutput());
+        assertEquals(1, print.getQuanta());
+
+        assertEquals(HaltReason.BUDGET, forever.getHaltReason());
+        assertEquals(100, forever.getInstructions());
+        assertEquals(10, forever.getQuanta());
+
+        assertEquals(HaltReason.ERROR, illegal.getHaltReason());
+        assertTrue(illegal.getError() instanceof UnsupportedOperationException);
+
+        assertEquals(5 + 1 + 10 + 1, scheduler.getContextSwitches());
+        assertEquals(42 + 3 + 100, scheduler.getInstructions());
+        assertTrue(scheduler.getInstructionsPerSecond() > 0);
+    }
+
+    /**
+     * Test method for {@link Scheduler#setQuantum(int)}.
+     */
+    @Test
+    void testQuantumIsTunable() {
+        Scheduler scheduler = new Scheduler();
+        for (int i = 0; i < 200; i++) {
+            scheduler.submit(COUNTDOWN);
+        }
+        scheduler.setQuantum(1);
+        scheduler.run();
+
+        assertEquals(200 * 42, scheduler.getContextSwitches());
+        for (Scheduler.Process process : scheduler.getProcesses()) {
+            assertTrue(process.isRetired());
+            assertEquals(42, process.getInstructions());
+        }
+        assertThrows(IllegalArgumentException.class, () -> scheduler.setQuantum(0));
+    }
+}
@@ -0,0 +1,194 @@
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The SimulatorMetrics class counts what every machine in the JVM does: the
+ * instructions retired, in total and by opcode, the runs under way and how the
+ * finished ones ended. It is registered with the platform MBean server as
+ * lc3:type=SimulatorMetrics the first time it is used, so JConsole or any JMX
+ * client can watch a long-running worker.
+ *
+ * The counts are LongAdders, which stripe their updates across cells so threads
+ * adding at once do not contend. Even so, nothing is added per instruction: a
+ * Computer counts into its own plain fields and publishes the totals in bulk, at
+ * the end of a run and every so often during a long one.
+ *
+ * The instructions per second are worked out when they are read, from the total
+ * now and the total at an earlier read about 10 seconds ago, so keeping the rate
+ * costs the machines nothing. Until a client has read it for that long, the rate
+ * is the average since the metrics were created.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public final class SimulatorMetrics implements SimulatorMetricsMXBean {
+
+    /** The name the metrics are registered under. */
+    public final static String OBJECT_NAME = "lc3:type=SimulatorMetrics";
+
+    private final static String[] MNEMONICS = {
+            "BR", "ADD", "LD", "ST", "JSR", "AND", "LDR", "STR",
+            "RTI", "NOT", "LDI", "STI", "JMP", "reserved", "LEA", "TRAP"
+    };
+    private final static long WINDOW_NANOS = 10_000_000_000L;
+    private final static int SAMPLES = 64; // reads remembered for the rolling rate
+
+    private final static SimulatorMetrics INSTANCE = new SimulatorMetrics();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // another class loader registered its copy first; this one still counts
+        }
+    }
+
+    private final LongAdder mInstructions = new LongAdder();
+    private final LongAdder mActive = new LongAdder();
+    private final LongAdder mRuns = new LongAdder();
+    private final LongAdder mHalts = new LongAdder();
+    private final LongAdder mTimeouts = new LongAdder();
+    private final LongAdder mErrors = new LongAdder();
+    private final LongAdder[] mOpcodes = new LongAdder[MNEMONICS.length];
+
+    // earlier reads of the total, oldest first from mSampleStart; guarded by this
+    private final long[] mSampleNanos = new long[SAMPLES];
+    private final long[] mSampleTotals = new long[SAMPLES];
+    private int mSampleStart;
+    private int mSampleCount;
+
+    private SimulatorMetrics() {
+        for (int i = 0; i < mOpcodes.length; i++) {
+            mOpcodes[i] = new LongAdder();
+        }
+        mSampleNanos[0] = System.nanoTime();
+        mSampleCount = 1;
+    }
+
+    /**
+     * @return the metrics of this JVM, registered with the platform MBean server
+     */
+    public static SimulatorMetrics get() {
+        return INSTANCE;
+    }
+
+    // notes that a run began
+    void runStarted() {
+        mActive.increment();
+    }
+
+    // notes that a run ended, and why
+    void runFinished(final HaltReason theReason) {
+        mActive.decrement();
+        mRuns.increment();
+        switch (theReason) {
+            case HALT:
+                mHalts.increment();
+                break;
+            case ERROR:
+                mErrors.increment();
+                break;
+            default:
+                mTimeouts.increment();
+                break;
+        }
+    }
+
+    // adds theInstructions retired, and theOpcodeCounts of them by opcode, clearing
+    // theOpcodeCounts
+    void retired(final long theInstructions, final long[] theOpcodeCounts) {
+        if (theInstructions != 0) {
+            mInstructions.add(theInstructions);
+        }
+        for (int i = 0; i < theOpcodeCounts.length; i++) {
+            if (theOpcodeCounts[i] != 0) {
+                mOpcodes[i].add(theOpcodeCounts[i]);
+                theOpcodeCounts[i] = 0;
+            }
+        }
+    }
+
+    @Override
+    public long getInstructions() {
+        return mInstructions.sum();
+    }
+
+    @Override
+    public synchronized double getInstructionsPerSecond() {
+        final long now = System.nanoTime();
+        final long total = mInstructions.sum();
+        if (mSampleCount == SAMPLES) {
+            mSampleStart = (mSampleStart + 1) % SAMPLES;
+            mSampleCount--;
+        }
+        final int newest = (mSampleStart + mSampleCount) % SAMPLES;
+        mSampleNanos[newest] = now;
+        mSampleTotals[newest] = total;
+        mSampleCount++;
+        // the baseline is the latest read at least a window old, or the oldest one
+        while (mSampleCount > 2 && now - mSampleNanos[(mSampleStart + 1) % SAMPLES] >= WINDOW_NANOS) {
+            mSampleStart = (mSampleStart + 1) % SAMPLES;
+            mSampleCount--;
+        }
+        final long elapsed = now - mSampleNanos[mSampleStart];
+        return elapsed <= 0 ? 0 : (total - mSampleTotals[mSampleStart]) * 1e9 / elapsed;
+    }
+
+    @Override
+    public long getActiveMachines() {
+        return mActive.sum();
+    }
+
+    @Override
+    public long getCompletedRuns() {
+        return mRuns.sum();
+    }
+
+    @Override
+    public long getHalts() {
+        return mHalts.sum();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return mTimeouts.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return mErrors.sum();
+    }
+
+    @Override
+    public Map<String, Long> getOpcodeTotals() {
+        final Map<String, Long> totals = new LinkedHashMap<>();
+        for (int i = 0; i < MNEMONICS.length; i++) {
+            totals.put(MNEMONICS[i], mOpcodes[i].sum());
+        }
+        return totals;
+    }
+
+    /**
+     * Sets every count back to 0, except the runs under way. Counts added while
+     * the reset is in progress may survive it.
+     */
+    @Override
+    public synchronized void reset() {
+        mInstructions.reset();
+        mRuns.reset();
+        mHalts.reset();
+        mTimeouts.reset();
+        mErrors.reset();
+        for (LongAdder opcode : mOpcodes) {
+            opcode.reset();
+        }
+        mSampleStart = 0;
+        mSampleNanos[0] = System.nanoTime();
+        mSampleTotals[0] = 0;
+        mSampleCount = 1;
+    }
+}
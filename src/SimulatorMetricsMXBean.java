@@ -0,0 +1,56 @@
+import java.util.Map;
+
+/**
+ * The management interface of SimulatorMetrics, as JConsole and other JMX clients
+ * see it under the name lc3:type=SimulatorMetrics.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public interface SimulatorMetricsMXBean {
+
+    /**
+     * @return the instructions retired by every machine in this JVM
+     */
+    long getInstructions();
+
+    /**
+     * @return the instructions retired per second over roughly the last 10 seconds
+     */
+    double getInstructionsPerSecond();
+
+    /**
+     * @return the runs under way
+     */
+    long getActiveMachines();
+
+    /**
+     * @return the runs that have ended, however they ended
+     */
+    long getCompletedRuns();
+
+    /**
+     * @return the runs that ended in a HALT
+     */
+    long getHalts();
+
+    /**
+     * @return the runs cut short by cancellation or an instruction budget
+     */
+    long getTimeouts();
+
+    /**
+     * @return the runs ended by an instruction that failed
+     */
+    long getErrors();
+
+    /**
+     * @return the instructions retired for each opcode, by mnemonic
+     */
+    Map<String, Long> getOpcodeTotals();
+
+    /**
+     * Sets every count back to 0, except the runs under way.
+     */
+    void reset();
+}
@@ -0,0 +1,92 @@
+/*
+ * Unit tests for the SimulatorMetrics class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class SimulatorMetricsTest {
+
+    private static final String[] FOREVER = {
+            "0101000000100000",  // AND R0 <- 0
+            "0000111111111111",  // BR - to itself, forever
+    };
+
+    /**
+     * Test method for {@link SimulatorMetrics#getOpcodeTotals()}.
+     */
+    @Test
+    void testEnginesPublishTheSameCounts() {
+        SimulatorMetrics metrics = SimulatorMetrics.get();
+        for (int engine = 0; engine < 2; engine++) {
+            long instructions = metrics.getInstructions();
+            long halts = metrics.getHalts();
+            long active = metrics.getActiveMachines();
+            Map<String, Long> before = metrics.getOpcodeTotals();
+
+            Computer computer = new Computer();
+            computer.loadMachineCode(TestPrograms.countLoop());
+            if (engine == 0) {
+                computer.execute();
+            } else {
+                new TieredExecutor(computer, 1).execute();
+            }
+
+            Map<String, Long> after = metrics.getOpcodeTotals();
+            assertEquals(122, metrics.getInstructions() - instructions);
+            assertEquals(1, after.get("LD") - before.get("LD"));
+            assertEquals(80, after.get("ADD") - before.get("ADD"));
+            assertEquals(40, after.get("BR") - before.get("BR"));
+            assertEquals(1, after.get("TRAP") - before.get("TRAP"));
+            assertEquals(0, after.get("NOT") - before.get("NOT"));
+            assertEquals(1, metrics.getHalts() - halts);
+            assertEquals(active, metrics.getActiveMachines());
+        }
+    }
+
+    /**
+     * Test method for {@link SimulatorMetrics#getCompletedRuns()}.
+     */
+    @Test
+    void testRunsAreCountedByHowTheyEnd() {
+        SimulatorMetrics metrics = SimulatorMetrics.get();
+        long runs = metrics.getCompletedRuns();
+        long errors = metrics.getErrors();
+        long timeouts = metrics.getTimeouts();
+
+        Computer illegal = new Computer();
+        illegal.loadMachineCode("1101000000000000");
+        assertThrows(UnsupportedOperationException.class, illegal::execute);
+
+        Scheduler scheduler = new Scheduler(10);
+        scheduler.submit(100, FOREVER);
+        scheduler.submit(TestPrograms.countLoop());
+        scheduler.run();
+
+        assertEquals(3, metrics.getCompletedRuns() - runs);
+        assertEquals(1, metrics.getErrors() - errors);
+        assertEquals(1, metrics.getTimeouts() - timeouts);
+        assertTrue(metrics.getInstructionsPerSecond() > 0);
+    }
+
+    /**
+     * Test method for {@link SimulatorMetrics#get()}.
+     */
+    @Test
+    void testRegisteredWithThePlatformServer() throws JMException {
+        SimulatorMetrics metrics = SimulatorMetrics.get();
+        Object runs = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(SimulatorMetrics.OBJECT_NAME), "CompletedRuns");
+        assertEquals(metrics.getCompletedRuns(), runs);
+    }
+}
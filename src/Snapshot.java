@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The Snapshot class saves a machine's state to a file and loads it back, so a
+ * program paused part way, or an image already set up, can be resumed later or
+ * on another host. Files are read and written through a memory-mapped FileChannel,
+ * a word at a time straight between memory and the mapping, with no object per word.
+ *
+ * A snapshot holds the registers, PC, IR, PSR, instruction count and memory. Memory
+ * is split into pages of 256 words and only the pages holding a non-zero word are
+ * written; loading leaves the others 0. All values are big-endian:
+ *
+ *   int   magic "LC3S"
+ *   short version
+ *   int   memory size, in words
+ *   short R0 to R7, PC, IR, PSR
+ *   short the R6 of the mode not running
+ *   long  instruction count
+ *   int   number of pages that follow
+ *   then for each page: short page number, then its words as shorts
+ *
+ * The last page of a memory whose size is not a multiple of 256 is cut short at the
+ * end of memory. The memory must not be written by another core while it is saved.
+ * Version 1 snapshots, which held the CC where the PSR is and no second R6, still
+ * load, in user mode. Interrupts scheduled on the computer are not saved.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public final class Snapshot {
+
+    private final static int MAGIC = 0x4C433353; // "LC3S"
+    private final static short VERSION = 2;
+    private final static short VERSION_CC_ONLY = 1;
+    private final static int PAGE_SHIFT = 8;
+    private final static int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private final static int REGISTERS = 8;
+    private final static int MAX_MEMORY = 65536;
+    private final static int HEADER_BYTES = 4 + 2 + 4 + (REGISTERS + 4) * 2 + 8 + 4;
+    private final static int HEADER_BYTES_CC_ONLY = HEADER_BYTES - 2;
+
+    private Snapshot() {
+    }
+
+    /**
+     * Saves theComputer to theFile, replacing anything already there.
+     * @param theComputer the computer to save
+     * @param theFile the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(final Computer theComputer, final Path theFile) throws IOException {
+        final Memory memory = theComputer.memory();
+        final int size = memory.size();
+        final int pages = (size + PAGE_SIZE - 1) >>> PAGE_SHIFT;
+        final boolean[] used = new boolean[pages];
+        int usedPages = 0;
+        long bytes = HEADER_BYTES;
+        for (int page = 0; page < pages; page++) {
+            final int start = page << PAGE_SHIFT;
+            final int end = Math.min(start + PAGE_SIZE, size);
+            for (int address = start; address < end; address++) {
+                if (memory.get(address) != 0) {
+                    used[page] = true;
+                    usedPages++;
+                    bytes += 2 + (end - start) * 2;
+                    break;
+                }
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(theFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.putInt(size);
+            for (int i = 0; i < REGISTERS; i++) {
+                buffer.putShort((short) theComputer.registerValue(i));
+            }
+            buffer.putShort((short) theComputer.programCounter());
+            buffer.putShort((short) theComputer.instruction());
+            buffer.putShort((short) theComputer.processorStatus());
+            buffer.putShort((short) theComputer.savedStackPointer());
+            buffer.putLong(theComputer.getInstructionCount());
+            buffer.putInt(usedPages);
+            for (int page = 0; page < pages; page++) {
+                if (used[page]) {
+                    final int start = page << PAGE_SHIFT;
+                    final int end = Math.min(start + PAGE_SIZE, size);
+                    buffer.putShort((short) page);
+                    for (int address = start; address < end; address++) {
+                        buffer.putShort((short) memory.get(address));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the computer saved in theFile. It has the saved memory size and picks up
+     * where the saved computer left off.
+     * @param theFile the file to read
+     * @return a new computer in the saved state
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static Computer load(final Path theFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(theFile, StandardOpenOption.READ)) {
+            final long bytes = channel.size();
+            if (bytes < HEADER_BYTES_CC_ONLY) {
+                throw new IOException("Truncated snapshot");
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot");
+            }
+            final short version = buffer.getShort();
+            if (version != VERSION && version != VERSION_CC_ONLY) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            if (version == VERSION && bytes < HEADER_BYTES) {
+                throw new IOException("Truncated snapshot");
+            }
+            final int size = buffer.getInt();
+            if (size <= 0 || size > MAX_MEMORY) {
+                throw new IOException("Invalid memory size " + size);
+            }
+            final int[] registers = new int[REGISTERS];
+            for (int i = 0; i < REGISTERS; i++) {
+                registers[i] = buffer.getShort() & 0xFFFF;
+            }
+            final int pc = buffer.getShort() & 0xFFFF;
+            final int ir = buffer.getShort() & 0xFFFF;
+            final int psr = buffer.getShort() & 0xFFFF;
+            final int savedStackPointer = version == VERSION ? buffer.getShort() & 0xFFFF : -1;
+            final long instructions = buffer.getLong();
+            final int usedPages = buffer.getInt();
+            final int pages = (size + PAGE_SIZE - 1) >>> PAGE_SHIFT;
+            if (usedPages < 0 || usedPages > pages) {
+                throw new IOException("Invalid page count " + usedPages);
+            }
+
+            final Memory memory = new Memory(size);
+            for (int i = 0; i < usedPages; i++) {
+                if (buffer.remaining() < 2) {
+                    throw new IOException("Truncated snapshot");
+                }
+                final int page = buffer.getShort() & 0xFFFF;
+                if (page >= pages) {
+                    throw new IOException("Invalid page " + page);
+                }
+                final int start = page << PAGE_SHIFT;
+                final int end = Math.min(start + PAGE_SIZE, size);
+                if (buffer.remaining() < (end - start) * 2) {
+                    throw new IOException("Truncated snapshot");
+                }
+                for (int address = start; address < end; address++) {
+                    final int word = buffer.getShort() & 0xFFFF;
+                    if (word != 0) {
+                        memory.set(address, word);
+                    }
+                }
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("Trailing bytes after snapshot");
+            }
+
+            final Computer computer = new Computer(memory);
+            try {
+                computer.restore(registers, pc, ir, psr & 7, instructions);
+                if (version == VERSION) {
+                    computer.restoreStatus(psr, savedStackPointer);
+                } else if (psr > 7) {
+                    throw new IllegalArgumentException("Invalid condition code");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid snapshot: " + e.getMessage(), e);
+            }
+            return computer;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Unit tests for the Snapshot class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class SnapshotTest {
+
+    /**
+     * Test method for {@link Snapshot#load(Path)}.
+     */
+    @Test
+    void testSaveAndResume() throws IOException {
+        Computer original = new Computer();
+        original.loadMachineCode(TestPrograms.countLoop());
+        for (int i = 0; i < 20; i++) {
+            original.executeNext();
+        }
+        Path file = Files.createTempFile("snapshot", ".lc3");
+        try {
+            Snapshot.save(original, file);
+            Computer resumed = Snapshot.load(file);
+
+            assertEquals(original.memorySize(), resumed.memorySize());
+            assertEquals(original.getPC().getUnsignedValue(), resumed.getPC().getUnsignedValue());
+            assertEquals(original.getIR().getUnsignedValue(), resumed.getIR().getUnsignedValue());
+            assertArrayEquals(original.getCC().getBits(), resumed.getCC().getBits());
+            assertEquals(20, resumed.getInstructionCount());
+
+            original.execute();
+            resumed.execute();
+            for (int i = 0; i < 8; i++) {
+                assertEquals(original.getRegisters()[i].getUnsignedValue(),
+                        resumed.getRegisters()[i].getUnsignedValue());
+            }
+            assertEquals(0, resumed.getRegisters()[0].get2sCompValue());
+            assertEquals(41, resumed.getRegisters()[1].get2sCompValue());
+            assertEquals(original.getInstructionCount(), resumed.getInstructionCount());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test method for {@link Snapshot#save(Computer, Path)}.
+     */
+    @Test
+    void testOnlyNonZeroPagesAreSaved() throws IOException {
+        Computer computer = new Computer(new Memory(65536));
+        computer.memory().set(0x3000, 0xF025); // HALT
+        computer.memory().set(0xFFFF, 0x1234);
+        computer.jump(0x3000);
+        Path file = Files.createTempFile("snapshot", ".lc3");
+        try {
+            Snapshot.save(computer, file);
+            assertEquals(46 + 2 * (2 + 256 * 2), Files.size(file));
+
+            Computer loaded = Snapshot.load(file);
+            assertEquals(65536, loaded.memorySize());
+            assertEquals(0xF025, loaded.wordAt(0x3000));
+            assertEquals(0x1234, loaded.wordAt(0xFFFF));
+            assertEquals(0, loaded.wordAt(0x2FFF));
+            assertEquals("000", String.valueOf(loaded.getCC().getBits()));
+            loaded.execute();
+            assertEquals(0x3001, loaded.getPC().getUnsignedValue());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test method for {@link Snapshot#load(Path)}.
+     */
+    @Test
+    void testLoadRejectsBadFiles() throws IOException {
+        Computer computer = new Computer();
+        computer.loadMachineCode(TestPrograms.countLoop());
+        Path file = Files.createTempFile("snapshot", ".lc3");
+        try {
+            Snapshot.save(computer, file);
+            byte[] bytes = Files.readAllBytes(file);
+
+            byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+            Files.write(file, truncated);
+            assertThrows(IOException.class, () -> Snapshot.load(file));
+
+            byte[] magic = bytes.clone();
+            magic[0] = 'X';
+            Files.write(file, magic);
+            assertThrows(IOException.class, () -> Snapshot.load(file));
+
+            byte[] version = bytes.clone();
+            version[5] = 3;
+            Files.write(file, version);
+            assertThrows(IOException.class, () -> Snapshot.load(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test method for {@link Snapshot#load(Path)}.
+     */
+    @Test
+    void testLoadVersionOne() throws IOException {
+        String[] program = TestPrograms.countLoop();
+        // the count loop paused after its LD, which set the CC to p
+        ByteBuffer v1 = ByteBuffer.allocate(44 + 2 + 50 * 2);
+        v1.putInt(0x4C433353).putShort((short) 1).putInt(50);
+        for (int i = 0; i < 8; i++) {
+            v1.putShort((short) (i == 0 ? 40 : i));
+        }
+        v1.putShort((short) 1).putShort((short) 0x2004).putShort((short) 1); // PC, IR, CC
+        v1.putLong(1).putInt(1).putShort((short) 0);
+        for (int address = 0; address < 50; address++) {
+            BitString word = new BitString();
+            word.setBits((address < program.length ? program[address] : "0000000000000000").toCharArray());
+            v1.putShort((short) word.getUnsignedValue());
+        }
+        Path file = Files.createTempFile("snapshot", ".lc3");
+        try {
+            Files.write(file, v1.array());
+            Computer loaded = Snapshot.load(file);
+            assertEquals(50, loaded.memorySize());
+            assertEquals(1, loaded.getPC().getUnsignedValue());
+            assertEquals(0x2004, loaded.getIR().getUnsignedValue());
+            assertEquals(0x8001, loaded.getPSR().getUnsignedValue()); // user mode, priority 0, p
+            assertEquals(0x3000, loaded.savedStackPointer()); // the supervisor stack, untouched
+            assertEquals(1, loaded.getInstructionCount());
+            loaded.execute();
+            assertEquals(41, loaded.getRegisters()[1].get2sCompValue());
+            assertEquals(122, loaded.getInstructionCount());
+
+            // a header alone is a whole version 1 snapshot, shorter than a version 2 header
+            byte[] header = Arrays.copyOf(v1.array(), 44);
+            header[43] = 0; // no pages
+            Files.write(file, header);
+            Computer empty = Snapshot.load(file);
+            assertEquals(0, empty.wordAt(0));
+            assertEquals(0x8001, empty.getPSR().getUnsignedValue());
+
+            // only a CC fits where version 1 kept it
+            header[31] = 8;
+            Files.write(file, header);
+            assertThrows(IOException.class, () -> Snapshot.load(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * The StepSummary describes what a call to Computer.step() changed: how many
+ * instructions ran, which registers and memory words were written, and the new
+ * PC and CC. A summary is owned by the caller and overwritten by every step it is
+ * passed to, so a debugger stepping one instruction at a time allocates nothing.
+ *
+ * It holds the addresses of up to a fixed number of memory writes per step; any
+ * further writes are only counted.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public final class StepSummary {
+
+    private final static int DEFAULT_CAPACITY = 16;
+    private final static int REGISTERS = 8;
+
+    private final int[] mWrites; // the addresses of the first memory writes
+    private int mWriteCount;
+    private final int[] mRegisters = new int[REGISTERS];
+    private int mRegistersWritten;
+    private int mInstructions;
+    private boolean mHalted;
+    private int mPC;
+    private int mCC;
+
+    /**
+     * Creates a summary holding the addresses of up to 16 memory writes per step.
+     */
+    public StepSummary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a summary.
+     * @param theCapacity the most memory write addresses to hold per step
+     */
+    public StepSummary(final int theCapacity) {
+        if (theCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+        mWrites = new int[theCapacity];
+    }
+
+    // clears the summary before a step
+    void reset() {
+        mWriteCount = 0;
+        mRegistersWritten = 0;
+        mInstructions = 0;
+        mHalted = false;
+    }
+
+    // notes a write to memory at theAddress
+    void recordWrite(final int theAddress) {
+        if (mWriteCount < mWrites.length) {
+            mWrites[mWriteCount] = theAddress;
+        }
+        mWriteCount++;
+    }
+
+    // fills in the state left by a step
+    void finish(final int theInstructions, final boolean theHalted, final int theRegistersWritten,
+                final int[] theRegisters, final int thePC, final int theCC) {
+        mInstructions = theInstructions;
+        mHalted = theHalted;
+        mRegistersWritten = theRegistersWritten;
+        System.arraycopy(theRegisters, 0, mRegisters, 0, REGISTERS);
+        mPC = thePC;
+        mCC = theCC;
+    }
+
+    /**
+     * @return the instructions executed, including a HALT
+     */
+    public int getInstructions() {
+        return mInstructions;
+    }
+
+    /**
+     * @return true if the step ended in a HALT
+     */
+    public boolean isHalted() {
+        return mHalted;
+    }
+
+    /**
+     * @return a mask with bit r set if register r was written
+     */
+    public int getRegistersWritten() {
+        return mRegistersWritten;
+    }
+
+    /**
+     * @param theRegister the register number
+     * @return true if the register was written
+     */
+    public boolean isRegisterWritten(final int theRegister) {
+        return (mRegistersWritten & (1 << theRegister)) != 0;
+    }
+
+    /**
+     * @param theRegister the register number
+     * @return the 2's complement value of the register after the step
+     */
+    public int getRegister(final int theRegister) {
+        return (short) mRegisters[theRegister];
+    }
+
+    /**
+     * @return the number of memory writes, which may be more than were kept
+     */
+    public int getMemoryWriteCount() {
+        return mWriteCount;
+    }
+
+    /**
+     * @param theIndex the index of a kept write, less than both the write count and the capacity
+     * @return the address written
+     */
+    public int getMemoryWrite(final int theIndex) {
+        if (theIndex >= Math.min(mWriteCount, mWrites.length)) {
+            throw new IndexOutOfBoundsException("Invalid write index");
+        }
+        return mWrites[theIndex];
+    }
+
+    /**
+     * @return the PC after the step
+     */
+    public int getPC() {
+        return mPC;
+    }
+
+    /**
+     * @return the CC after the step, as nzp bits; 0 if no instruction has set it
+     */
+    public int getCC() {
+        return mCC;
+    }
+}
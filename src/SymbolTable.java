@@ -0,0 +1,107 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The SymbolTable maps assembler labels to addresses, so an address can be shown as
+ * the label it falls under, such as LOOP+2, rather than as x3005. Tables are built
+ * with define() or read from a .sym file as written by the LC-3 assembler, whose
+ * lines hold a label and a hex address after a leading "//":
+ *
+ *   //	Symbol Name       Page Address
+ *   //	----------------  ------------
+ *   //	START             3000
+ *   //	LOOP              3002
+ *
+ * A table is not changed while it is used from other threads.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public final class SymbolTable {
+
+    private final static int MAX_ADDRESS = 0xFFFF;
+
+    private final TreeMap<Integer, String> mLabels = new TreeMap<>();
+
+    /**
+     * Reads the labels of theFile, skipping its headers and any line that is not a
+     * label and a hex address.
+     * @param theFile a symbol file
+     * @return the table
+     * @throws IOException if the file cannot be read
+     */
+    public static SymbolTable read(final Path theFile) throws IOException {
+        final SymbolTable table = new SymbolTable();
+        final List<String> lines = Files.readAllLines(theFile);
+        for (String line : lines) {
+            String text = line.trim();
+            if (text.startsWith("//")) {
+                text = text.substring(2).trim();
+            }
+            final String[] fields = text.split("\\s+");
+            if (fields.length != 2) {
+                continue;
+            }
+            final String digits = fields[1].startsWith("x") || fields[1].startsWith("X")
+                    ? fields[1].substring(1) : fields[1];
+            if (!digits.matches("[0-9A-Fa-f]{1,4}")) {
+                continue;
+            }
+            table.define(fields[0], Integer.parseInt(digits, 16));
+        }
+        return table;
+    }
+
+    /**
+     * Gives theAddress the label theLabel, in place of any label it had.
+     * @param theLabel the label
+     * @param theAddress the address, x0000 to xFFFF
+     */
+    public void define(final String theLabel, final int theAddress) {
+        if (theAddress < 0 || theAddress > MAX_ADDRESS) {
+            throw new IllegalArgumentException("Invalid address");
+        }
+        if (theLabel.isEmpty() || theLabel.indexOf(';') >= 0 || theLabel.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException("Invalid label: " + theLabel);
+        }
+        mLabels.put(theAddress, theLabel);
+    }
+
+    /**
+     * @return the number of labels
+     */
+    public int size() {
+        return mLabels.size();
+    }
+
+    /**
+     * @param theAddress an address
+     * @return the label at or closest below theAddress, or the address in hex if there is none
+     */
+    public String labelOf(final int theAddress) {
+        final Map.Entry<Integer, String> label = mLabels.floorEntry(theAddress);
+        return label == null ? hex(theAddress) : label.getValue();
+    }
+
+    /**
+     * @param theAddress an address
+     * @return the label at or closest below theAddress plus the distance past it,
+     *         such as LOOP+2, or the address in hex if there is no label below it
+     */
+    public String nameOf(final int theAddress) {
+        final Map.Entry<Integer, String> label = mLabels.floorEntry(theAddress);
+        if (label == null) {
+            return hex(theAddress);
+        }
+        final int offset = theAddress - label.getKey();
+        return offset == 0 ? label.getValue() : label.getValue() + "+" + offset;
+    }
+
+    static String hex(final int theAddress) {
+        return String.format("x%04X", theAddress);
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Small machine code programs shared by the unit tests.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+final class TestPrograms {
+
+    // Counts R0 down from 40 to 0, adding 1 to R1 each time around: 1 + 3 * 40 + 1
+    // instructions, with the loop body at START + 1 to START + 3.
+    private final static String[] COUNT_LOOP = {
+            "0010000000000100",  // START: LD into R0 x28
+            "0001001001100001",  // LOOP: ADD R1 <- R1 + 1
+            "0001000000111111",  // ADD R0 <- R0 - 1
+            "0000001111111101",  // BRp LOOP
+            "1111000000100101",  // DONE: TRAP - vector x25 - HALT
+            "0000000000101000",  // x28
+    };
+
+    // Four loops nested in each other, each counting down from 40: R1 outermost and
+    // R4 innermost, 5,316,922 instructions in all.
+    private final static String[] NESTED_LOOPS = {
+            "0010001000001100",  // LD into R1 x28 - outer counter
+            "0010010000001011",  // OUTER: LD into R2 x28
+            "0010011000001010",  // MID: LD into R3 x28
+            "0010100000001001",  // INNER: LD into R4 x28
+            "0001100100111111",  // LOOP: ADD R4 <- R4 - 1
+            "0000001111111110",  // BRp LOOP
+            "0001011011111111",  // ADD R3 <- R3 - 1
+            "0000001111111011",  // BRp INNER
+            "0001010010111111",  // ADD R2 <- R2 - 1
+            "0000001111111000",  // BRp MID
+            "0001001001111111",  // ADD R1 <- R1 - 1
+            "0000001111110101",  // BRp OUTER
+            "1111000000100101",  // TRAP - vector x25 - HALT
+            "0000000000101000",  // x28
+    };
+
+    private TestPrograms() {
+    }
+
+    /**
+     * @return a fresh copy of the loop that counts R0 down from 40, adding 1 to R1
+     *         each time around, then halts with R0 at 0 and R1 at 41
+     */
+    static String[] countLoop() {
+        return COUNT_LOOP.clone();
+    }
+
+    /**
+     * @return a fresh copy of four loops nested in each other, each counting down
+     *         from 40, which halts after 5,316,922 instructions
+     */
+    static String[] nestedLoops() {
+        return NESTED_LOOPS.clone();
+    }
+}
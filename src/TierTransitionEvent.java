@@ -0,0 +1,29 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for a basic block moving between execution tiers.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+@Name("lc3.TierTransition")
+@Label("Tier Transition")
+@Category("LC-3 Simulator")
+@Description("A basic block promoted to, or demoted from, a faster tier")
+final class TierTransitionEvent extends jdk.jfr.Event {
+
+    @Label("Block Start")
+    int blockStart;
+
+    @Label("Block Length")
+    int blockLength;
+
+    @Label("From Tier")
+    String fromTier;
+
+    @Label("To Tier")
+    String toTier;
+}
@@ -0,0 +1,260 @@
+import jdk.jfr.EventType;
+
+/**
+ * The TieredExecutor runs the program loaded into a Computer, starting every basic
+ * block in the plain interpreter and promoting the blocks that run more than a
+ * threshold number of times to a decoded tier, which decodes each instruction once
+ * instead of on every execution. A block is demoted back to the interpreter when
+ * any of its words is written. A decoded block that only does register arithmetic
+ * and loops back to itself skips the iterations it can work out in closed form.
+ *
+ * The blocks come from a ControlFlowGraph built when the executor is created. Each
+ * block hands control straight to its linked successor, so the PC is only looked
+ * up again when the graph has changed underneath a link.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+public class TieredExecutor implements Computer.MemoryListener {
+
+    /**
+     * The tiers a block can run in.
+     */
+    public enum Tier {
+        /** Fetch and decode on every instruction, through Computer.executeNext(). */
+        INTERPRETER,
+        /** Instructions decoded once on promotion and run from the decoded form. */
+        DECODED
+    }
+
+    private final static int DEFAULT_THRESHOLD = 50;
+    private final static EventType EXECUTION = EventType.getEventType(ExecutionEvent.class);
+    private final static EventType TIER_TRANSITION = EventType.getEventType(TierTransitionEvent.class);
+
+    private final Computer mComputer;
+    private final int mThreshold;
+    private final ControlFlowGraph mGraph;
+    private BasicBlock mStepNext; // the block the last step() continues at
+
+    private final long[] mTierNanos = new long[Tier.values().length];
+    private final long[] mTierInstructions = new long[Tier.values().length];
+    private long mPromotions;
+    private long mDemotions;
+    private long mSkipped;
+
+    /**
+     * Creates an executor for theComputer that promotes blocks after 50 executions.
+     * @param theComputer the computer holding the program
+     */
+    public TieredExecutor(final Computer theComputer) {
+        this(theComputer, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates an executor for theComputer.
+     * @param theComputer the computer holding the program
+     * @param theThreshold the number of executions after which a block is promoted
+     */
+    public TieredExecutor(final Computer theComputer, final int theThreshold) {
+        if (theThreshold < 0) {
+            throw new IllegalArgumentException("Invalid threshold");
+        }
+        mComputer = theComputer;
+        mThreshold = theThreshold;
+        mGraph = new ControlFlowGraph(theComputer, theComputer.programCounter());
+        theComputer.setMemoryListener(this);
+    }
+
+    /**
+     * Executes the instructions starting at the computer's PC until a HALT
+     * instruction is encountered, with the same results as Computer.execute().
+     */
+    public void execute() {
+        final ExecutionEvent event = EXECUTION.isEnabled() ? new ExecutionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        final SimulatorMetrics metrics = SimulatorMetrics.get();
+        metrics.runStarted();
+        final long start = mComputer.getInstructionCount();
+        final int startAddress = mComputer.programCounter();
+        HaltReason reason = HaltReason.ERROR;
+        try {
+            runBlocks();
+            reason = HaltReason.HALT;
+        } finally {
+            if (event != null) {
+                event.finish("tiered", startAddress, mComputer.getInstructionCount() - start, reason);
+            }
+            mComputer.publishMetrics();
+            metrics.runFinished(reason);
+        }
+    }
+
+    // runs blocks, chaining from each to its successor, until one ends in a HALT
+    private void runBlocks() {
+        Tier tier = Tier.INTERPRETER;
+        long segmentStart = System.nanoTime();
+        BasicBlock block = mGraph.blockAt(mComputer.programCounter());
+
+        while (block != null) {
+            if (block.countExecution() > mThreshold && block.getTier() == Tier.INTERPRETER) {
+                promote(block);
+            }
+            // time is only taken when control moves between tiers, not per block
+            if (block.getTier() != tier) {
+                final long now = System.nanoTime();
+                mTierNanos[tier.ordinal()] += now - segmentStart;
+                segmentStart = now;
+                tier = block.getTier();
+            }
+            final int next = run(block);
+            block = next == BasicBlock.HALTED ? null : block.successor(next, mGraph);
+        }
+        mTierNanos[tier.ordinal()] += System.nanoTime() - segmentStart;
+    }
+
+    /**
+     * Runs the one block at the computer's PC, without timing it. The block is
+     * reached through the link from the block stepped before whenever possible.
+     * @return true if the block ended in a HALT; false otherwise
+     */
+    boolean step() {
+        BasicBlock block = mStepNext;
+        if (block == null || !block.isValid() || block.getStart() != mComputer.programCounter()) {
+            block = mGraph.blockAt(mComputer.programCounter());
+        }
+        if (block.countExecution() > mThreshold && block.getTier() == Tier.INTERPRETER) {
+            promote(block);
+        }
+        mStepNext = null;
+        final int next = run(block);
+        if (next == BasicBlock.HALTED) {
+            return true;
+        }
+        mStepNext = block.successor(next, mGraph);
+        return false;
+    }
+
+    // moves theBlock up to the decoded tier
+    private void promote(final BasicBlock theBlock) {
+        theBlock.promote(mComputer);
+        mPromotions++;
+        recordTransition(theBlock, Tier.INTERPRETER, Tier.DECODED);
+    }
+
+    private static void recordTransition(final BasicBlock theBlock, final Tier theFrom, final Tier theTo) {
+        if (TIER_TRANSITION.isEnabled()) {
+            final TierTransitionEvent event = new TierTransitionEvent();
+            event.blockStart = theBlock.getStart();
+            event.blockLength = theBlock.getLength();
+            event.fromTier = theFrom.name();
+            event.toTier = theTo.name();
+            event.commit();
+        }
+    }
+
+    // runs theBlock in its tier and returns where execution continues, or HALTED
+    private int run(final BasicBlock theBlock) {
+        mTierInstructions[theBlock.getTier().ordinal()] += theBlock.getLength();
+        if (theBlock.getTier() == Tier.DECODED) {
+            final long skipped = theBlock.skipIterations(mComputer);
+            mSkipped += skipped;
+            mTierInstructions[Tier.DECODED.ordinal()] += skipped;
+        }
+        // a block an interrupt may be taken in is interpreted, so it is taken on time
+        if (theBlock.getTier() == Tier.DECODED && !mComputer.isEventDue(theBlock.getLength())) {
+            return theBlock.runDecoded(mComputer);
+        }
+        return theBlock.interpret(mComputer);
+    }
+
+    /**
+     * Drops the block holding the written word and rebuilds the graph from there;
+     * the new block starts over in the interpreter.
+     * @param theAddress the address that was written
+     */
+    @Override
+    public void memoryWritten(final int theAddress) {
+        final BasicBlock block = mGraph.invalidate(theAddress);
+        if (block != null) {
+            dropped(block);
+        }
+    }
+
+    /**
+     * Drops the blocks holding any of the written words, each once, and rebuilds
+     * the graph from them. Every other block keeps its tier and decoded form.
+     * @param theAddresses the addresses that were written
+     * @param theCount the number of addresses, from the first
+     */
+    @Override
+    public void memoryWritten(final int[] theAddresses, final int theCount) {
+        for (BasicBlock block : mGraph.invalidate(theAddresses, theCount)) {
+            dropped(block);
+        }
+    }
+
+    // sends theBlock, thrown out of the graph, back to the interpreter
+    private void dropped(final BasicBlock theBlock) {
+        if (theBlock.getTier() != Tier.INTERPRETER) {
+            recordTransition(theBlock, theBlock.getTier(), Tier.INTERPRETER);
+            theBlock.demote();
+            mDemotions++;
+        }
+    }
+
+    /**
+     * @return the number of basic blocks in the program's control-flow graph
+     */
+    public int getBlockCount() {
+        return mGraph.getBlockCount();
+    }
+
+    /**
+     * @return the number of executions after which a block is promoted
+     */
+    public int getThreshold() {
+        return mThreshold;
+    }
+
+    /**
+     * @return the number of blocks promoted to the decoded tier
+     */
+    public long getPromotions() {
+        return mPromotions;
+    }
+
+    /**
+     * @return the number of decoded blocks sent back to the interpreter by a write
+     */
+    public long getDemotions() {
+        return mDemotions;
+    }
+
+    /**
+     * @return the instructions of simple counted loops skipped in closed form
+     *         instead of being run; they count as retired, in the decoded tier
+     */
+    public long getSkippedInstructions() {
+        return mSkipped;
+    }
+
+    /**
+     * @param theTier a tier
+     * @return the nanoseconds spent running blocks in theTier
+     */
+    public long getTierNanos(final Tier theTier) {
+        return mTierNanos[theTier.ordinal()];
+    }
+
+    /**
+     * Counts the instructions of the blocks entered in theTier. A block cut short by
+     * a HALT or an exception is still counted in full.
+     * @param theTier a tier
+     * @return the instructions run in theTier
+     */
+    public long getTierInstructions(final Tier theTier) {
+        return mTierInstructions[theTier.ordinal()];
+    }
+}
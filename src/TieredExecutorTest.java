@@ -0,0 +1,123 @@
+/*
+ * Unit tests for the TieredExecutor class.
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+/**
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+class TieredExecutorTest {
+
+    // An instance of the Computer class to use in the tests.
+    private Computer mComp;
+
+    @BeforeEach
+    void setUp() {
+        mComp = new Computer();
+    }
+
+    /**
+     * Test method for {@link TieredExecutor#execute()}.
+     */
+    @Test
+    void testExecuteMatchesInterpreter() {
+        Computer reference = new Computer();
+        reference.loadMachineCode(TestPrograms.countLoop());
+        reference.execute();
+
+        mComp.loadMachineCode(TestPrograms.countLoop());
+        TieredExecutor executor = new TieredExecutor(mComp, 10);
+        executor.execute();
+
+        assertEquals(41, mComp.getRegisters()[1].get2sCompValue());
+        assertEquals(0, mComp.getRegisters()[0].get2sCompValue());
+        assertArrayEquals(reference.getPC().getBits(), mComp.getPC().getBits());
+        assertArrayEquals(reference.getIR().getBits(), mComp.getIR().getBits());
+        assertArrayEquals(reference.getCC().getBits(), mComp.getCC().getBits());
+    }
+
+    /**
+     * Test method for {@link TieredExecutor#execute()}.
+     */
+    @Test
+    void testHotLoopIsPromoted() {
+        mComp.loadMachineCode(TestPrograms.countLoop());
+        TieredExecutor executor = new TieredExecutor(mComp, 10);
+        executor.execute();
+
+        // only the loop body runs more than 10 times
+        assertEquals(1, executor.getPromotions());
+        assertEquals(3 * 30, executor.getTierInstructions(TieredExecutor.Tier.DECODED));
+        assertEquals(1 + 3 * 10 + 1, executor.getTierInstructions(TieredExecutor.Tier.INTERPRETER));
+    }
+
+    /**
+     * Test method for {@link TieredExecutor#memoryWritten(int)}.
+     */
+    @Test
+    void testWriteDemotesBlock() {
+        mComp.loadMachineCode(TestPrograms.countLoop());
+        TieredExecutor executor = new TieredExecutor(mComp, 10);
+        executor.execute();
+
+        // ADD R1 <- R1 + 2 in place of + 1
+        BitString word = new BitString();
+        word.setBits("0001001001100010".toCharArray());
+        mComp.loadWord(1, word);
+        assertEquals(1, executor.getDemotions());
+    }
+
+    /**
+     * Test method for {@link TieredExecutor#execute()}.
+     */
+    @Test
+    void testExecuteWithOutput() {
+        ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStreamCaptor));
+        String program[] = {
+                "0010000000001000",  // LD into R0 x39 which is ASCII 9
+                "0010001000001000",  // LD into R1 x30
+                "0001010000000001",  // ADD R2 <- R0 + R1 ; #9 ; R2 is the counter
+                "0000010000000100",  // BR if zero skip down to code after the loop
+                "1111000000100001",  // TRAP - vector x21 - OUT R0
+                "0001000000111111",  // ADD - decrement R0 - the character
+                "0001010010111111",  // ADD - decrement R2 - the counter
+                "0000111111111011",  // BR - Loop back
+                "1111000000100101",  // TRAP - vector x25 - HALT
+                "0000000000111001",  // x39
+                "1111111111010000"}; // x30
+
+        mComp.loadMachineCode(program);
+        new TieredExecutor(mComp, 2).execute();
+
+        assertEquals("987654321", outputStreamCaptor.toString().trim());
+    }
+
+    /**
+     * Test method for {@link TieredExecutor#getBlockCount()}.
+     */
+    @Test
+    void testGraphFollowsBranches() {
+        mComp.loadMachineCode(TestPrograms.countLoop());
+        TieredExecutor executor = new TieredExecutor(mComp);
+
+        // LD | ADD ADD BRp | HALT - the data word after HALT is never reached
+        assertEquals(3, executor.getBlockCount());
+
+        // BRnzp to the HALT in place of the BRp leaves only LD and the loop body reachable from it
+        BitString word = new BitString();
+        word.setBits("0000111000000000".toCharArray());
+        mComp.loadWord(3, word);
+        assertEquals(3, executor.getBlockCount());
+        executor.execute();
+        assertEquals(2, mComp.getRegisters()[1].get2sCompValue());
+    }
+}
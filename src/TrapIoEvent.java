@@ -0,0 +1,23 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for a trap routine that does I/O.
+ *
+ * @author Ivan Sy
+ * @version 10/19/2026
+ */
+@Name("lc3.TrapIo")
+@Label("Trap I/O")
+@Category("LC-3 Simulator")
+@Description("The characters written or read by one trap routine")
+final class TrapIoEvent extends jdk.jfr.Event {
+
+    @Label("Trap Vector")
+    int vector;
+
+    @Label("Characters")
+    int characters;
+}